@@ -1,19 +1,45 @@
 package plugin.breakspell;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.logging.Level;
+import javax.sql.DataSource;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import plugin.breakspell.command.BreakSpellCommand;
 import plugin.breakspell.command.ChantingCommand;
 import plugin.breakspell.command.ScoreCommand;
+import plugin.breakspell.database.AsyncPlayerProgressConnector;
+import plugin.breakspell.database.AsyncPlayerScoreConnector;
+import plugin.breakspell.database.AsyncPlayerStatsConnector;
+import plugin.breakspell.database.DatabaseExecutor;
+import plugin.breakspell.database.HighScoreRegister;
+import plugin.breakspell.database.PlayerProgressCache;
 import plugin.breakspell.database.PlayerProgressConnector;
 import plugin.breakspell.database.PlayerScoreConnector;
-import plugin.breakspell.game.data.PlayerGameData;
+import plugin.breakspell.database.PlayerStatsCache;
+import plugin.breakspell.database.PlayerStatsConnector;
+import plugin.breakspell.database.SchemaMigrator;
+import plugin.breakspell.database.ScoreArchiver;
+import plugin.breakspell.database.ScoreHistoryPager;
+import plugin.breakspell.database.ScoreLeaderboard;
+import plugin.breakspell.database.ScoreListRenderCache;
+import plugin.breakspell.database.ScoreWriteBehindQueue;
+import plugin.breakspell.database.SessionRouter;
+import plugin.breakspell.database.WindowedLeaderboard;
+import plugin.breakspell.database.backup.ScoreBackup;
+import plugin.breakspell.database.monitor.SqlTimingInterceptor;
+import plugin.breakspell.database.spool.WriteSpool;
+import plugin.breakspell.database.storage.StorageBackend;
+import plugin.breakspell.game.constant.TickTime;
 import plugin.breakspell.game.manager.effect.ScoreboardManager;
 import plugin.breakspell.game.manager.effect.SendTextManager;
 import plugin.breakspell.game.manager.effect.SoundEffectManager;
@@ -23,53 +49,172 @@ import plugin.breakspell.game.manager.execution.ComboBonusManager;
 import plugin.breakspell.game.manager.execution.GameExecutor;
 import plugin.breakspell.game.manager.execution.GameStatusChecker;
 import plugin.breakspell.game.manager.execution.SpawnEntityManager;
+import plugin.breakspell.game.manager.execution.SpawnPipeline;
+import plugin.breakspell.game.replay.ReplayStore;
+import plugin.breakspell.game.session.GameSessionRegistry;
+import plugin.breakspell.game.tick.GameTickDriver;
 import plugin.breakspell.listener.InventoryClickListener;
 import plugin.breakspell.listener.OperationRestriction;
+import plugin.breakspell.listener.PlayerConnectionListener;
 import plugin.breakspell.listener.PlayerInteractEntityListener;
 import plugin.breakspell.menu.MenuGuiManager;
 
 public final class Main extends JavaPlugin {
 
+  private DatabaseExecutor databaseExecutor;
+  private ScoreWriteBehindQueue scoreWriteBehindQueue;
+  private WriteSpool writeSpool;
+  private ScoreArchiver scoreArchiver;
+  private StorageBackend storageBackend;
+  private ReplayStore replayStore;
+  private GameExecutor gameExecutor;
+  private GameTickDriver gameTickDriver;
+
   @Override
   public void onEnable() {
 
     SqlSessionFactory sqlSessionFactory;
-    Map<UUID, PlayerGameData> playerGameDataMap = new HashMap<>();
+    SqlSessionFactory replicaSessionFactory = null;
+    SqlTimingInterceptor sqlTimingInterceptor;
+    GameSessionRegistry gameSessionRegistry = new GameSessionRegistry(this);
+
+    // 設定ファイルを読み込み
+    saveDefaultConfig();
+    int leaderboardSize = Math.max(1, getConfig().getInt("leaderboard.size", 5));
 
-    // セッションファクトリーをインスタンス化
+    // 設定ファイルで選択した保存先に接続するセッションファクトリーをインスタンス化
     try {
-      InputStream inputStream = Resources.getResourceAsStream("mybatis-config.xml");
-      sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
+      storageBackend =
+          StorageBackend.fromConfig(getConfig().getConfigurationSection("storage"), getDataFolder());
+      sqlTimingInterceptor =
+          new SqlTimingInterceptor(
+              Math.max(0, getConfig().getLong("monitor.slow-query-millis", 100)), getLogger());
+      sqlSessionFactory =
+          buildSqlSessionFactory(
+              storageBackend.getName(), storageBackend.getDataSource(), sqlTimingInterceptor);
+
+      // レプリカの取得結果はプライマリの2次キャッシュに入れないよう、キャッシュを使用しない専用のファクトリーを使う
+      DataSource readDataSource = storageBackend.getReadDataSource();
+      if (readDataSource != null) {
+        replicaSessionFactory =
+            buildSqlSessionFactory(
+                storageBackend.getName() + "-replica", readDataSource, sqlTimingInterceptor);
+        replicaSessionFactory.getConfiguration().setCacheEnabled(false);
+      }
     } catch (Exception ex) {
       throw new RuntimeException(ex);
     }
 
+    // 未適用のマイグレーションをDBに適用（DBに接続できない場合もプラグインは起動する）
+    try {
+      new SchemaMigrator(sqlSessionFactory, getLogger()).migrate();
+    } catch (RuntimeException ex) {
+      getLogger().log(Level.SEVERE, "マイグレーションを適用できませんでした。", ex);
+    }
+
+    // ゲームの処理を毎tickまとめて実行するクラスをインスタンス化
+    gameTickDriver = new GameTickDriver(this, gameSessionRegistry, getLogger());
+    gameTickDriver.start();
+
     // ゲームの演出を担うクラスをインスタンス化
-    VisualEffectManager visualEffectManager = new VisualEffectManager(this);
-    SoundEffectManager soundEffectManager = new SoundEffectManager(this);
+    VisualEffectManager visualEffectManager = new VisualEffectManager(gameTickDriver);
+    SoundEffectManager soundEffectManager = new SoundEffectManager();
     WrittenBookManager writtenBookManager = new WrittenBookManager(soundEffectManager);
     ScoreboardManager scoreboardManager = new ScoreboardManager();
     ComboBonusManager comboBonusManager = new ComboBonusManager();
     SendTextManager sendTextManager = new SendTextManager();
 
     // DBと接続するクラスをインスタンス化
-    PlayerScoreConnector playerScoreConnector = new PlayerScoreConnector(sqlSessionFactory, sendTextManager);
-    PlayerProgressConnector playerProgressConnector = new PlayerProgressConnector(sqlSessionFactory);
+    databaseExecutor = new DatabaseExecutor(this);
+    SessionRouter sessionRouter =
+        new SessionRouter(
+            sqlSessionFactory, replicaSessionFactory,
+            getConfig().getLong("storage.mysql.replica.max-lag-millis", 5000),
+            Math.max(0, getConfig().getLong("storage.mysql.replica.retry-millis", 30000)),
+            getLogger());
+    writeSpool =
+        new WriteSpool(sqlSessionFactory, sessionRouter, getDataFolder().toPath(), getLogger());
+    scoreWriteBehindQueue =
+        new ScoreWriteBehindQueue(sqlSessionFactory, writeSpool, sessionRouter, getLogger());
+    scoreArchiver =
+        new ScoreArchiver(
+            sqlSessionFactory, writeSpool, getConfig().getConfigurationSection("archive"),
+            leaderboardSize, getLogger());
+    PlayerScoreConnector syncPlayerScoreConnector =
+        new PlayerScoreConnector(sessionRouter, scoreWriteBehindQueue);
+    PlayerProgressConnector syncPlayerProgressConnector =
+        new PlayerProgressConnector(sqlSessionFactory, sessionRouter, writeSpool);
+    PlayerProgressCache playerProgressCache = new PlayerProgressCache();
+    PlayerStatsConnector syncPlayerStatsConnector = new PlayerStatsConnector(sessionRouter);
+    PlayerStatsCache playerStatsCache = new PlayerStatsCache();
+
+    // DB処理をメインスレッドから切り離して実行するクラスをインスタンス化
+    ScoreListRenderCache scoreListRenderCache = new ScoreListRenderCache();
+    ScoreHistoryPager scoreHistoryPager =
+        new ScoreHistoryPager(syncPlayerScoreConnector, databaseExecutor, scoreListRenderCache);
+    AsyncPlayerScoreConnector playerScoreConnector =
+        new AsyncPlayerScoreConnector(
+            syncPlayerScoreConnector, new HighScoreRegister(),
+            new ScoreLeaderboard(leaderboardSize), new WindowedLeaderboard(leaderboardSize),
+            scoreListRenderCache, scoreHistoryPager, playerStatsCache, databaseExecutor,
+            sendTextManager, getLogger());
+    playerScoreConnector.loadHighScores();
+    playerScoreConnector.loadLeaderboard();
+    playerScoreConnector.loadWindowedLeaderboard();
+    // 読み込めなかったハイスコアとランキングは、読み込めるまで一定間隔で読み込み直す
+    long loadRetryPeriod =
+        Math.max(1, getConfig().getLong("leaderboard.load-retry-seconds", 30))
+            * TickTime.PERIOD_1_SECOND;
+    gameTickDriver.runTaskTimer(null, loadRetryTask -> {
+      if (playerScoreConnector.retryFailedLoads()) {
+        loadRetryTask.cancel();
+      }
+    }, loadRetryPeriod, loadRetryPeriod);
+    AsyncPlayerProgressConnector playerProgressConnector =
+        new AsyncPlayerProgressConnector(
+            syncPlayerProgressConnector, playerProgressCache, databaseExecutor);
+    AsyncPlayerStatsConnector playerStatsConnector =
+        new AsyncPlayerStatsConnector(
+            syncPlayerStatsConnector, playerStatsCache, databaseExecutor, sendTextManager);
+    ScoreBackup scoreBackup =
+        new ScoreBackup(
+            sqlSessionFactory, storageBackend, databaseExecutor, playerScoreConnector,
+            playerProgressCache, playerStatsCache, getDataFolder().toPath(),
+            getConfig().getInt("backup.import-batch-size", 1000));
+
+    // リロード時などに既にログインしているプレイヤーの進捗状況と成績を読み込む
+    for (Player player : Bukkit.getOnlinePlayers()) {
+      playerProgressConnector.getPlayerProgress(player.getUniqueId());
+      playerStatsConnector.getPlayerStats(player.getUniqueId());
+    }
 
     // ゲームの実行を担うクラスをインスタンス化
     GameStatusChecker gameStatusChecker =
-        new GameStatusChecker(playerProgressConnector, playerGameDataMap);
+        new GameStatusChecker(playerProgressConnector, gameSessionRegistry);
 
-    SpawnEntityManager spawnEntityManager = new SpawnEntityManager(visualEffectManager);
+    SpawnEntityManager spawnEntityManager = new SpawnEntityManager(visualEffectManager, gameSessionRegistry);
+    // 盤面のエンティティをカウントダウン中に1tickあたりの予算の時間内で分けて出現させる
+    SpawnPipeline spawnPipeline =
+        new SpawnPipeline(
+            spawnEntityManager, gameTickDriver,
+            Math.max(0.1, getConfig().getDouble("spawn.tick-budget-millis", 2.0)));
+    spawnPipeline.start();
+    replayStore =
+        new ReplayStore(
+            getDataFolder().toPath(), syncPlayerScoreConnector,
+            getConfig().getBoolean("replay.enabled", true),
+            getConfig().getInt("replay.retention-days", 30), getLogger());
 
-    GameExecutor gameExecutor =
+    gameExecutor =
         new GameExecutor(
-            this, gameStatusChecker, writtenBookManager, visualEffectManager,
-            soundEffectManager, sendTextManager, spawnEntityManager, scoreboardManager,
-            playerScoreConnector, playerProgressConnector, playerGameDataMap);
+            gameStatusChecker, writtenBookManager, visualEffectManager,
+            soundEffectManager, sendTextManager, spawnPipeline, scoreboardManager,
+            playerScoreConnector, playerProgressConnector, replayStore, gameSessionRegistry,
+            gameTickDriver);
 
     // GUI管理を担うクラスをインスタンス化
-    MenuGuiManager menuGuiManager = new MenuGuiManager(this, gameStatusChecker);
+    MenuGuiManager menuGuiManager =
+        new MenuGuiManager(this, gameStatusChecker, playerStatsConnector, leaderboardSize);
 
     // イベントリスナーを登録
     Bukkit.getPluginManager().registerEvents(
@@ -79,19 +224,86 @@ public final class Main extends JavaPlugin {
 
     Bukkit.getPluginManager().registerEvents(
         new PlayerInteractEntityListener(
-            this, sendTextManager, soundEffectManager, visualEffectManager, spawnEntityManager,
-            comboBonusManager, scoreboardManager, playerGameDataMap), this);
+            sendTextManager, soundEffectManager, visualEffectManager, spawnEntityManager,
+            comboBonusManager, scoreboardManager, gameSessionRegistry), this);
 
     Bukkit.getPluginManager().registerEvents(
         new OperationRestriction(this, gameStatusChecker), this);
 
+    Bukkit.getPluginManager().registerEvents(
+        new PlayerConnectionListener(
+            this, syncPlayerProgressConnector, playerProgressCache,
+            syncPlayerStatsConnector, playerStatsCache, scoreHistoryPager), this);
+
     // コマンドを登録
     ChantingCommand chantingCommand =
         new ChantingCommand(gameStatusChecker, sendTextManager, gameExecutor, menuGuiManager);
     getCommand("chanting").setExecutor(chantingCommand);
 
     ScoreCommand scoreCommand =
-        new ScoreCommand(gameStatusChecker, sendTextManager, menuGuiManager, playerScoreConnector);
+        new ScoreCommand(
+            gameStatusChecker, sendTextManager, menuGuiManager,
+            playerScoreConnector, playerStatsConnector);
     getCommand("score").setExecutor(scoreCommand);
+
+    getCommand("breakspell").setExecutor(
+        new BreakSpellCommand(
+            scoreWriteBehindQueue, writeSpool, scoreArchiver, storageBackend, sessionRouter,
+            sqlTimingInterceptor, scoreBackup, replayStore, databaseExecutor, gameTickDriver,
+            spawnPipeline));
+  }
+
+  /**
+   * mybatis-config.xmlを読み込み、指定のデータソースに接続するセッションファクトリーを作成する。
+   *
+   * @param environmentId        MyBatisの環境（Environment）のID
+   * @param dataSource           接続先のデータソース
+   * @param sqlTimingInterceptor SQLの実行時間を計測するインターセプター
+   * @return セッションファクトリー
+   * @throws IOException mybatis-config.xmlを読み込めなかった場合
+   */
+  private SqlSessionFactory buildSqlSessionFactory(
+      String environmentId, DataSource dataSource, SqlTimingInterceptor sqlTimingInterceptor)
+      throws IOException {
+
+    InputStream inputStream = Resources.getResourceAsStream("mybatis-config.xml");
+    Configuration configuration = new XMLConfigBuilder(inputStream).parse();
+    configuration.addInterceptor(sqlTimingInterceptor);
+    configuration.setEnvironment(
+        new Environment(environmentId, new JdbcTransactionFactory(), dataSource));
+    return new SqlSessionFactoryBuilder().build(configuration);
+  }
+
+  @Override
+  public void onDisable() {
+    // 実行中のゲームを中断し、出現させたエンティティの消滅とプレイヤーの状態の復元を行う
+    if (gameExecutor != null) {
+      gameExecutor.abortAllGames();
+    }
+    if (gameTickDriver != null) {
+      gameTickDriver.stop();
+    }
+
+    // 実行中のDB処理が完了するのを待ってから停止し、登録待ちのスコア情報をすべて登録してから接続を閉じる
+    // （DBに登録できなかった書き込みはジャーナルに保存し、次回の起動時に再実行する）
+    // 保存待ちのリプレイログもすべてファイルに書き込んでから停止する
+    if (scoreArchiver != null) {
+      scoreArchiver.shutdown();
+    }
+    if (databaseExecutor != null) {
+      databaseExecutor.shutdown();
+    }
+    if (replayStore != null) {
+      replayStore.shutdown();
+    }
+    if (scoreWriteBehindQueue != null) {
+      scoreWriteBehindQueue.shutdown();
+    }
+    if (writeSpool != null) {
+      writeSpool.shutdown();
+    }
+    if (storageBackend != null) {
+      storageBackend.close();
+    }
   }
 }
@@ -0,0 +1,215 @@
+package plugin.breakspell.command;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import plugin.breakspell.database.DatabaseExecutor;
+import plugin.breakspell.database.ScoreArchiver;
+import plugin.breakspell.database.ScoreWriteBehindQueue;
+import plugin.breakspell.database.SessionRouter;
+import plugin.breakspell.database.backup.ScoreBackup;
+import plugin.breakspell.database.cache.CountingLruCache;
+import plugin.breakspell.database.monitor.SqlTimingInterceptor;
+import plugin.breakspell.database.spool.WriteSpool;
+import plugin.breakspell.database.storage.StorageBackend;
+import plugin.breakspell.game.manager.execution.SpawnPipeline;
+import plugin.breakspell.game.replay.ReplayEvent;
+import plugin.breakspell.game.replay.ReplayEventType;
+import plugin.breakspell.game.replay.ReplayLog;
+import plugin.breakspell.game.replay.ReplayStore;
+import plugin.breakspell.game.tick.GameTickDriver;
+
+/**
+ * プラグインの管理者向けのコマンド。<br>
+ * 引数にstatsを指定した場合は、DB処理とゲームの毎tickの処理の計測値を表示する。<br>
+ * 引数にsqlを指定した場合は、マッパーのメソッドごとの実行時間の集計値と直近のスロークエリを表示する。<br>
+ * 引数にexportを指定した場合はスコア情報・進捗状況・成績とアーカイブ・日別の集計値をファイルにエクスポートし、
+ * importとフォルダ名を指定した場合はそのファイルからインポートする。<br>
+ * 引数にreplayとスコアIDを指定した場合は、そのゲームのリプレイログの概要を表示する。<br>
+ * プレイヤー以外（コンソール）からも実行できるよう、{@link BaseCommand}は継承しない。
+ */
+public class BreakSpellCommand implements CommandExecutor {
+
+  private final ScoreWriteBehindQueue scoreWriteBehindQueue;
+  private final WriteSpool writeSpool;
+  private final ScoreArchiver scoreArchiver;
+  private final StorageBackend storageBackend;
+  private final SessionRouter sessionRouter;
+  private final SqlTimingInterceptor sqlTimingInterceptor;
+  private final ScoreBackup scoreBackup;
+  private final ReplayStore replayStore;
+  private final DatabaseExecutor databaseExecutor;
+  private final GameTickDriver gameTickDriver;
+  private final SpawnPipeline spawnPipeline;
+
+  private static final String USAGE =
+      "使い方 : /breakspell [stats, sql, export, import <フォルダ名>, replay <スコアID>]";
+  private static final double TICKS_PER_SECOND = 20.0;
+
+  public BreakSpellCommand(
+      ScoreWriteBehindQueue scoreWriteBehindQueue, WriteSpool writeSpool,
+      ScoreArchiver scoreArchiver, StorageBackend storageBackend, SessionRouter sessionRouter,
+      SqlTimingInterceptor sqlTimingInterceptor, ScoreBackup scoreBackup,
+      ReplayStore replayStore, DatabaseExecutor databaseExecutor, GameTickDriver gameTickDriver,
+      SpawnPipeline spawnPipeline) {
+
+    this.scoreWriteBehindQueue = scoreWriteBehindQueue;
+    this.writeSpool = writeSpool;
+    this.scoreArchiver = scoreArchiver;
+    this.storageBackend = storageBackend;
+    this.sessionRouter = sessionRouter;
+    this.sqlTimingInterceptor = sqlTimingInterceptor;
+    this.scoreBackup = scoreBackup;
+    this.replayStore = replayStore;
+    this.databaseExecutor = databaseExecutor;
+    this.gameTickDriver = gameTickDriver;
+    this.spawnPipeline = spawnPipeline;
+  }
+
+  @Override
+  public boolean onCommand(
+      @NotNull CommandSender sender, @NotNull Command command,
+      @NotNull String label, @NotNull String[] args) {
+
+    return executeAdminCommand(sender, args);
+  }
+
+  /**
+   * 引数に応じて管理者向けの処理を実行する。
+   *
+   * @param sender コマンドの実行者
+   * @param args   コマンド引数
+   * @return 処理の実行有無
+   */
+  private boolean executeAdminCommand(CommandSender sender, String[] args) {
+    if (args.length == 1 && args[0].equals("stats")) {
+      getStatsLines().forEach(sender :: sendMessage);
+      return true;
+    }
+    if (args.length == 1 && args[0].equals("sql")) {
+      sender.sendMessage(ChatColor.GOLD + "================ ◆ BreakSpell SQL実行時間 ◆ ================");
+      sqlTimingInterceptor.getSummaryLines().forEach(sender :: sendMessage);
+      return true;
+    }
+    if (args.length == 1 && args[0].equals("export")) {
+      sender.sendMessage(ChatColor.YELLOW + "エクスポートを開始します。");
+      scoreBackup.exportAll(sender :: sendMessage)
+          .whenComplete((folderName, ex) -> sendBackupResult(sender, "エクスポート", folderName, ex));
+      return true;
+    }
+    if (args.length == 2 && args[0].equals("import")) {
+      sender.sendMessage(ChatColor.YELLOW + "インポートを開始します。");
+      scoreBackup.importAll(args[1], sender :: sendMessage)
+          .whenComplete((folderName, ex) -> sendBackupResult(sender, "インポート", folderName, ex));
+      return true;
+    }
+    if (args.length == 2 && args[0].equals("replay") && args[1].matches("\\d{1,9}")) {
+      showReplaySummary(sender, Integer.parseInt(args[1]));
+      return true;
+    }
+    sender.sendMessage(ChatColor.RED + USAGE);
+    return false;
+  }
+
+  /**
+   * 指定のスコアIDのゲームのリプレイログを読み込み、イベントの件数などの概要を表示する。<br>
+   * DBとファイルからの読み込みは仮想スレッドで行い、結果はメインスレッドで表示する。
+   *
+   * @param sender  コマンドの実行者
+   * @param scoreId スコア情報のID
+   */
+  private void showReplaySummary(CommandSender sender, int scoreId) {
+    databaseExecutor.supplyAsync(() -> {
+          try {
+            return replayStore.readByScoreId(scoreId);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        })
+        .whenComplete((replayLog, ex) -> {
+          if (ex != null) {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+                ? ex.getCause()
+                : ex;
+            sender.sendMessage(ChatColor.RED + "リプレイログを読み込めませんでした。" + cause.getMessage());
+            return;
+          }
+          getReplaySummaryLines(scoreId, replayLog).forEach(sender :: sendMessage);
+        });
+  }
+
+  /**
+   * リプレイログの概要を表示用に取得する。
+   *
+   * @param scoreId   スコア情報のID
+   * @param replayLog リプレイログ
+   * @return リプレイログの概要
+   */
+  private List<String> getReplaySummaryLines(int scoreId, ReplayLog replayLog) {
+    int finalScore = replayLog.eventList().stream()
+        .filter(replayEvent -> replayEvent.type() == ReplayEventType.END)
+        .mapToInt(ReplayEvent :: firstOperand)
+        .findFirst()
+        .orElse(0);
+
+    List<String> summaryLines = new ArrayList<>();
+    summaryLines.add(ChatColor.GOLD + "================ ◆ リプレイログ（スコアID " + scoreId + "） ◆ ================");
+    summaryLines.add("セッションID : " + replayLog.sessionId() + " (" + replayLog.difficulty() + ")");
+    summaryLines.add(String.format("プレイ時間 : %.1f 秒 (イベント %d 件)",
+        replayLog.getLastTick() / TICKS_PER_SECOND, replayLog.eventList().size()));
+    summaryLines.add(String.format("クリック %d 回 / ペア %d 組 / ミス %d 回 / スペシャル %d 体",
+        replayLog.countEvents(ReplayEventType.CLICK), replayLog.countEvents(ReplayEventType.MATCH),
+        replayLog.countEvents(ReplayEventType.MISMATCH),
+        replayLog.countEvents(ReplayEventType.SPECIAL)));
+    summaryLines.add("最終スコア : " + finalScore);
+    return summaryLines;
+  }
+
+  /**
+   * エクスポート・インポートの結果を表示する。
+   *
+   * @param sender     コマンドの実行者
+   * @param operation  処理の名前
+   * @param folderName 処理したフォルダの名前
+   * @param ex         処理が失敗した場合の例外（成功した場合はnull）
+   */
+  private void sendBackupResult(
+      CommandSender sender, String operation, String folderName, Throwable ex) {
+
+    if (ex == null) {
+      sender.sendMessage(ChatColor.GREEN + operation + "が完了しました。（backup/" + folderName + "）");
+      return;
+    }
+    Throwable cause = ex instanceof CompletionException && ex.getCause() != null
+        ? ex.getCause()
+        : ex;
+    sender.sendMessage(ChatColor.RED + operation + "に失敗しました。" + cause.getMessage());
+  }
+
+  /**
+   * DB処理の計測値を表示用に取得する。
+   *
+   * @return DB処理の計測値
+   */
+  private List<String> getStatsLines() {
+    List<String> statsLines = new ArrayList<>();
+    statsLines.add(ChatColor.GOLD + "================ ◆ BreakSpell 統計情報 ◆ ================");
+    statsLines.addAll(scoreWriteBehindQueue.getMetricsLines());
+    statsLines.addAll(writeSpool.getMetricsLines());
+    statsLines.addAll(scoreArchiver.getMetricsLines());
+    statsLines.addAll(CountingLruCache.getMetricsLines());
+    statsLines.addAll(storageBackend.getMetricsLines());
+    statsLines.addAll(sessionRouter.getMetricsLines());
+    statsLines.addAll(replayStore.getMetricsLines());
+    statsLines.addAll(gameTickDriver.getMetricsLines());
+    statsLines.addAll(spawnPipeline.getMetricsLines());
+    return statsLines;
+  }
+}
@@ -57,12 +57,14 @@ public class ChantingCommand extends BaseCommand {
       return false;
     }
 
-    if (gameStatusChecker.hasNotPlayedPreDifficulty(player, gameDifficulty)) {
-      sendTextManager.sendHasNotPlayedPreDifficultyAlert(player, gameDifficulty);
-      return false;
-    }
-
-    gameExecutor.awaitExecuteGame(player, gameDifficulty);
+    gameStatusChecker.hasNotPlayedPreDifficulty(player, gameDifficulty)
+        .thenAccept(hasNotPlayedPreDifficulty -> {
+          if (hasNotPlayedPreDifficulty) {
+            sendTextManager.sendHasNotPlayedPreDifficultyAlert(player, gameDifficulty);
+            return;
+          }
+          gameExecutor.awaitExecuteGame(player, gameDifficulty);
+        });
     return true;
   }
 
@@ -1,9 +1,12 @@
 package plugin.breakspell.command;
 
+import org.apache.commons.lang3.math.NumberUtils;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import plugin.breakspell.database.PlayerScoreConnector;
+import plugin.breakspell.database.AsyncPlayerScoreConnector;
+import plugin.breakspell.database.AsyncPlayerStatsConnector;
+import plugin.breakspell.database.WindowedLeaderboard.RankingWindow;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.manager.effect.SendTextManager;
 import plugin.breakspell.game.manager.execution.GameStatusChecker;
@@ -13,6 +16,9 @@ import plugin.breakspell.menu.MenuGuiManager;
  * スコアリストの表示に関するコマンド。<br>
  * 引数なしの場合はスコアメニューGUIを開き、引数ありの場合は引数に応じて
  * 新着・全体ランキング・難易度別ランキングのスコアリストを表示する。<br>
+ * 新着のスコアリストは、ページ番号を指定して古いスコアを遡ることができる。<br>
+ * 引数にdaily・weekly・monthlyを指定した場合は、直近の期間のランキングを表示し、難易度を続けて指定すると難易度別に表示する。<br>
+ * 引数にmeを指定した場合は、実行したプレイヤーの難易度ごとの成績を表示する。<br>
  * ゲームを実行中にコマンドを実行した場合は無効とする。
  */
 public class ScoreCommand extends BaseCommand {
@@ -20,16 +26,19 @@ public class ScoreCommand extends BaseCommand {
   private final GameStatusChecker gameStatusChecker;
   private final SendTextManager sendTextManager;
   private final MenuGuiManager menuGuiManager;
-  private final PlayerScoreConnector playerScoreConnector;
+  private final AsyncPlayerScoreConnector playerScoreConnector;
+  private final AsyncPlayerStatsConnector playerStatsConnector;
 
   public ScoreCommand(
       GameStatusChecker gameStatusChecker, SendTextManager sendTextManager,
-      MenuGuiManager menuGuiManager, PlayerScoreConnector playerScoreConnector) {
+      MenuGuiManager menuGuiManager, AsyncPlayerScoreConnector playerScoreConnector,
+      AsyncPlayerStatsConnector playerStatsConnector) {
 
     this.gameStatusChecker = gameStatusChecker;
     this.sendTextManager = sendTextManager;
     this.menuGuiManager = menuGuiManager;
     this.playerScoreConnector = playerScoreConnector;
+    this.playerStatsConnector = playerStatsConnector;
   }
 
   @Override
@@ -46,10 +55,35 @@ public class ScoreCommand extends BaseCommand {
       return false;
     }
 
+    RankingWindow rankingWindow = RankingWindow.getRankingWindow(args[0]);
+    if (rankingWindow != null && args.length <= 2) {
+      GameDifficulty gameDifficulty = null;
+      if (args.length == 2) {
+        gameDifficulty = GameDifficulty.getGameDifficulty(args[1]);
+        if (gameDifficulty == null) {
+          sendTextManager.sendInputAlertForScoreList(player);
+          return false;
+        }
+      }
+      playerScoreConnector.showWindowedScoreList(player, rankingWindow, gameDifficulty);
+      return true;
+    }
+
+    if (args.length == 2 && args[0].equals("new")) {
+      int pageNum = NumberUtils.toInt(args[1]);
+      if (pageNum < 1) {
+        sendTextManager.sendInputAlertForScoreList(player);
+        return false;
+      }
+      playerScoreConnector.showNewlyScoreList(player, pageNum);
+      return true;
+    }
+
     if (args.length == 1) {
       switch (args[0]) {
-        case "new" -> playerScoreConnector.showNewlyScoreList(player);
+        case "new" -> playerScoreConnector.showNewlyScoreList(player, 1);
         case "rank" -> playerScoreConnector.showRankedScoreList(player);
+        case "me" -> playerStatsConnector.showPlayerStats(player);
         case "easy", "normal", "hard" -> {
           GameDifficulty gameDifficulty = GameDifficulty.getGameDifficulty(args[0]);
           playerScoreConnector.showRankedByDifficultyScoreList(player, gameDifficulty);
@@ -0,0 +1,75 @@
+package plugin.breakspell.database;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import plugin.breakspell.database.data.PlayerProgress;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * ゲームの進捗状況に関するDB処理を非同期で実行するクラス。<br>
+ * 進捗状況はキャッシュから取得し、キャッシュにない場合のみDBから読み込む。<br>
+ * DB処理は仮想スレッドで実行し、結果はメインスレッドで受け取る。
+ */
+public class AsyncPlayerProgressConnector {
+
+  private final PlayerProgressConnector playerProgressConnector;
+  private final PlayerProgressCache playerProgressCache;
+  private final DatabaseExecutor databaseExecutor;
+
+  public AsyncPlayerProgressConnector(
+      PlayerProgressConnector playerProgressConnector, PlayerProgressCache playerProgressCache,
+      DatabaseExecutor databaseExecutor) {
+
+    this.playerProgressConnector = playerProgressConnector;
+    this.playerProgressCache = playerProgressCache;
+    this.databaseExecutor = databaseExecutor;
+  }
+
+  /**
+   * プレイヤーの難易度ごとの進捗状況を取得する。<br>
+   * キャッシュにある場合はDBに接続せずにその場で完了し、ない場合はDBから読み込んでキャッシュに登録する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 難易度ごとの進捗状況（未プレイの難易度は含まない）
+   */
+  public CompletableFuture<Map<GameDifficulty, PlayerProgress>> getPlayerProgress(
+      UUID playerUuid) {
+
+    Map<GameDifficulty, PlayerProgress> cachedProgress = playerProgressCache.get(playerUuid);
+    if (cachedProgress != null) {
+      return CompletableFuture.completedFuture(cachedProgress);
+    }
+    long loadStartedAt = playerProgressCache.startLoad();
+    return databaseExecutor.supplyAsync(() -> playerProgressCache.put(
+        playerUuid, playerProgressConnector.selectPlayerProgressList(playerUuid), loadStartedAt));
+  }
+
+  /**
+   * 指定の難易度で初めてゲームをプレイした際に、DBの進捗状況テーブルにゲームの進捗状況を登録する。<br>
+   * キャッシュは登録の完了を待たずに更新する。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   * @return 登録処理
+   */
+  public CompletableFuture<Void> insertGameProgress(UUID playerUuid, GameDifficulty gameDifficulty) {
+    playerProgressCache.markPlayed(playerUuid, gameDifficulty);
+    return databaseExecutor.runAsync(() ->
+        playerProgressConnector.insertGameProgress(playerUuid, gameDifficulty));
+  }
+
+  /**
+   * 指定の難易度で初めてゲームをクリアした際に、DBの進捗状況テーブルのクリア状況を更新する。<br>
+   * キャッシュは更新の完了を待たずに更新する。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   * @return 更新処理
+   */
+  public CompletableFuture<Void> updateGameClear(UUID playerUuid, GameDifficulty gameDifficulty) {
+    playerProgressCache.markCleared(playerUuid, gameDifficulty);
+    return databaseExecutor.runAsync(() ->
+        playerProgressConnector.updateGameClear(playerUuid, gameDifficulty));
+  }
+}
@@ -0,0 +1,369 @@
+package plugin.breakspell.database;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import org.bukkit.entity.Player;
+import plugin.breakspell.database.ScoreHistoryPager.ScoreHistoryPage;
+import plugin.breakspell.database.ScoreListRenderCache.ListType;
+import plugin.breakspell.database.WindowedLeaderboard.RankingWindow;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.game.constant.GameDifficulty;
+import plugin.breakspell.game.data.PlayerGameData;
+import plugin.breakspell.game.manager.effect.SendTextManager;
+
+/**
+ * ゲームのスコア情報に関するDB処理を非同期で実行するクラス。<br>
+ * DB処理は仮想スレッドで実行し、結果はメインスレッドで受け取る。
+ */
+public class AsyncPlayerScoreConnector {
+
+  private final PlayerScoreConnector playerScoreConnector;
+  private final HighScoreRegister highScoreRegister;
+  private final ScoreLeaderboard scoreLeaderboard;
+  private final WindowedLeaderboard windowedLeaderboard;
+  private final ScoreListRenderCache scoreListRenderCache;
+  private final ScoreHistoryPager scoreHistoryPager;
+  private final PlayerStatsCache playerStatsCache;
+  private final DatabaseExecutor databaseExecutor;
+  private final SendTextManager sendTextManager;
+  private final Logger logger;
+
+  private CompletableFuture<Void> highScoreLoad = CompletableFuture.completedFuture(null);
+  private CompletableFuture<Void> leaderboardLoad = CompletableFuture.completedFuture(null);
+  private CompletableFuture<Void> windowedLeaderboardLoad = CompletableFuture.completedFuture(null);
+
+  public AsyncPlayerScoreConnector(
+      PlayerScoreConnector playerScoreConnector, HighScoreRegister highScoreRegister,
+      ScoreLeaderboard scoreLeaderboard, WindowedLeaderboard windowedLeaderboard,
+      ScoreListRenderCache scoreListRenderCache, ScoreHistoryPager scoreHistoryPager,
+      PlayerStatsCache playerStatsCache, DatabaseExecutor databaseExecutor,
+      SendTextManager sendTextManager, Logger logger) {
+
+    this.playerScoreConnector = playerScoreConnector;
+    this.highScoreRegister = highScoreRegister;
+    this.scoreLeaderboard = scoreLeaderboard;
+    this.windowedLeaderboard = windowedLeaderboard;
+    this.scoreListRenderCache = scoreListRenderCache;
+    this.scoreHistoryPager = scoreHistoryPager;
+    this.playerStatsCache = playerStatsCache;
+    this.databaseExecutor = databaseExecutor;
+    this.sendTextManager = sendTextManager;
+    this.logger = logger;
+  }
+
+  /**
+   * スコア履歴から指定のページを取得し、メッセージとして表示する（新着リスト）。<br>
+   * 1ページ目は前回の表示からスコアが登録されていない場合、DBに接続せずに表示する。
+   *
+   * @param player  コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param pageNum ページ番号（1始まり）
+   * @return スコアリストを表示したかどうか
+   */
+  public CompletableFuture<Boolean> showNewlyScoreList(Player player, int pageNum) {
+    return sendScoreHistoryPage(
+        player, scoreHistoryPager.getPage(player.getUniqueId(), pageNum));
+  }
+
+  /**
+   * スコア履歴から閲覧中のページの次のページを取得し、メッセージとして表示する（新着リスト）。
+   *
+   * @param player スコアメニューをクリックしたプレイヤー
+   * @return スコアリストを表示したかどうか
+   */
+  public CompletableFuture<Boolean> showNextNewlyScoreList(Player player) {
+    return sendScoreHistoryPage(player, scoreHistoryPager.getNextPage(player.getUniqueId()));
+  }
+
+  /**
+   * スコア履歴の1ページ分を整形してメッセージとして表示する。<br>
+   * 1ページ目が空の場合はスコアが登録されていない旨を、2ページ目以降が空の場合は次のページがない旨を表示する。
+   *
+   * @param player           コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param scoreHistoryPage スコア履歴の1ページ分
+   * @return スコアリストを表示したかどうか
+   */
+  private CompletableFuture<Boolean> sendScoreHistoryPage(
+      Player player, CompletableFuture<ScoreHistoryPage> scoreHistoryPage) {
+
+    return scoreHistoryPage.thenApply(page -> {
+      if (page.playerScoreList().isEmpty() && page.pageNum() > 1) {
+        sendTextManager.sendNoMoreScoreHistoryMessage(player);
+        return false;
+      }
+      return sendScoreList(player, page.playerScoreList().isEmpty()
+          ? ""
+          : ScoreMessageBuilder.joinLines(ScoreMessageBuilder.buildScoreHistoryPage(page)));
+    });
+  }
+
+  /**
+   * ランキングからスコアリストを取得し、メッセージとして表示する（全体ランキングリスト）。<br>
+   * ランキングを読み込めていない場合のみDBから取得する。
+   *
+   * @param player コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @return スコアリストを表示したかどうか
+   */
+  public CompletableFuture<Boolean> showRankedScoreList(Player player) {
+    int rankingSize = scoreLeaderboard.getSize();
+    boolean isLoaded = scoreLeaderboard.isLoaded();
+    return showScoreList(
+        player, ListType.RANKED, null, isLoaded,
+        isLoaded
+            ? scoreLeaderboard :: getRankedScoreList
+            : () -> playerScoreConnector.selectRankedScoreList(rankingSize),
+        list -> ScoreMessageBuilder.buildRankedScoreList(list, rankingSize));
+  }
+
+  /**
+   * ランキングからスコアリストを取得し、メッセージとして表示する（難易度別ランキングリスト）。<br>
+   * ランキングを読み込めていない場合のみDBから取得する。
+   *
+   * @param player         コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param gameDifficulty ゲームの難易度
+   * @return スコアリストを表示したかどうか
+   */
+  public CompletableFuture<Boolean> showRankedByDifficultyScoreList(
+      Player player, GameDifficulty gameDifficulty) {
+
+    int rankingSize = scoreLeaderboard.getSize();
+    boolean isLoaded = scoreLeaderboard.isLoaded();
+    return showScoreList(
+        player, ListType.RANKED_BY_DIFFICULTY, gameDifficulty, isLoaded,
+        isLoaded
+            ? () -> scoreLeaderboard.getRankedByDifficultyScoreList(gameDifficulty)
+            : () -> playerScoreConnector.selectRankedByDifficultyScoreList(
+                gameDifficulty, rankingSize),
+        list -> ScoreMessageBuilder.buildRankedByDifficultyScoreList(
+            list, gameDifficulty, rankingSize));
+  }
+
+  /**
+   * 期間別ランキングからスコアリストを取得し、メッセージとして表示する（期間別ランキングリスト）。<br>
+   * 日付が変わると期間が移るため整形済みのスコアリストは使用せず、メモリ上のランキングからその場で整形する。
+   *
+   * @param player         コマンドを実行したプレイヤー
+   * @param rankingWindow  ランキングの期間
+   * @param gameDifficulty ゲームの難易度（難易度別でない場合はnull）
+   * @return スコアリストを表示したかどうか
+   */
+  public CompletableFuture<Boolean> showWindowedScoreList(
+      Player player, RankingWindow rankingWindow, GameDifficulty gameDifficulty) {
+
+    List<PlayerScore> playerScoreList =
+        windowedLeaderboard.getRankedScoreList(rankingWindow, gameDifficulty);
+    return CompletableFuture.completedFuture(sendScoreList(player, playerScoreList.isEmpty()
+        ? ""
+        : ScoreMessageBuilder.joinLines(ScoreMessageBuilder.buildWindowedScoreList(
+            playerScoreList, rankingWindow, gameDifficulty, windowedLeaderboard.getSize()))));
+  }
+
+  /**
+   * 整形済みのスコアリストがあればそれを表示し、なければスコアリストを取得・整形して表示する。<br>
+   * 取得元がメモリ上の場合はその場で、DBの場合は仮想スレッドで取得・整形し、結果はメインスレッドで表示する。
+   *
+   * @param player         コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param listType       スコアリストの種類
+   * @param gameDifficulty ゲームの難易度（難易度別でない場合はnull）
+   * @param isInMemory     取得元がメモリ上かどうか
+   * @param source         スコアリストの取得処理
+   * @param builder        スコアリストの整形処理
+   * @return スコアリストを表示したかどうか
+   */
+  private CompletableFuture<Boolean> showScoreList(
+      Player player, ListType listType, GameDifficulty gameDifficulty, boolean isInMemory,
+      Supplier<List<PlayerScore>> source, Function<List<PlayerScore>, List<String>> builder) {
+
+    String rendered = scoreListRenderCache.get(listType, gameDifficulty);
+    if (rendered != null) {
+      return CompletableFuture.completedFuture(sendScoreList(player, rendered));
+    }
+
+    long readVersion = scoreListRenderCache.getVersion();
+    Supplier<String> renderer = () -> {
+      List<PlayerScore> playerScoreList = source.get();
+      return scoreListRenderCache.put(
+          listType, gameDifficulty, readVersion,
+          playerScoreList.isEmpty() ? List.of() : builder.apply(playerScoreList));
+    };
+
+    if (isInMemory) {
+      return CompletableFuture.completedFuture(sendScoreList(player, renderer.get()));
+    }
+    return databaseExecutor.supplyAsync(renderer)
+        .thenApply(message -> sendScoreList(player, message));
+  }
+
+  /**
+   * 整形済みのスコアリストをメッセージとして表示する。スコアリストが空の場合はその旨を表示する。
+   *
+   * @param player  コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param message 整形済みのスコアリスト（スコアリストが空の場合は空文字）
+   * @return スコアリストを表示したかどうか
+   */
+  private boolean sendScoreList(Player player, String message) {
+    if (message.isEmpty()) {
+      sendTextManager.sendNotExitsScoreListMessage(player);
+      return false;
+    }
+    sendTextManager.sendScoreList(player, message);
+    return true;
+  }
+
+  /**
+   * DBから難易度ごとのハイスコアを読み込み、ハイスコアの判定に使用できるようにする。
+   *
+   * @return 読み込みの完了
+   */
+  public CompletableFuture<Void> loadHighScores() {
+    highScoreLoad = logLoadFailure("ハイスコア", databaseExecutor.runAsync(() ->
+        highScoreRegister.load(playerScoreConnector.selectHighScoreList())));
+    return highScoreLoad;
+  }
+
+  /**
+   * DBから難易度ごとの上位のスコアを読み込み、ランキングを表示できるようにする。
+   *
+   * @return 読み込みの完了
+   */
+  public CompletableFuture<Void> loadLeaderboard() {
+    leaderboardLoad = logLoadFailure("ランキング", databaseExecutor.runAsync(() ->
+        scoreLeaderboard.load(
+            playerScoreConnector.selectTopScoreListOfEachDifficulty(scoreLeaderboard.getSize()))));
+    return leaderboardLoad;
+  }
+
+  /**
+   * DBから最長の期間分のスコア情報を読み込み、期間別ランキングを表示できるようにする。<br>
+   * スコア情報はプレイ日時で絞り込んで1件ずつ読み込み、並び替えはメモリ上の区間ごとに行う。
+   *
+   * @return 読み込みの完了
+   */
+  public CompletableFuture<Void> loadWindowedLeaderboard() {
+    windowedLeaderboardLoad = logLoadFailure("期間別ランキング", databaseExecutor.runAsync(() -> {
+      playerScoreConnector.selectScoreListSince(
+          WindowedLeaderboard.getOldestDate(), windowedLeaderboard :: offer);
+      windowedLeaderboard.markLoaded();
+    }));
+    return windowedLeaderboardLoad;
+  }
+
+  /**
+   * 読み込みに失敗した場合に、読み込み直すことをログに出力する（失敗の詳細はDB処理の実行クラスが出力する）。
+   *
+   * @param target 読み込む対象の名前
+   * @param load   読み込みの完了
+   * @return 読み込みの完了（失敗した場合は例外で完了する）
+   */
+  private CompletableFuture<Void> logLoadFailure(String target, CompletableFuture<Void> load) {
+    return load.whenComplete((result, ex) -> {
+      if (ex != null) {
+        logger.warning(target + "を読み込めませんでした。読み込めるまで一定間隔で読み込み直します。");
+      }
+    });
+  }
+
+  /**
+   * 読み込めていないハイスコアとランキング（期間別を含む）を読み込み直す。<br>
+   * 起動時にDBに接続できなかった場合も、DBの復旧後にハイスコアの判定やランキングの表示ができるよう、
+   * 一定間隔でメインスレッドから呼び出す。読み込み中のものは読み込み直さない。
+   *
+   * @return すべて読み込み済みかどうか
+   */
+  public boolean retryFailedLoads() {
+    boolean allLoaded = true;
+    if (!highScoreRegister.isLoaded()) {
+      allLoaded = false;
+      if (highScoreLoad.isDone()) {
+        loadHighScores();
+      }
+    }
+    if (!scoreLeaderboard.isLoaded()) {
+      allLoaded = false;
+      if (leaderboardLoad.isDone()) {
+        loadLeaderboard();
+      }
+    }
+    if (!windowedLeaderboard.isLoaded()) {
+      allLoaded = false;
+      if (windowedLeaderboardLoad.isDone()) {
+        loadWindowedLeaderboard();
+      }
+    }
+    return allLoaded;
+  }
+
+  /**
+   * インポートなどでDBのスコア情報が追加された際に、ハイスコアとランキング（期間別を含む）を読み込み直す。<br>
+   * あわせて整形済みのスコアリストを無効にする。
+   */
+  public void reloadScores() {
+    scoreListRenderCache.invalidate();
+    loadHighScores();
+    loadLeaderboard();
+    loadWindowedLeaderboard();
+  }
+
+  /**
+   * スコアが指定の難易度のハイスコアより高い場合は、DBに接続せずにメモリ上のハイスコアを更新する。<br>
+   * 判定と更新を同時に行うため、DBへの登録より前にメインスレッドで呼び出す。
+   *
+   * @param gameDifficulty ゲームの難易度
+   * @param score          判定するスコア
+   * @return ハイスコアを更新したかどうか
+   */
+  public boolean updateHighScore(GameDifficulty gameDifficulty, int score) {
+    return highScoreRegister.updateIfHigher(gameDifficulty, score);
+  }
+
+  /**
+   * DBにプレイヤーのスコア情報を登録する。<br>
+   * プレイヤーのゲームデータとプレイ日時はメインスレッドで確定させ、登録キューへの追加のみを非同期で実行する。<br>
+   * プレイヤーの成績はキャッシュにその場で加算し、DBではスコア情報と同じトランザクションで加算する。<br>
+   * 登録（コミット）が完了した時点で、ランキング（期間別を含む）を更新する（ハイスコアは登録前に更新済み）。<br>
+   * あわせて整形済みのスコアリストを無効にする。
+   *
+   * @param playerGameData プレイヤーのゲームデータ
+   * @param gameDifficulty ゲームの難易度
+   * @return DBへの登録（コミット）の完了
+   */
+  public CompletableFuture<Void> insertNewScore(
+      PlayerGameData playerGameData, GameDifficulty gameDifficulty) {
+
+    String playerUuid = playerGameData.getPlayerUuid().toString();
+    // DBの日時（秒単位）と揃え、読み込んだスコアと同じものとして期間別ランキングなどで重複させない
+    LocalDateTime playedAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    PlayerScore playerScore =
+        new PlayerScore(
+            playerUuid,
+            playerGameData.getPlayerName(),
+            playerGameData.getScore(),
+            gameDifficulty.getInputArg(),
+            playedAt);
+    playerScore.setSessionId(playerGameData.getSessionId().toString());
+    PlayerStats gameResult =
+        new PlayerStats(
+            playerUuid,
+            gameDifficulty.getInputArg(),
+            playerGameData.getScore(),
+            1,
+            playerGameData.getMatchedPair() == gameDifficulty.getPairNum() ? 1 : 0,
+            playerGameData.getMatchedPair(),
+            playedAt);
+    playerStatsCache.merge(playerGameData.getPlayerUuid(), gameDifficulty, gameResult);
+
+    return databaseExecutor.supplyAsync(() -> playerScoreConnector
+            .insertNewScore(playerScore, gameResult)
+            .thenRun(() -> {
+              scoreLeaderboard.offer(playerScore);
+              windowedLeaderboard.offer(playerScore);
+              scoreListRenderCache.invalidate();
+            }))
+        .thenCompose(databaseExecutor :: completeOnMainThread);
+  }
+}
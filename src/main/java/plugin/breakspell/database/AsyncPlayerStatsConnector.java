@@ -0,0 +1,67 @@
+package plugin.breakspell.database;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.bukkit.entity.Player;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.game.constant.GameDifficulty;
+import plugin.breakspell.game.manager.effect.SendTextManager;
+
+/**
+ * プレイヤーの成績に関するDB処理を非同期で実行するクラス。<br>
+ * 成績はキャッシュから取得し、キャッシュにない場合のみDBから読み込む。<br>
+ * DB処理は仮想スレッドで実行し、結果はメインスレッドで受け取る。
+ */
+public class AsyncPlayerStatsConnector {
+
+  private final PlayerStatsConnector playerStatsConnector;
+  private final PlayerStatsCache playerStatsCache;
+  private final DatabaseExecutor databaseExecutor;
+  private final SendTextManager sendTextManager;
+
+  public AsyncPlayerStatsConnector(
+      PlayerStatsConnector playerStatsConnector, PlayerStatsCache playerStatsCache,
+      DatabaseExecutor databaseExecutor, SendTextManager sendTextManager) {
+
+    this.playerStatsConnector = playerStatsConnector;
+    this.playerStatsCache = playerStatsCache;
+    this.databaseExecutor = databaseExecutor;
+    this.sendTextManager = sendTextManager;
+  }
+
+  /**
+   * プレイヤーの難易度ごとの成績を取得する。<br>
+   * キャッシュにある場合はDBに接続せずにその場で完了し、ない場合はDBから読み込んでキャッシュに登録する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 難易度ごとの成績（未プレイの難易度は含まない）
+   */
+  public CompletableFuture<Map<GameDifficulty, PlayerStats>> getPlayerStats(UUID playerUuid) {
+    Map<GameDifficulty, PlayerStats> cachedStats = playerStatsCache.get(playerUuid);
+    if (cachedStats != null) {
+      return CompletableFuture.completedFuture(cachedStats);
+    }
+    long loadStartedAt = playerStatsCache.startLoad();
+    return databaseExecutor.supplyAsync(() -> playerStatsCache.put(
+        playerUuid, playerStatsConnector.selectPlayerStatsList(playerUuid), loadStartedAt));
+  }
+
+  /**
+   * プレイヤーの成績を取得し、メッセージとして表示する。成績がない場合はその旨を表示する。
+   *
+   * @param player コマンドを実行したプレイヤー
+   * @return 成績を表示したかどうか
+   */
+  public CompletableFuture<Boolean> showPlayerStats(Player player) {
+    return getPlayerStats(player.getUniqueId()).thenApply(statsMap -> {
+      if (statsMap.isEmpty()) {
+        sendTextManager.sendNotExitsScoreListMessage(player);
+        return false;
+      }
+      sendTextManager.sendScoreList(player, ScoreMessageBuilder.joinLines(
+          ScoreMessageBuilder.buildPlayerStats(player.getName(), statsMap)));
+      return true;
+    });
+  }
+}
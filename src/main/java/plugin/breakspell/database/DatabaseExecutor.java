@@ -0,0 +1,98 @@
+package plugin.breakspell.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import org.bukkit.Bukkit;
+import plugin.breakspell.Main;
+
+/**
+ * DB処理を仮想スレッドで非同期に実行し、結果をメインスレッドに受け渡すクラス。<br>
+ * JDBCの呼び出しがサーバーのメインスレッド（tick処理）を止めないようにする。
+ */
+public class DatabaseExecutor {
+
+  private final Main main;
+  private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+  public DatabaseExecutor(Main main) {
+    this.main = main;
+  }
+
+  /**
+   * DB処理を仮想スレッドで実行し、結果をメインスレッドで受け取るCompletableFutureを返す。<br>
+   * 返り値に登録した後続処理はメインスレッドで実行されるため、Bukkit APIを安全に呼び出すことができる。
+   *
+   * @param query DB処理
+   * @param <T>   DB処理の結果の型
+   * @return メインスレッドで完了するDB処理の結果
+   */
+  public <T> CompletableFuture<T> supplyAsync(Supplier<T> query) {
+    return completeOnMainThread(CompletableFuture.supplyAsync(query, executorService));
+  }
+
+  /**
+   * 他のスレッドで完了するCompletableFutureを、メインスレッドで完了するCompletableFutureに変換する。
+   *
+   * @param source 他のスレッドで完了する処理
+   * @param <T>    処理の結果の型
+   * @return メインスレッドで完了する処理
+   */
+  public <T> CompletableFuture<T> completeOnMainThread(CompletableFuture<T> source) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    source.whenComplete((result, ex) -> runOnMainThread(() -> {
+      if (ex != null) {
+        main.getLogger().log(Level.WARNING, "DB処理の実行に失敗しました。", ex);
+        future.completeExceptionally(ex);
+      } else {
+        future.complete(result);
+      }
+    }));
+    return future;
+  }
+
+  /**
+   * 結果を返さないDB処理を仮想スレッドで実行し、メインスレッドで完了するCompletableFutureを返す。
+   *
+   * @param query DB処理
+   * @return メインスレッドで完了するDB処理
+   */
+  public CompletableFuture<Void> runAsync(Runnable query) {
+    return supplyAsync(() -> {
+      query.run();
+      return null;
+    });
+  }
+
+  /**
+   * 処理をメインスレッドで実行する。プラグインが無効化されている場合は実行しない。
+   *
+   * @param task メインスレッドで実行する処理
+   */
+  public void runOnMainThread(Runnable task) {
+    if (!main.isEnabled()) {
+      return;
+    }
+    Bukkit.getScheduler().runTask(main, task);
+  }
+
+  /**
+   * 実行中のDB処理の完了を待ってから、仮想スレッドのエグゼキューターを停止する。
+   */
+  public void shutdown() {
+    executorService.shutdown();
+    try {
+      if (!executorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        executorService.shutdownNow();
+      }
+    } catch (InterruptedException ex) {
+      executorService.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package plugin.breakspell.database;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * 難易度ごとのハイスコアをメモリ上に保持するクラス。<br>
+ * 起動時にDBから難易度ごとのハイスコアを読み込み、以降はゲームの終了時にスコアと比較して更新する。<br>
+ * 読み込みが完了するまではハイスコアを判定できないため、ハイスコア更新とはみなさない。
+ * 読み込みに失敗した場合は、読み込めるまで読み込み直す。
+ */
+public class HighScoreRegister {
+
+  private final Map<GameDifficulty, AtomicInteger> highScoreMap =
+      new EnumMap<>(GameDifficulty.class);
+  private volatile boolean loaded = false;
+
+  public HighScoreRegister() {
+    for (GameDifficulty gameDifficulty : GameDifficulty.values()) {
+      highScoreMap.put(gameDifficulty, new AtomicInteger());
+    }
+  }
+
+  /**
+   * DBから取得した難易度ごとのハイスコアを登録する。<br>
+   * 読み込み中に登録されたスコアを上書きしないよう、現在の値より高い場合のみ更新する。
+   *
+   * @param highScoreList 難易度ごとのハイスコアのリスト
+   */
+  public void load(List<PlayerScore> highScoreList) {
+    for (PlayerScore highScore : highScoreList) {
+      GameDifficulty gameDifficulty = GameDifficulty.getGameDifficulty(highScore.getDifficulty());
+      if (gameDifficulty != null) {
+        update(gameDifficulty, highScore.getScore());
+      }
+    }
+    loaded = true;
+  }
+
+  /**
+   * 取得したスコアが現在のハイスコアより高い場合、ハイスコアを更新する。
+   *
+   * @param gameDifficulty ゲームの難易度
+   * @param score          取得したスコア
+   */
+  private void update(GameDifficulty gameDifficulty, int score) {
+    highScoreMap.get(gameDifficulty).accumulateAndGet(score, Math :: max);
+  }
+
+  /**
+   * スコアが指定の難易度のハイスコアより高い場合はハイスコアを更新し、更新したかどうかを返す。<br>
+   * 判定と更新を不可分に行うため、同時に終了した複数のゲームがどちらもハイスコア更新とみなされることはない。<br>
+   * ハイスコアを読み込めていない場合も値は更新するが、falseを返す。
+   *
+   * @param gameDifficulty ゲームの難易度
+   * @param score          判定するスコア
+   * @return ハイスコアを更新したかどうか
+   */
+  public boolean updateIfHigher(GameDifficulty gameDifficulty, int score) {
+    int previousHighScore = highScoreMap.get(gameDifficulty).getAndAccumulate(score, Math :: max);
+    return loaded && score > previousHighScore;
+  }
+
+  /**
+   * DBからハイスコアを読み込み済みかどうかを判定する。
+   *
+   * @return 読み込み済みかどうか
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
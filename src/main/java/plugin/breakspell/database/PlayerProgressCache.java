@@ -0,0 +1,158 @@
+package plugin.breakspell.database;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import plugin.breakspell.database.data.PlayerProgress;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * プレイヤーごとのゲームの進捗状況をメモリ上に保持するクラス。<br>
+ * ログイン時にDBから全難易度分の進捗状況を読み込み、進捗状況の登録・更新時に同期し、ログアウト時に破棄する。<br>
+ * 難易度ごとの進捗状況は更新のたびに新しいマップに差し替えるため、読み取り側は排他制御なしで参照できる。<br>
+ * プレイヤーごとに破棄した時刻を記録し、そのプレイヤーの読み込みの開始後に破棄された場合は読み込んだ結果を登録しない。
+ * ログアウト後に完了した非同期の読み込みで、キャッシュが作り直されることはない（他のプレイヤーの読み込みには影響しない）。
+ */
+public class PlayerProgressCache {
+
+  private final Map<UUID, Map<GameDifficulty, PlayerProgress>> progressMap =
+      new ConcurrentHashMap<>();
+  private final Map<UUID, Long> evictedAtMap = new ConcurrentHashMap<>();
+  private volatile long clearedAt = System.nanoTime();
+
+  private static final int PRUNE_THRESHOLD = 1024;
+  private static final long EVICTION_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  /**
+   * DBからの読み込みを開始した時刻を取得する。読み込みを開始する前に取得し、登録時に渡す。
+   *
+   * @return 読み込みを開始した時刻（System.nanoTime()の値）
+   */
+  public long startLoad() {
+    return System.nanoTime();
+  }
+
+  /**
+   * DBから取得した進捗状況リストを、難易度ごとの進捗状況としてキャッシュに登録する。<br>
+   * 読み込みの開始後にプレイヤーの進捗状況が破棄されていた場合は、登録せずに結果のみを返す。
+   *
+   * @param playerUuid         プレイヤーのUUID
+   * @param playerProgressList DBから取得した進捗状況リスト
+   * @param loadStartedAt      読み込みを開始した時刻（{@link #startLoad()}の値）
+   * @return 難易度ごとの進捗状況
+   */
+  public Map<GameDifficulty, PlayerProgress> put(
+      UUID playerUuid, List<PlayerProgress> playerProgressList, long loadStartedAt) {
+
+    Map<GameDifficulty, PlayerProgress> difficultyProgressMap = new EnumMap<>(GameDifficulty.class);
+    for (PlayerProgress playerProgress : playerProgressList) {
+      GameDifficulty gameDifficulty =
+          GameDifficulty.getGameDifficulty(playerProgress.getDifficulty());
+      if (gameDifficulty != null) {
+        difficultyProgressMap.put(gameDifficulty, playerProgress);
+      }
+    }
+
+    Map<GameDifficulty, PlayerProgress> unmodifiableMap =
+        Collections.unmodifiableMap(difficultyProgressMap);
+    progressMap.compute(playerUuid, (uuid, current) ->
+        isEvictedSince(playerUuid, loadStartedAt) ? current : unmodifiableMap);
+    return unmodifiableMap;
+  }
+
+  /**
+   * キャッシュから難易度ごとの進捗状況を取得し、読み込まれていない場合はnullを返す。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 難易度ごとの進捗状況
+   */
+  public Map<GameDifficulty, PlayerProgress> get(UUID playerUuid) {
+    return progressMap.get(playerUuid);
+  }
+
+  /**
+   * 指定の難易度をプレイ済みとしてキャッシュを更新する。キャッシュが読み込まれていない場合は何もしない。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   */
+  public void markPlayed(UUID playerUuid, GameDifficulty gameDifficulty) {
+    updateProgress(playerUuid, gameDifficulty, current -> current != null
+        ? current
+        : new PlayerProgress(
+            playerUuid.toString(), gameDifficulty.getInputArg(), true, false, null));
+  }
+
+  /**
+   * 指定の難易度をクリア済みとしてキャッシュを更新する。キャッシュが読み込まれていない場合は何もしない。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   */
+  public void markCleared(UUID playerUuid, GameDifficulty gameDifficulty) {
+    updateProgress(playerUuid, gameDifficulty, current -> current != null && current.isCleared()
+        ? current
+        : new PlayerProgress(
+            playerUuid.toString(), gameDifficulty.getInputArg(), true, true, LocalDateTime.now()));
+  }
+
+  /**
+   * 指定の難易度の進捗状況を差し替えた新しいマップで、キャッシュを更新する。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   * @param updater        現在の進捗状況から新しい進捗状況を作成する処理
+   */
+  private void updateProgress(
+      UUID playerUuid, GameDifficulty gameDifficulty,
+      UnaryOperator<PlayerProgress> updater) {
+
+    progressMap.computeIfPresent(playerUuid, (uuid, current) -> {
+      Map<GameDifficulty, PlayerProgress> updatedMap = new EnumMap<>(GameDifficulty.class);
+      updatedMap.putAll(current);
+      updatedMap.put(gameDifficulty, updater.apply(current.get(gameDifficulty)));
+      return Collections.unmodifiableMap(updatedMap);
+    });
+  }
+
+  /**
+   * プレイヤーの進捗状況をキャッシュから破棄する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   */
+  public void evict(UUID playerUuid) {
+    long now = System.nanoTime();
+    if (evictedAtMap.size() > PRUNE_THRESHOLD) {
+      evictedAtMap.values().removeIf(evictedAt -> now - evictedAt > EVICTION_RETENTION_NANOS);
+    }
+    evictedAtMap.put(playerUuid, now);
+    progressMap.remove(playerUuid);
+  }
+
+  /**
+   * すべてのプレイヤーの進捗状況をキャッシュから破棄する。以降はDBから読み込み直す。
+   */
+  public void clear() {
+    clearedAt = System.nanoTime();
+    progressMap.clear();
+  }
+
+  /**
+   * 指定の時刻以降に、プレイヤーの進捗状況（またはすべての進捗状況）を破棄したかどうかを判定する。
+   *
+   * @param playerUuid    プレイヤーのUUID
+   * @param loadStartedAt 読み込みを開始した時刻
+   * @return 読み込みの開始後に破棄したかどうか
+   */
+  private boolean isEvictedSince(UUID playerUuid, long loadStartedAt) {
+    Long evictedAt = evictedAtMap.get(playerUuid);
+    return clearedAt - loadStartedAt >= 0
+        || (evictedAt != null && evictedAt - loadStartedAt >= 0);
+  }
+}
@@ -1,98 +1,86 @@
 package plugin.breakspell.database;
 
+import java.util.List;
 import java.util.UUID;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import plugin.breakspell.database.data.PlayerProgress;
 import plugin.breakspell.database.mapper.PlayerProgressMapper;
+import plugin.breakspell.database.spool.JournalEntry;
+import plugin.breakspell.database.spool.JournalEntry.Type;
+import plugin.breakspell.database.spool.WriteSpool;
 import plugin.breakspell.game.constant.GameDifficulty;
 
 /**
- * DBと接続してゲームの進捗状況に関する処理を実行するクラス。
+ * DBと接続してゲームの進捗状況に関する処理を実行するクラス。<br>
+ * 各メソッドは呼び出し元のスレッドをブロックするため、メインスレッドからは
+ * {@link AsyncPlayerProgressConnector}を経由して呼び出す。<br>
+ * 取得処理は{@link SessionRouter}でプライマリとレプリカに振り分け、登録・更新の直後はプライマリで取得する。
  */
 public class PlayerProgressConnector {
 
   private final SqlSessionFactory sqlSessionFactory;
+  private final SessionRouter sessionRouter;
+  private final WriteSpool writeSpool;
 
-  public PlayerProgressConnector(SqlSessionFactory sqlSessionFactory) {
-    this.sqlSessionFactory = sqlSessionFactory;
-  }
+  public PlayerProgressConnector(
+      SqlSessionFactory sqlSessionFactory, SessionRouter sessionRouter, WriteSpool writeSpool) {
 
-  /**
-   * いずれかの難易度でゲームをプレイしたことがあるか、DBの進捗状況テーブルを確認する。
-   *
-   * @param playerUuid プレイヤーのUUID
-   * @return ゲームのプレイ有無（反転）
-   */
-  public boolean hasNotPlayedAnyDifficulty(UUID playerUuid) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
-      PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
-      return !mapper.hasPlayedAnyDifficulty(playerUuid.toString());
-    }
-  }
-
-  /**
-   * 指定の難易度でゲームをプレイしたことがあるか、DBの進捗状況テーブルを確認する。
-   *
-   * @param playerUuid     プレイヤーのUUID
-   * @param gameDifficulty ゲームの難易度
-   * @return ゲームのプレイ有無（反転）
-   */
-  public boolean hasNotPlayed(UUID playerUuid, GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
-      PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
-      Boolean hasPlayed = mapper.hasPlayed(playerUuid.toString(), gameDifficulty.toString());
-      return hasPlayed == null || !hasPlayed;
-    }
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.sessionRouter = sessionRouter;
+    this.writeSpool = writeSpool;
   }
 
   /**
-   * いずれかの難易度でゲームをクリアしたことがあるか、DBの進捗状況テーブルを確認する。
+   * DBの進捗状況テーブルから、プレイヤーの全難易度分の進捗状況を取得する。
    *
    * @param playerUuid プレイヤーのUUID
-   * @return ゲームのクリア有無（反転）
+   * @return 進捗状況リスト（未プレイの難易度は含まない）
    */
-  public boolean hasNotClearedAnyDifficulty(UUID playerUuid) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
+  public List<PlayerProgress> selectPlayerProgressList(UUID playerUuid) {
+    try (SqlSession session = sessionRouter.openPlayerReadSession(playerUuid)) {
       PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
-      return !mapper.hasClearedAnyDifficulty(playerUuid.toString());
+      return mapper.selectPlayerProgressList(playerUuid.toString());
     }
   }
 
   /**
-   * 指定の難易度で初めてゲームをプレイした際に、DBの進捗状況テーブルにゲームの進捗状況を登録する。
+   * 指定の難易度で初めてゲームをプレイした際に、DBの進捗状況テーブルにゲームの進捗状況を登録する。<br>
+   * 登録済みかどうかの確認と登録を1つのSQL（アップサート）で行う。<br>
+   * DBに書き込めない場合はジャーナルに退避し、DBの復旧後に再実行する。
    *
    * @param playerUuid     プレイヤーのUUID
    * @param gameDifficulty ゲームの難易度
    */
   public void insertGameProgress(UUID playerUuid, GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession(true)) {
-      PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
-      Boolean isPlayed = mapper.hasPlayed(playerUuid.toString(), gameDifficulty.getInputArg());
-      if (isPlayed == null || !isPlayed) {
-        mapper.insertPlayerProgress(
-            new PlayerProgress(
-                playerUuid.toString(),
-                gameDifficulty.getInputArg(),
-                true,
-                false,
-                null));
+    String uuid = playerUuid.toString();
+    String difficulty = gameDifficulty.getInputArg();
+    sessionRouter.markPlayerWritten(playerUuid);
+    writeSpool.writeOrSpool(JournalEntry.progress(Type.PLAYED, uuid, difficulty), () -> {
+      try (SqlSession session = sqlSessionFactory.openSession(true)) {
+        PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
+        mapper.upsertPlayed(uuid, difficulty);
       }
-    }
+    });
   }
 
   /**
-   * 指定の難易度で初めてゲームをクリアした際に、DBの進捗状況テーブルのクリア状況を更新する。
+   * 指定の難易度で初めてゲームをクリアした際に、DBの進捗状況テーブルのクリア状況を更新する。<br>
+   * クリア済みかどうかの確認と更新を1つのSQL（アップサート）で行い、初回クリア日時は上書きしない。<br>
+   * DBに書き込めない場合はジャーナルに退避し、DBの復旧後に再実行する。
    *
    * @param playerUuid     プレイヤーのUUID
    * @param gameDifficulty ゲームの難易度
    */
   public void updateGameClear(UUID playerUuid, GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession(true)) {
-      PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
-      if (!mapper.hasCleared(playerUuid.toString(), gameDifficulty.getInputArg())) {
-        mapper.updatePlayerProgress(playerUuid.toString(), gameDifficulty.getInputArg());
+    String uuid = playerUuid.toString();
+    String difficulty = gameDifficulty.getInputArg();
+    sessionRouter.markPlayerWritten(playerUuid);
+    writeSpool.writeOrSpool(JournalEntry.progress(Type.CLEARED, uuid, difficulty), () -> {
+      try (SqlSession session = sqlSessionFactory.openSession(true)) {
+        PlayerProgressMapper mapper = session.getMapper(PlayerProgressMapper.class);
+        mapper.upsertCleared(uuid, difficulty);
       }
-    }
+    });
   }
 }
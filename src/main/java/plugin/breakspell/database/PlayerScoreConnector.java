@@ -1,127 +1,155 @@
 package plugin.breakspell.database;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.apache.ibatis.session.SqlSession;
-import org.apache.ibatis.session.SqlSessionFactory;
-import org.bukkit.entity.Player;
 import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
 import plugin.breakspell.database.mapper.PlayerScoreMapper;
 import plugin.breakspell.game.constant.GameDifficulty;
-import plugin.breakspell.game.data.PlayerGameData;
-import plugin.breakspell.game.manager.effect.SendTextManager;
 
 /**
- * DBと接続してゲームのスコア情報に関する処理を実行するクラス。
+ * DBと接続してゲームのスコア情報に関する処理を実行するクラス。<br>
+ * 各メソッドは呼び出し元のスレッドをブロックするため、メインスレッドからは
+ * {@link AsyncPlayerScoreConnector}を経由して呼び出す。<br>
+ * 取得処理は{@link SessionRouter}でプライマリとレプリカに振り分ける。
  */
 public class PlayerScoreConnector {
 
-  private final SqlSessionFactory sqlSessionFactory;
-  private final SendTextManager sendTextManager;
+  private final SessionRouter sessionRouter;
+  private final ScoreWriteBehindQueue scoreWriteBehindQueue;
+
+  private static final int SINCE_PAGE_SIZE = 1000;
 
   public PlayerScoreConnector(
-      SqlSessionFactory sqlSessionFactory, SendTextManager sendTextManager) {
+      SessionRouter sessionRouter, ScoreWriteBehindQueue scoreWriteBehindQueue) {
 
-    this.sqlSessionFactory = sqlSessionFactory;
-    this.sendTextManager = sendTextManager;
+    this.sessionRouter = sessionRouter;
+    this.scoreWriteBehindQueue = scoreWriteBehindQueue;
   }
 
   /**
-   * DBからスコアリストを取得し、メッセージとして表示する（新着リスト）。
+   * DBから指定のIDより古いスコアリストを取得する（新着リストの1ページ分）。
    *
-   * @param player コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param beforeId 取得するスコアのIDの上限（このIDは含まない）
+   * @param limit    取得する件数
+   * @return 新しい順のスコアリスト
    */
-  public boolean showNewlyScoreList(Player player) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
+  public List<PlayerScore> selectScoreHistoryPage(int beforeId, int limit) {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
       PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
-      List<PlayerScore> playerScoreList = mapper.selectNewlyScoreList();
-
-      if (playerScoreList.isEmpty()) {
-        sendTextManager.sendNotExitsScoreListMessage(player);
-        return false;
-      } else {
-        List<String> scoreLines = ScoreMessageBuilder.buildNewlyScoreList(playerScoreList);
-        sendTextManager.sendScoreLines(player, scoreLines);
-        return true;
-      }
+      return mapper.selectScoreHistoryPage(beforeId, limit);
     }
   }
 
   /**
-   * DBからスコアリストを取得し、メッセージとして表示する（全体ランキングリスト）。
+   * DBからスコアリストを取得する（全体ランキングリスト）。
    *
-   * @param player コマンドを実行またはスコアメニューをクリックしたプレイヤー
+   * @param limit 取得する件数
+   * @return スコアが高い順のスコアリスト
    */
-  public boolean showRankedScoreList(Player player) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
+  public List<PlayerScore> selectRankedScoreList(int limit) {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
       PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
-      List<PlayerScore> playerScoreList = mapper.selectRankedScoreList();
-
-      if (playerScoreList.isEmpty()) {
-        sendTextManager.sendNotExitsScoreListMessage(player);
-        return false;
-      } else {
-        List<String> scoreLines = ScoreMessageBuilder.buildRankedScoreList(playerScoreList);
-        sendTextManager.sendScoreLines(player, scoreLines);
-        return true;
-      }
+      return mapper.selectRankedScoreList(limit);
     }
   }
 
   /**
-   * DBからスコアリストを取得し、メッセージとして表示する（難易度別ランキングリスト）。
+   * DBからスコアリストを取得する（難易度別ランキングリスト）。
    *
-   * @param player         コマンドを実行またはスコアメニューをクリックしたプレイヤー
    * @param gameDifficulty ゲームの難易度
+   * @param limit          取得する件数
+   * @return 指定の難易度のスコアが高い順のスコアリスト
    */
-  public boolean showRankedByDifficultyScoreList(Player player, GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
+  public List<PlayerScore> selectRankedByDifficultyScoreList(
+      GameDifficulty gameDifficulty, int limit) {
+
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
       PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
-      List<PlayerScore> playerScoreList =
-          mapper.selectRankedByDifficultyScoreList(gameDifficulty.toString());
+      return mapper.selectRankedByDifficultyScoreList(gameDifficulty.getInputArg(), limit);
+    }
+  }
 
-      if (playerScoreList.isEmpty()) {
-        sendTextManager.sendNotExitsScoreListMessage(player);
-        return false;
-      } else {
-        List<String> scoreLines =
-            ScoreMessageBuilder.buildRankedByDifficultyScoreList(playerScoreList, gameDifficulty);
-        sendTextManager.sendScoreLines(player, scoreLines);
-        return true;
+  /**
+   * DBから難易度ごとに上位のスコアリストを取得し、1つのリストにまとめる。
+   *
+   * @param limit 難易度ごとに取得する件数
+   * @return 難易度ごとの上位のスコアをまとめたスコアリスト
+   */
+  public List<PlayerScore> selectTopScoreListOfEachDifficulty(int limit) {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
+      PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
+      List<PlayerScore> playerScoreList = new ArrayList<>();
+      for (GameDifficulty gameDifficulty : GameDifficulty.values()) {
+        playerScoreList.addAll(
+            mapper.selectRankedByDifficultyScoreList(gameDifficulty.getInputArg(), limit));
       }
+      return playerScoreList;
     }
   }
 
   /**
-   * DBから指定の難易度のハイスコアを取得し、存在しない場合は0を返す。
+   * DBから指定の日以降に登録されたスコア情報を、IDのキーセット方式で一定件数ずつ読み込み、1件ずつ処理に渡す。<br>
+   * ドライバーが結果をすべて読み込んでから返すことがないため、件数が多くてもメモリを圧迫しない。
    *
-   * @param gameDifficulty ゲームの難易度
-   * @return 指定の難易度のハイスコア
+   * @param since    読み込むスコア情報のプレイ日の下限
+   * @param consumer スコア情報を1件ずつ受け取る処理
    */
-  public int getHighScore(GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession()) {
+  public void selectScoreListSince(LocalDate since, Consumer<PlayerScore> consumer) {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
       PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
-      return Optional.ofNullable(
-              mapper.selectHighScore(gameDifficulty.getInputArg()))
-          .orElse(0);
+      int afterId = 0;
+      List<PlayerScore> playerScoreList;
+      do {
+        playerScoreList =
+            mapper.selectScorePageSince(since.atStartOfDay(), afterId, SINCE_PAGE_SIZE);
+        playerScoreList.forEach(consumer);
+        if (!playerScoreList.isEmpty()) {
+          afterId = playerScoreList.getLast().getId();
+        }
+      } while (playerScoreList.size() == SINCE_PAGE_SIZE);
     }
   }
 
   /**
-   * DBにプレイヤーのスコア情報を登録する。
+   * DBから難易度ごとのハイスコアを取得する。スコアが存在しない難易度は含まない。
    *
-   * @param playerGameData プレイヤーデータ
-   * @param gameDifficulty ゲームの難易度
+   * @return 難易度ごとのハイスコアのリスト
    */
-  public void insertNewScore(PlayerGameData playerGameData, GameDifficulty gameDifficulty) {
-    try (SqlSession session = sqlSessionFactory.openSession(true)) {
+  public List<PlayerScore> selectHighScoreList() {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
       PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
-      mapper.insertNewScore(
-          new PlayerScore(
-              playerGameData.getPlayerUuid().toString(),
-              playerGameData.getPlayerName(),
-              playerGameData.getScore(),
-              gameDifficulty.getInputArg()));
+      return mapper.selectHighScoreList();
     }
   }
+
+  /**
+   * DBから指定のIDのスコア情報のセッションIDを取得する。アーカイブ済みのスコア情報も対象とする。
+   *
+   * @param id スコア情報のID
+   * @return セッションID（スコア情報が存在しない場合、またはセッションIDがない場合はnull）
+   */
+  public String selectSessionId(int id) {
+    try (SqlSession session = sessionRouter.openScoreReadSession()) {
+      PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
+      return mapper.selectSessionIdById(id);
+    }
+  }
+
+  /**
+   * プレイヤーのスコア情報を登録キューに追加する。DBへの登録は他のスコア情報とまとめて行い、
+   * 同じトランザクションでプレイヤーの成績に1ゲーム分の結果を加算する。<br>
+   * キューが満杯の場合は空きができるまで待つ。
+   *
+   * @param playerScore プレイヤーのスコア情報
+   * @param gameResult  成績に加算する1ゲーム分の結果
+   * @return DBへの登録（コミット）の完了
+   */
+  public CompletableFuture<Void> insertNewScore(PlayerScore playerScore, PlayerStats gameResult) {
+    return scoreWriteBehindQueue.enqueue(playerScore, gameResult);
+  }
 }
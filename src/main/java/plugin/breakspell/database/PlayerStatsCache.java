@@ -0,0 +1,125 @@
+package plugin.breakspell.database;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * プレイヤーごとの難易度ごとの成績をメモリ上に保持するクラス。<br>
+ * ログイン時にDBから全難易度分の成績を読み込み、ゲーム終了時に1ゲーム分の結果を加算し、ログアウト時に破棄する。<br>
+ * 難易度ごとの成績は更新のたびに新しいマップに差し替えるため、読み取り側は排他制御なしで参照できる。<br>
+ * 進捗状況のキャッシュと同様に、そのプレイヤーの読み込みの開始後に破棄された場合は読み込んだ結果を登録しない。
+ */
+public class PlayerStatsCache {
+
+  private final Map<UUID, Map<GameDifficulty, PlayerStats>> statsMap = new ConcurrentHashMap<>();
+  private final Map<UUID, Long> evictedAtMap = new ConcurrentHashMap<>();
+  private volatile long clearedAt = System.nanoTime();
+
+  private static final int PRUNE_THRESHOLD = 1024;
+  private static final long EVICTION_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  /**
+   * DBからの読み込みを開始した時刻を取得する。読み込みを開始する前に取得し、登録時に渡す。
+   *
+   * @return 読み込みを開始した時刻（System.nanoTime()の値）
+   */
+  public long startLoad() {
+    return System.nanoTime();
+  }
+
+  /**
+   * DBから取得した成績リストを、難易度ごとの成績としてキャッシュに登録する。<br>
+   * 読み込みの開始後にプレイヤーの成績が破棄されていた場合は、登録せずに結果のみを返す。
+   *
+   * @param playerUuid      プレイヤーのUUID
+   * @param playerStatsList DBから取得した成績リスト
+   * @param loadStartedAt   読み込みを開始した時刻（{@link #startLoad()}の値）
+   * @return 難易度ごとの成績
+   */
+  public Map<GameDifficulty, PlayerStats> put(
+      UUID playerUuid, List<PlayerStats> playerStatsList, long loadStartedAt) {
+
+    Map<GameDifficulty, PlayerStats> difficultyStatsMap = new EnumMap<>(GameDifficulty.class);
+    for (PlayerStats playerStats : playerStatsList) {
+      GameDifficulty gameDifficulty = GameDifficulty.getGameDifficulty(playerStats.getDifficulty());
+      if (gameDifficulty != null) {
+        difficultyStatsMap.put(gameDifficulty, playerStats);
+      }
+    }
+
+    Map<GameDifficulty, PlayerStats> unmodifiableMap =
+        Collections.unmodifiableMap(difficultyStatsMap);
+    statsMap.compute(playerUuid, (uuid, current) ->
+        isEvictedSince(playerUuid, loadStartedAt) ? current : unmodifiableMap);
+    return unmodifiableMap;
+  }
+
+  /**
+   * キャッシュから難易度ごとの成績を取得し、読み込まれていない場合はnullを返す。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 難易度ごとの成績
+   */
+  public Map<GameDifficulty, PlayerStats> get(UUID playerUuid) {
+    return statsMap.get(playerUuid);
+  }
+
+  /**
+   * 1ゲーム分の結果を成績に加算した新しいマップで、キャッシュを更新する。
+   * キャッシュが読み込まれていない場合は何もしない。
+   *
+   * @param playerUuid     プレイヤーのUUID
+   * @param gameDifficulty ゲームの難易度
+   * @param gameResult     1ゲーム分の結果
+   */
+  public void merge(UUID playerUuid, GameDifficulty gameDifficulty, PlayerStats gameResult) {
+    statsMap.computeIfPresent(playerUuid, (uuid, current) -> {
+      Map<GameDifficulty, PlayerStats> updatedMap = new EnumMap<>(GameDifficulty.class);
+      updatedMap.putAll(current);
+      updatedMap.merge(gameDifficulty, gameResult, PlayerStats :: merge);
+      return Collections.unmodifiableMap(updatedMap);
+    });
+  }
+
+  /**
+   * プレイヤーの成績をキャッシュから破棄する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   */
+  public void evict(UUID playerUuid) {
+    long now = System.nanoTime();
+    if (evictedAtMap.size() > PRUNE_THRESHOLD) {
+      evictedAtMap.values().removeIf(evictedAt -> now - evictedAt > EVICTION_RETENTION_NANOS);
+    }
+    evictedAtMap.put(playerUuid, now);
+    statsMap.remove(playerUuid);
+  }
+
+  /**
+   * すべてのプレイヤーの成績をキャッシュから破棄する。以降はDBから読み込み直す。
+   */
+  public void clear() {
+    clearedAt = System.nanoTime();
+    statsMap.clear();
+  }
+
+  /**
+   * 指定の時刻以降に、プレイヤーの成績（またはすべての成績）を破棄したかどうかを判定する。
+   *
+   * @param playerUuid    プレイヤーのUUID
+   * @param loadStartedAt 読み込みを開始した時刻
+   * @return 読み込みの開始後に破棄したかどうか
+   */
+  private boolean isEvictedSince(UUID playerUuid, long loadStartedAt) {
+    Long evictedAt = evictedAtMap.get(playerUuid);
+    return clearedAt - loadStartedAt >= 0
+        || (evictedAt != null && evictedAt - loadStartedAt >= 0);
+  }
+}
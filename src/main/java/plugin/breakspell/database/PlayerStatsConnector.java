@@ -0,0 +1,36 @@
+package plugin.breakspell.database;
+
+import java.util.List;
+import java.util.UUID;
+import org.apache.ibatis.session.SqlSession;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.database.mapper.PlayerStatsMapper;
+
+/**
+ * DBと接続してプレイヤーの成績に関する処理を実行するクラス。<br>
+ * 成績の更新はスコア情報の登録と同じトランザクションで行うため、このクラスでは取得のみを扱う。<br>
+ * 取得処理は{@link SessionRouter}でプライマリとレプリカに振り分ける。<br>
+ * 各メソッドは呼び出し元のスレッドをブロックするため、メインスレッドからは
+ * {@link AsyncPlayerStatsConnector}を経由して呼び出す。
+ */
+public class PlayerStatsConnector {
+
+  private final SessionRouter sessionRouter;
+
+  public PlayerStatsConnector(SessionRouter sessionRouter) {
+    this.sessionRouter = sessionRouter;
+  }
+
+  /**
+   * DBの成績テーブルから、プレイヤーの全難易度分の成績を取得する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 成績リスト（未プレイの難易度は含まない）
+   */
+  public List<PlayerStats> selectPlayerStatsList(UUID playerUuid) {
+    try (SqlSession session = sessionRouter.openPlayerReadSession(playerUuid)) {
+      PlayerStatsMapper mapper = session.getMapper(PlayerStatsMapper.class);
+      return mapper.selectPlayerStatsList(playerUuid.toString());
+    }
+  }
+}
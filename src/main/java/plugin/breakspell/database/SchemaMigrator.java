@@ -0,0 +1,221 @@
+package plugin.breakspell.database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import plugin.breakspell.database.mapper.SchemaVersionMapper;
+
+/**
+ * プラグインの起動時に、バージョン付きのSQL（マイグレーション）をDBに適用するクラス。<br>
+ * 適用済みのバージョンはschema_versionテーブルに記録し、未適用のものだけを古い順に適用する。<br>
+ * 既存の環境でも手動でDDLを実行することなく、最新のスキーマに更新できる。<br>
+ * 途中で失敗したマイグレーションを再適用できるよう、作成済みのインデックスと追加済みのカラムは作成・追加しない。
+ * データの変更はバージョンの記録と同じトランザクションで行う（DDLは暗黙的にコミットされる）。<br>
+ * MySQLでは同じDBを共有する複数のサーバーが同時に適用しないよう、適用中はロック（GET_LOCK）を取得する。
+ */
+public class SchemaMigrator {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Logger logger;
+
+  private static final String MIGRATION_DIRECTORY = "db/migration/";
+  private static final String LOCK_NAME = "break_spell_schema_migration";
+  private static final int LOCK_TIMEOUT_SECONDS = 30;
+  private static final Pattern CREATE_INDEX_PATTERN = Pattern.compile(
+      "^CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+  private static final Pattern ADD_COLUMN_PATTERN = Pattern.compile(
+      "^ALTER\\s+TABLE\\s+(\\w+)\\s+ADD\\s+COLUMN\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+  // マイグレーションは追加のみとし、適用済みのファイルは変更しない
+  private static final List<Migration> MIGRATION_LIST = List.of(
+      new Migration(1, "create tables", "V1__create_tables.sql"),
+      new Migration(2, "add leaderboard indexes", "V2__add_leaderboard_indexes.sql"),
+      new Migration(3, "create player stats", "V3__create_player_stats.sql"),
+      new Migration(4, "add score session id", "V4__add_score_session_id.sql"),
+      new Migration(5, "create score archive", "V5__create_score_archive.sql"),
+      new Migration(6, "add registered at index", "V6__add_registered_at_index.sql"));
+
+  /**
+   * マイグレーションのバージョン、説明、SQLファイル名の組。
+   *
+   * @param version     バージョン
+   * @param description 説明
+   * @param fileName    SQLファイル名
+   */
+  private record Migration(int version, String description, String fileName) {
+
+  }
+
+  public SchemaMigrator(SqlSessionFactory sqlSessionFactory, Logger logger) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.logger = logger;
+  }
+
+  /**
+   * 未適用のマイグレーションを古い順に適用し、適用したバージョンを記録する。<br>
+   * 適用済みのバージョンはロックを取得してから読み込むため、他のサーバーが適用したものは適用しない。<br>
+   * 途中で失敗した場合はそのマイグレーションのデータの変更を取り消し、以降のマイグレーションを適用せずに例外を投げる。
+   */
+  public void migrate() {
+    try (SqlSession session = sqlSessionFactory.openSession(false)) {
+      SchemaVersionMapper mapper = session.getMapper(SchemaVersionMapper.class);
+      boolean locked = acquireLock(session, mapper);
+      try {
+        mapper.createSchemaVersionTable();
+        session.commit(true);
+        Set<Integer> appliedVersionSet = new HashSet<>(mapper.selectAppliedVersionList());
+
+        for (Migration migration : MIGRATION_LIST) {
+          if (appliedVersionSet.contains(migration.version())) {
+            continue;
+          }
+          runScript(session.getConnection(), migration);
+          mapper.insertAppliedVersion(migration.version(), migration.description());
+          session.commit(true);
+          logger.info("マイグレーションを適用しました。（V" + migration.version() + " "
+              + migration.description() + "）");
+        }
+      } catch (RuntimeException ex) {
+        session.rollback(true);
+        throw ex;
+      } finally {
+        if (locked) {
+          mapper.releaseLock(LOCK_NAME);
+        }
+      }
+    }
+  }
+
+  /**
+   * MySQLの場合はマイグレーション用のロックを取得する。<br>
+   * H2は組み込みDBで、1つのサーバーからしか開けないためロックを取得しない。
+   *
+   * @param session DBとのセッション
+   * @param mapper  スキーマのバージョンのマッパー
+   * @return ロックを取得したかどうか
+   */
+  private boolean acquireLock(SqlSession session, SchemaVersionMapper mapper) {
+    try {
+      String productName = session.getConnection().getMetaData().getDatabaseProductName();
+      if (!"MySQL".equalsIgnoreCase(productName)) {
+        return false;
+      }
+    } catch (SQLException ex) {
+      throw new IllegalStateException("DBの種類を取得できませんでした。", ex);
+    }
+
+    Integer result = mapper.acquireLock(LOCK_NAME, LOCK_TIMEOUT_SECONDS);
+    if (result == null || result != 1) {
+      throw new IllegalStateException(
+          "他のサーバーがマイグレーションを適用中のため、ロックを取得できませんでした。");
+    }
+    return true;
+  }
+
+  /**
+   * マイグレーションのSQLファイルを読み込み、1文ずつ実行する。<br>
+   * 作成済みのインデックスの作成と、追加済みのカラムの追加は実行しない。
+   *
+   * @param connection DBとの接続
+   * @param migration  適用するマイグレーション
+   */
+  private void runScript(Connection connection, Migration migration) {
+    try (Statement statement = connection.createStatement()) {
+      for (String sql : readStatementList(migration)) {
+        if (isAlreadyApplied(connection.getMetaData(), connection.getCatalog(), sql)) {
+          logger.info("適用済みのため実行しません。（V" + migration.version() + " : "
+              + sql.lines().findFirst().orElse(sql) + "）");
+          continue;
+        }
+        statement.execute(sql);
+      }
+    } catch (SQLException ex) {
+      throw new IllegalStateException(
+          "マイグレーションを適用できませんでした。（" + migration.fileName() + "）", ex);
+    }
+  }
+
+  /**
+   * マイグレーションのSQLファイルを読み込み、コメント行を除いて1文ずつに分割する。
+   *
+   * @param migration マイグレーション
+   * @return SQL文のリスト
+   */
+  private List<String> readStatementList(Migration migration) {
+    String script;
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        Resources.getResourceAsStream(MIGRATION_DIRECTORY + migration.fileName()),
+        StandardCharsets.UTF_8))) {
+      script = reader.lines()
+          .filter(line -> !line.strip().startsWith("--"))
+          .collect(Collectors.joining("\n"));
+    } catch (IOException ex) {
+      throw new IllegalStateException(
+          "マイグレーションを読み込めませんでした。（" + migration.fileName() + "）", ex);
+    }
+
+    List<String> statementList = new ArrayList<>();
+    for (String sql : script.split(";")) {
+      if (!sql.isBlank()) {
+        statementList.add(sql.strip());
+      }
+    }
+    return statementList;
+  }
+
+  /**
+   * SQL文がインデックスの作成またはカラムの追加で、すでに作成・追加されているかどうかを判定する。
+   *
+   * @param metaData DBのメタデータ
+   * @param catalog  カタログ（DB名）
+   * @param sql      SQL文
+   * @return すでに作成・追加されているかどうか
+   * @throws SQLException メタデータを取得できなかった場合
+   */
+  private boolean isAlreadyApplied(DatabaseMetaData metaData, String catalog, String sql)
+      throws SQLException {
+
+    Matcher indexMatcher = CREATE_INDEX_PATTERN.matcher(sql);
+    if (indexMatcher.find()) {
+      try (ResultSet resultSet =
+          metaData.getIndexInfo(catalog, null, indexMatcher.group(2), false, false)) {
+        while (resultSet.next()) {
+          if (indexMatcher.group(1).equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    Matcher columnMatcher = ADD_COLUMN_PATTERN.matcher(sql);
+    if (columnMatcher.find()) {
+      try (ResultSet resultSet =
+          metaData.getColumns(catalog, null, columnMatcher.group(1), null)) {
+        while (resultSet.next()) {
+          if (columnMatcher.group(2).equalsIgnoreCase(resultSet.getString("COLUMN_NAME"))) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+}
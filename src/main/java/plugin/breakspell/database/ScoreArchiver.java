@@ -0,0 +1,198 @@
+package plugin.breakspell.database;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.bukkit.configuration.ConfigurationSection;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.ScoreDailyRollup;
+import plugin.breakspell.database.mapper.PlayerScoreMapper;
+import plugin.breakspell.database.mapper.ScoreArchiveMapper;
+import plugin.breakspell.database.spool.WriteSpool;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * 一定期間より古いスコア情報を、スコア情報テーブルからアーカイブテーブルに移動するクラス。<br>
+ * 移動したスコア情報は日別・難易度別に集計し（プレイ回数、最高・平均スコア、スコア分布）、集計テーブルに加算する。<br>
+ * 移動は一定件数ずつ短いトランザクションで行い、スコア情報テーブルを長時間ロックしない。<br>
+ * ランキングとハイスコアが変わらないよう、難易度ごとの上位のスコア情報は古くても移動しない。
+ */
+public class ScoreArchiver {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final WriteSpool writeSpool;
+  private final Logger logger;
+  private final int leaderboardSize;
+  private final int retentionDays;
+  private final int chunkSize;
+  private final ScheduledExecutorService archiveExecutor;
+
+  private final AtomicLong archivedCount = new AtomicLong();
+  private volatile LocalDateTime lastArchivedAt;
+
+  private static final int HISTOGRAM_BUCKET_WIDTH = 50;
+  private static final long CHUNK_PAUSE_MILLIS = 100;
+  private static final long INITIAL_DELAY_MINUTES = 1;
+
+  /**
+   * 設定ファイルの内容に応じて、アーカイブ処理を一定間隔で実行する。保持日数が0以下の場合は実行しない。
+   *
+   * @param sqlSessionFactory セッションファクトリー
+   * @param writeSpool        DBへの書き込みのスプール（DBの障害中はアーカイブ処理を実行しない）
+   * @param archiveSection    設定ファイルのarchiveセクション
+   * @param leaderboardSize   ランキングに表示するスコアの件数
+   * @param logger            ロガー
+   */
+  public ScoreArchiver(
+      SqlSessionFactory sqlSessionFactory, WriteSpool writeSpool,
+      ConfigurationSection archiveSection, int leaderboardSize, Logger logger) {
+
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.writeSpool = writeSpool;
+    this.logger = logger;
+    this.leaderboardSize = leaderboardSize;
+    this.retentionDays = archiveSection == null ? 30 : archiveSection.getInt("retention-days", 30);
+    this.chunkSize = Math.max(1,
+        archiveSection == null ? 500 : archiveSection.getInt("chunk-size", 500));
+    long intervalMinutes = Math.max(1,
+        archiveSection == null ? 60 : archiveSection.getLong("interval-minutes", 60));
+
+    this.archiveExecutor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("BreakSpell-ScoreArchiver").daemon(true).factory());
+    if (retentionDays > 0) {
+      archiveExecutor.scheduleWithFixedDelay(
+          this :: archive, INITIAL_DELAY_MINUTES, intervalMinutes, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * 保持日数より古いスコア情報がなくなるまで、一定件数ずつアーカイブテーブルに移動する。
+   */
+  private void archive() {
+    if (!writeSpool.isDatabaseAvailable()) {
+      return;
+    }
+
+    try {
+      LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+      List<Integer> protectedIdList = selectLeaderboardIdList();
+      int archived = 0;
+      int moved;
+      do {
+        moved = archiveChunk(cutoff, protectedIdList);
+        archived += moved;
+        if (moved == chunkSize) {
+          Thread.sleep(CHUNK_PAUSE_MILLIS);
+        }
+      } while (moved == chunkSize);
+
+      lastArchivedAt = LocalDateTime.now();
+      archivedCount.addAndGet(archived);
+      if (archived > 0) {
+        logger.info("古いスコア情報をアーカイブしました。（" + archived + "件）");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException ex) {
+      logger.log(Level.WARNING, "古いスコア情報をアーカイブできませんでした。", ex);
+    }
+  }
+
+  /**
+   * ランキングに表示される、難易度ごとの上位のスコア情報のIDを取得する。
+   *
+   * @return 移動しないスコア情報のIDのリスト
+   */
+  private List<Integer> selectLeaderboardIdList() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      PlayerScoreMapper mapper = session.getMapper(PlayerScoreMapper.class);
+      List<Integer> idList = new ArrayList<>();
+      for (GameDifficulty gameDifficulty : GameDifficulty.values()) {
+        mapper.selectRankedByDifficultyScoreList(gameDifficulty.getInputArg(), leaderboardSize)
+            .forEach(playerScore -> idList.add(playerScore.getId()));
+      }
+      return idList;
+    }
+  }
+
+  /**
+   * 保持日数より古いスコア情報を一定件数だけ、1つのトランザクションでアーカイブテーブルに移動して集計する。
+   *
+   * @param cutoff          移動するスコア情報の登録日時の上限
+   * @param protectedIdList 移動しないスコア情報のIDのリスト
+   * @return 移動した件数
+   */
+  private int archiveChunk(LocalDateTime cutoff, List<Integer> protectedIdList) {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      ScoreArchiveMapper mapper = session.getMapper(ScoreArchiveMapper.class);
+      List<PlayerScore> playerScoreList =
+          mapper.selectArchivableScoreList(cutoff, protectedIdList, chunkSize);
+      if (playerScoreList.isEmpty()) {
+        return 0;
+      }
+
+      List<Integer> idList = playerScoreList.stream().map(PlayerScore :: getId).toList();
+      mapper.insertArchivedScores(idList);
+      for (ScoreDailyRollup rollup : buildRollupList(playerScoreList)) {
+        mapper.upsertDailyRollup(rollup);
+        rollup.getHistogramMap().forEach((bucketFloor, playCount) -> mapper.upsertDailyHistogram(
+            rollup.getPlayDate(), rollup.getDifficulty(), bucketFloor, playCount));
+      }
+      mapper.deleteScores(idList);
+      session.commit();
+      return playerScoreList.size();
+    }
+  }
+
+  /**
+   * スコア情報リストを日別・難易度別に集計する。
+   *
+   * @param playerScoreList スコア情報リスト
+   * @return 日別・難易度別の集計値のリスト
+   */
+  private List<ScoreDailyRollup> buildRollupList(List<PlayerScore> playerScoreList) {
+    Map<String, ScoreDailyRollup> rollupMap = new LinkedHashMap<>();
+    for (PlayerScore playerScore : playerScoreList) {
+      LocalDate playDate = playerScore.getRegisteredAt().toLocalDate();
+      String difficulty = Objects.toString(playerScore.getDifficulty(), "");
+      rollupMap
+          .computeIfAbsent(playDate + "/" + difficulty,
+              key -> new ScoreDailyRollup(playDate, difficulty))
+          .add(playerScore.getScore(), HISTOGRAM_BUCKET_WIDTH);
+    }
+    return List.copyOf(rollupMap.values());
+  }
+
+  /**
+   * アーカイブ処理を停止する。移動中のスコア情報はトランザクション単位で移動済みか未移動のどちらかになる。
+   */
+  public void shutdown() {
+    archiveExecutor.shutdownNow();
+  }
+
+  /**
+   * アーカイブ処理の状況をメッセージ表示用に整形して取得する。
+   *
+   * @return アーカイブ処理の状況のメッセージ
+   */
+  public List<String> getMetricsLines() {
+    if (retentionDays <= 0) {
+      return List.of("アーカイブ : 無効");
+    }
+    return List.of(String.format("アーカイブ : %d 日より前を移動 (移動 %d 件, 最終実行 %s)",
+        retentionDays, archivedCount.get(),
+        lastArchivedAt == null ? "未実行" : lastArchivedAt.withNano(0).toString()));
+  }
+}
@@ -0,0 +1,200 @@
+package plugin.breakspell.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import plugin.breakspell.database.data.PlayerScore;
+
+/**
+ * スコア履歴（新着順のスコア情報）をページ単位で取得するクラス。<br>
+ * ページはIDを境界とするキーセット方式で取得するため、何ページ目であっても取得にかかるコストは変わらない。<br>
+ * プレイヤーごとに閲覧中のページの境界を保持し、現在のページを表示している間に次のページを先読みする。<br>
+ * 境界と先読みの結果はメインスレッドでのみ読み書きする。
+ */
+public class ScoreHistoryPager {
+
+  private final PlayerScoreConnector playerScoreConnector;
+  private final DatabaseExecutor databaseExecutor;
+  private final ScoreListRenderCache scoreListRenderCache;
+  private final Map<UUID, HistoryCursor> cursorMap = new HashMap<>();
+  private volatile LatestPage latestPage;
+
+  private static final int PAGE_SIZE = 5;
+  private static final int FIRST_PAGE_BEFORE_ID = Integer.MAX_VALUE;
+
+  /**
+   * スコア履歴の1ページ分。
+   *
+   * @param pageNum         ページ番号（1始まり）
+   * @param playerScoreList 新しい順のスコアリスト
+   * @param hasNextPage     次のページがあるかどうか
+   */
+  public record ScoreHistoryPage(
+      int pageNum, List<PlayerScore> playerScoreList, boolean hasNextPage) {
+
+  }
+
+  /**
+   * 最新のページと、取得時のスコアリストのバージョンの組。
+   *
+   * @param version         取得時のスコアリストのバージョン
+   * @param playerScoreList 新しい順のスコアリスト
+   */
+  private record LatestPage(long version, List<PlayerScore> playerScoreList) {
+
+  }
+
+  /**
+   * プレイヤーごとの閲覧状況。<br>
+   * 各ページの境界（そのページより新しいスコアのうち最も古いID）と、取得済み・先読み中のページを保持する。
+   */
+  private static class HistoryCursor {
+
+    private final List<Integer> beforeIdList = new ArrayList<>(List.of(FIRST_PAGE_BEFORE_ID));
+    private final Map<Integer, CompletableFuture<List<PlayerScore>>> pageMap = new HashMap<>();
+    private int currentPageNum = 0;
+  }
+
+  public ScoreHistoryPager(
+      PlayerScoreConnector playerScoreConnector, DatabaseExecutor databaseExecutor,
+      ScoreListRenderCache scoreListRenderCache) {
+
+    this.playerScoreConnector = playerScoreConnector;
+    this.databaseExecutor = databaseExecutor;
+    this.scoreListRenderCache = scoreListRenderCache;
+  }
+
+  /**
+   * 指定のページを取得し、次のページを先読みする。<br>
+   * 1ページ目を指定した場合は閲覧状況をリセットし、最新のスコア履歴から閲覧し直す。<br>
+   * 境界が分からないページを指定した場合は、境界が分かっているページから順にたどる。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @param pageNum    ページ番号（1始まり）
+   * @return スコア履歴の1ページ分（メインスレッドで完了する）
+   */
+  public CompletableFuture<ScoreHistoryPage> getPage(UUID playerUuid, int pageNum) {
+    HistoryCursor cursor = pageNum == 1
+        ? resetCursor(playerUuid)
+        : cursorMap.computeIfAbsent(playerUuid, uuid -> new HistoryCursor());
+    cursor.currentPageNum = pageNum;
+    cursor.pageMap.keySet().removeIf(loadedPageNum -> Math.abs(loadedPageNum - pageNum) > 1);
+
+    return loadPage(cursor, pageNum).thenApply(playerScoreList -> {
+      boolean hasNextPage = playerScoreList.size() > PAGE_SIZE;
+      if (hasNextPage && cursor.currentPageNum == pageNum) {
+        recordBoundary(cursor, pageNum + 1, playerScoreList);
+        loadPage(cursor, pageNum + 1);
+      }
+      return new ScoreHistoryPage(
+          pageNum, playerScoreList.subList(0, Math.min(playerScoreList.size(), PAGE_SIZE)),
+          hasNextPage);
+    });
+  }
+
+  /**
+   * プレイヤーが閲覧中のページの次のページを取得する。閲覧中のページがない場合は1ページ目を取得する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return スコア履歴の1ページ分（メインスレッドで完了する）
+   */
+  public CompletableFuture<ScoreHistoryPage> getNextPage(UUID playerUuid) {
+    HistoryCursor cursor = cursorMap.get(playerUuid);
+    return getPage(playerUuid, cursor == null ? 1 : cursor.currentPageNum + 1);
+  }
+
+  /**
+   * 取得済み・先読み中のページがあればそれを返し、なければ境界を使ってDBから取得する。<br>
+   * 取得に失敗したページは、次回に取得し直せるよう破棄する。<br>
+   * 次のページがあるかどうかを判定できるよう、1ページ分より1件多く取得する。
+   *
+   * @param cursor  プレイヤーの閲覧状況
+   * @param pageNum ページ番号
+   * @return 新しい順のスコアリスト（次のページがある場合は、次のページの先頭の1件を含む）
+   */
+  private CompletableFuture<List<PlayerScore>> loadPage(HistoryCursor cursor, int pageNum) {
+    CompletableFuture<List<PlayerScore>> loaded = cursor.pageMap.get(pageNum);
+    if (loaded != null) {
+      return loaded;
+    }
+
+    if (pageNum > cursor.beforeIdList.size()) {
+      return loadPage(cursor, pageNum - 1).thenCompose(previousList -> {
+        if (previousList.size() <= PAGE_SIZE) {
+          return CompletableFuture.completedFuture(List.of());
+        }
+        recordBoundary(cursor, pageNum, previousList);
+        return loadPage(cursor, pageNum);
+      });
+    }
+
+    int beforeId = cursor.beforeIdList.get(pageNum - 1);
+    CompletableFuture<List<PlayerScore>> future = pageNum == 1
+        ? loadLatestPage()
+        : databaseExecutor.supplyAsync(() ->
+            playerScoreConnector.selectScoreHistoryPage(beforeId, PAGE_SIZE + 1));
+    cursor.pageMap.put(pageNum, future);
+    future.whenComplete((playerScoreList, ex) -> {
+      if (ex != null) {
+        cursor.pageMap.remove(pageNum, future);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * 最新のページを取得する。前回の取得からスコアが登録されていない場合は、DBに接続せずに前回の結果を返す。
+   *
+   * @return 新しい順のスコアリスト（最大で1ページ分より1件多い）
+   */
+  private CompletableFuture<List<PlayerScore>> loadLatestPage() {
+    LatestPage cachedPage = latestPage;
+    long readVersion = scoreListRenderCache.getVersion();
+    if (cachedPage != null && cachedPage.version() == readVersion) {
+      return CompletableFuture.completedFuture(cachedPage.playerScoreList());
+    }
+    return databaseExecutor.supplyAsync(() -> {
+      List<PlayerScore> playerScoreList =
+          playerScoreConnector.selectScoreHistoryPage(FIRST_PAGE_BEFORE_ID, PAGE_SIZE + 1);
+      latestPage = new LatestPage(readVersion, playerScoreList);
+      return playerScoreList;
+    });
+  }
+
+  /**
+   * 前のページに表示する最も古いIDを、指定のページの境界として記録する。記録済みの場合は何もしない。
+   *
+   * @param cursor       プレイヤーの閲覧状況
+   * @param pageNum      境界を記録するページ番号
+   * @param previousList 前のページのスコアリスト
+   */
+  private void recordBoundary(HistoryCursor cursor, int pageNum, List<PlayerScore> previousList) {
+    if (cursor.beforeIdList.size() == pageNum - 1) {
+      cursor.beforeIdList.add(previousList.get(PAGE_SIZE - 1).getId());
+    }
+  }
+
+  /**
+   * プレイヤーの閲覧状況をリセットする。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 新しい閲覧状況
+   */
+  private HistoryCursor resetCursor(UUID playerUuid) {
+    HistoryCursor cursor = new HistoryCursor();
+    cursorMap.put(playerUuid, cursor);
+    return cursor;
+  }
+
+  /**
+   * プレイヤーの閲覧状況を破棄する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   */
+  public void evict(UUID playerUuid) {
+    cursorMap.remove(playerUuid);
+  }
+}
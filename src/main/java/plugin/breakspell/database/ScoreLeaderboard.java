@@ -0,0 +1,108 @@
+package plugin.breakspell.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import lombok.Getter;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * スコアの上位K件を、全体と難易度ごとにメモリ上に保持するクラス（ランキング）。<br>
+ * 起動時にDBから難易度ごとの上位K件を読み込み、以降はスコアの登録（コミット）に合わせて更新する。<br>
+ * 全体の上位K件は必ず難易度ごとの上位K件のいずれかに含まれるため、読み込みは難易度ごとに行えば足りる。<br>
+ * 同点の場合はプレイ日時が古い順（プレイ日時がないものは最後）、さらに登録順に並べる。
+ */
+public class ScoreLeaderboard {
+
+  static final Comparator<PlayerScore> RANKING_ORDER =
+      Comparator.comparingInt(PlayerScore :: getScore).reversed()
+          .thenComparing(
+              PlayerScore :: getRegisteredAt, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparingInt(PlayerScore :: getId);
+
+  @Getter
+  private final int size;
+  private final TreeSet<PlayerScore> rankedScoreSet = new TreeSet<>(RANKING_ORDER);
+  private final Map<GameDifficulty, TreeSet<PlayerScore>> rankedByDifficultyScoreMap =
+      new EnumMap<>(GameDifficulty.class);
+  private volatile boolean loaded = false;
+
+  public ScoreLeaderboard(int size) {
+    this.size = size;
+    for (GameDifficulty gameDifficulty : GameDifficulty.values()) {
+      rankedByDifficultyScoreMap.put(gameDifficulty, new TreeSet<>(RANKING_ORDER));
+    }
+  }
+
+  /**
+   * DBから取得した難易度ごとの上位K件をランキングに登録する。<br>
+   * 読み込み中に登録されたスコアと重複した場合は1件として扱う。
+   *
+   * @param playerScoreList 難易度ごとの上位K件をまとめたスコアリスト
+   */
+  public synchronized void load(List<PlayerScore> playerScoreList) {
+    playerScoreList.forEach(this :: offer);
+    loaded = true;
+  }
+
+  /**
+   * 登録したスコアがランキングに入る場合、ランキングを更新する。
+   *
+   * @param playerScore 登録したスコア情報
+   */
+  public synchronized void offer(PlayerScore playerScore) {
+    GameDifficulty gameDifficulty = GameDifficulty.getGameDifficulty(playerScore.getDifficulty());
+    if (gameDifficulty == null) {
+      return;
+    }
+    addWithinSize(rankedScoreSet, playerScore);
+    addWithinSize(rankedByDifficultyScoreMap.get(gameDifficulty), playerScore);
+  }
+
+  /**
+   * スコアをランキングに追加し、K件を超えた場合は最下位のスコアを取り除く。
+   *
+   * @param rankedSet   ランキング
+   * @param playerScore 追加するスコア情報
+   */
+  private void addWithinSize(TreeSet<PlayerScore> rankedSet, PlayerScore playerScore) {
+    rankedSet.add(playerScore);
+    if (rankedSet.size() > size) {
+      rankedSet.pollLast();
+    }
+  }
+
+  /**
+   * 全体ランキングのスコアリストを取得する。
+   *
+   * @return スコアが高い順のスコアリスト
+   */
+  public synchronized List<PlayerScore> getRankedScoreList() {
+    return new ArrayList<>(rankedScoreSet);
+  }
+
+  /**
+   * 難易度別ランキングのスコアリストを取得する。
+   *
+   * @param gameDifficulty ゲームの難易度
+   * @return 指定の難易度のスコアが高い順のスコアリスト
+   */
+  public synchronized List<PlayerScore> getRankedByDifficultyScoreList(
+      GameDifficulty gameDifficulty) {
+
+    return new ArrayList<>(rankedByDifficultyScoreMap.get(gameDifficulty));
+  }
+
+  /**
+   * DBからランキングを読み込み済みかどうかを判定する。
+   *
+   * @return 読み込み済みかどうか
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
@@ -0,0 +1,93 @@
+package plugin.breakspell.database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * 整形済みのスコアリストを、リストの種類と難易度ごとに保持するクラス。<br>
+ * スコアリストはスコアが登録されるまで変わらないため、登録（コミット）のたびにバージョンを進め、
+ * 古いバージョンで整形したものは使用しない。<br>
+ * 整形済みのスコアリストは改行で連結した1つのメッセージとして保持する。
+ */
+public class ScoreListRenderCache {
+
+  private final Map<RenderKey, RenderedScoreList> renderedMap = new ConcurrentHashMap<>();
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * スコアリストの種類。
+   */
+  public enum ListType {
+    RANKED, RANKED_BY_DIFFICULTY
+  }
+
+  /**
+   * 整形済みのスコアリストを識別するキー。難易度別でないリストの難易度はnullとする。
+   *
+   * @param listType       スコアリストの種類
+   * @param gameDifficulty ゲームの難易度
+   */
+  private record RenderKey(ListType listType, GameDifficulty gameDifficulty) {
+
+  }
+
+  /**
+   * 整形に使用したスコアリストのバージョンと、整形済みのメッセージの組。
+   *
+   * @param version 整形に使用したスコアリストのバージョン
+   * @param message 整形済みのメッセージ（スコアリストが空の場合は空文字）
+   */
+  private record RenderedScoreList(long version, String message) {
+
+  }
+
+  /**
+   * 現在のバージョンで整形済みのメッセージを取得し、ない場合はnullを返す。
+   *
+   * @param listType       スコアリストの種類
+   * @param gameDifficulty ゲームの難易度（難易度別でない場合はnull）
+   * @return 整形済みのメッセージ（スコアリストが空の場合は空文字）
+   */
+  public String get(ListType listType, GameDifficulty gameDifficulty) {
+    RenderedScoreList rendered = renderedMap.get(new RenderKey(listType, gameDifficulty));
+    return rendered != null && rendered.version() == version.get() ? rendered.message() : null;
+  }
+
+  /**
+   * 現在のバージョンを取得する。スコアリストを読み出す前に取得しておき、整形後の登録時に渡す。
+   *
+   * @return 現在のバージョン
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
+  /**
+   * 整形済みのスコアリストを1つのメッセージに連結して登録する。
+   *
+   * @param listType       スコアリストの種類
+   * @param gameDifficulty ゲームの難易度（難易度別でない場合はnull）
+   * @param readVersion    スコアリストを読み出す前に取得したバージョン
+   * @param scoreLines     整形済みのスコアリスト（スコアリストが空の場合は空のリスト）
+   * @return 連結したメッセージ
+   */
+  public String put(
+      ListType listType, GameDifficulty gameDifficulty, long readVersion,
+      List<String> scoreLines) {
+
+    String message = ScoreMessageBuilder.joinLines(scoreLines);
+    renderedMap.put(
+        new RenderKey(listType, gameDifficulty), new RenderedScoreList(readVersion, message));
+    return message;
+  }
+
+  /**
+   * スコアの登録（コミット）に合わせてバージョンを進め、整形済みのスコアリストをすべて無効にする。
+   */
+  public void invalidate() {
+    version.incrementAndGet();
+  }
+}
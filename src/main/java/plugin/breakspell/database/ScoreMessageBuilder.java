@@ -3,13 +3,18 @@ package plugin.breakspell.database;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.bukkit.ChatColor;
+import plugin.breakspell.database.ScoreHistoryPager.ScoreHistoryPage;
+import plugin.breakspell.database.WindowedLeaderboard.RankingWindow;
 import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
 import plugin.breakspell.game.constant.GameDifficulty;
 
 /**
  * DBから取得したスコアリストをメッセージ表示用に整形するクラス。<br>
- * 新着リスト、全体ランキングリスト、難易度別ランキングリストとして整形する。
+ * 新着リスト（1ページ分）、全体ランキングリスト、難易度別ランキングリスト、期間別ランキングリスト、
+ * プレイヤーの成績として整形する。
  */
 public class ScoreMessageBuilder {
 
@@ -18,14 +23,15 @@ public class ScoreMessageBuilder {
   private static final String BORDER_LINE = "-----------------------------------------------------";
   private static final String FOOTER_LINE = "=====================================================";
 
-  public static List<String> buildNewlyScoreList(List<PlayerScore> playerScoreList) {
+  public static List<String> buildScoreHistoryPage(ScoreHistoryPage scoreHistoryPage) {
     List<String> scoreLines = new ArrayList<>();
-    scoreLines.add(
-        ChatColor.GOLD + "================ ◆ スコア履歴 (新着 " + playerScoreList.size() + " 件) ◆ ================");
+    scoreLines.add(ChatColor.GOLD + "============= ◆ スコア履歴 (新着 "
+        + scoreHistoryPage.pageNum() + " ページ目) ◆ =============");
     scoreLines.add(" No |    プレイヤー名    | スコア |  難易度  |        プレイ日時");
     scoreLines.add(BORDER_LINE);
 
-    for (PlayerScore playerScore : playerScoreList) {
+    // チャット欄の下に最新のスコアが来るよう、古い順に並べて表示する
+    for (PlayerScore playerScore : scoreHistoryPage.playerScoreList().reversed()) {
       scoreLines.add(
           String.format(" %2d | %17s | %5d | %7s | %20s ",
               playerScore.getId(),
@@ -36,54 +42,115 @@ public class ScoreMessageBuilder {
                   .format(FORMATTER))
       );
     }
+    if (scoreHistoryPage.hasNextPage()) {
+      scoreLines.add(ChatColor.YELLOW + "次のページ : /score new "
+          + (scoreHistoryPage.pageNum() + 1));
+    }
     scoreLines.add(ChatColor.GOLD + FOOTER_LINE);
     return scoreLines;
   }
 
-  public static List<String> buildRankedScoreList(List<PlayerScore> playerScoreList) {
+  public static List<String> buildRankedScoreList(
+      List<PlayerScore> playerScoreList, int rankingSize) {
+
+    return buildRankingLines(
+        "================= ◆ 全体ランキングTOP" + rankingSize + " ◆ =================",
+        playerScoreList, null);
+  }
+
+  public static List<String> buildRankedByDifficultyScoreList(
+      List<PlayerScore> playerScoreList, GameDifficulty gameDifficulty, int rankingSize) {
+
+    String difficultyLabel = String.format("%4s", gameDifficulty.getLabel());
+    return buildRankingLines(
+        "=========== ◆ 難易度別ランキング (" + difficultyLabel + ") TOP" + rankingSize + " ◆ ===========",
+        playerScoreList, gameDifficulty);
+  }
+
+  public static List<String> buildWindowedScoreList(
+      List<PlayerScore> playerScoreList, RankingWindow rankingWindow,
+      GameDifficulty gameDifficulty, int rankingSize) {
+
+    String title = rankingWindow.getLabel() + "ランキング";
+    if (gameDifficulty != null) {
+      title += " (" + String.format("%4s", gameDifficulty.getLabel()) + ")";
+    }
+    return buildRankingLines(
+        "=============== ◆ " + title + " TOP" + rankingSize + " ◆ ===============",
+        playerScoreList, gameDifficulty);
+  }
+
+  /**
+   * ランキングのスコアリストを整形する。難易度別の場合は難易度の列を省略する。
+   *
+   * @param header          見出し
+   * @param playerScoreList スコアが高い順のスコアリスト
+   * @param gameDifficulty  ゲームの難易度（難易度別でない場合はnull）
+   * @return 整形済みのスコアリスト
+   */
+  private static List<String> buildRankingLines(
+      String header, List<PlayerScore> playerScoreList, GameDifficulty gameDifficulty) {
+
     List<String> scoreLines = new ArrayList<>();
-    scoreLines.add(ChatColor.GOLD + "================= ◆ 全体ランキングTOP5 ◆ =================");
-    scoreLines.add(" 順位 |    プレイヤー名    | スコア |  難易度  |        プレイ日時");
+    scoreLines.add(ChatColor.GOLD + header);
+    scoreLines.add(gameDifficulty == null
+        ? " 順位 |    プレイヤー名    | スコア |  難易度  |        プレイ日時"
+        : " 順位 |    プレイヤー名    | スコア |             プレイ日時");
     scoreLines.add(BORDER_LINE);
     int rank = 1;
     for (PlayerScore playerScore : playerScoreList) {
-      scoreLines.add(
-          String.format(" %2d位 | %17s | %5d | %7s | %20s ",
+      String playedAt = playerScore.getRegisteredAt().format(FORMATTER);
+      scoreLines.add(gameDifficulty == null
+          ? String.format(" %2d位 | %17s | %5d | %7s | %20s ",
               rank,
               playerScore.getPlayerName(),
               playerScore.getScore(),
               playerScore.getDifficulty(),
-              playerScore.getRegisteredAt()
-                  .format(FORMATTER))
-      );
+              playedAt)
+          : String.format(" %2d位 | %17s | %5d | %25s ",
+              rank,
+              playerScore.getPlayerName(),
+              playerScore.getScore(),
+              playedAt));
       rank++;
     }
     scoreLines.add(ChatColor.GOLD + FOOTER_LINE);
     return scoreLines;
   }
 
-  public static List<String> buildRankedByDifficultyScoreList(
-      List<PlayerScore> playerScoreList, GameDifficulty gameDifficulty) {
-
-    String difficultyLabel = String.format("%4s", gameDifficulty.getLabel());
+  public static List<String> buildPlayerStats(
+      String playerName, Map<GameDifficulty, PlayerStats> playerStatsMap) {
 
     List<String> scoreLines = new ArrayList<>();
-    scoreLines.add(ChatColor.GOLD + "=========== ◆ 難易度別ランキング (" + difficultyLabel + ") TOP5 ◆ ===========");
-    scoreLines.add(" 順位 |    プレイヤー名    | スコア |             プレイ日時");
+    scoreLines.add(ChatColor.GOLD + "=========== ◆ " + playerName + " の成績 ◆ ===========");
+    scoreLines.add("  難易度  | ベスト | プレイ | クリア | ペア合計 |    最終プレイ日時");
     scoreLines.add(BORDER_LINE);
-    int rank = 1;
-    for (PlayerScore playerScore : playerScoreList) {
+
+    for (Map.Entry<GameDifficulty, PlayerStats> entry : playerStatsMap.entrySet()) {
+      PlayerStats playerStats = entry.getValue();
       scoreLines.add(
-          String.format(" %2d位 | %17s | %5d | %25s ",
-              rank,
-              playerScore.getPlayerName(),
-              playerScore.getScore(),
-              playerScore.getRegisteredAt()
+          String.format(" %7s | %5d | %5d | %5d | %7d | %20s ",
+              entry.getKey().getInputArg(),
+              playerStats.getBestScore(),
+              playerStats.getPlayedCount(),
+              playerStats.getClearedCount(),
+              playerStats.getTotalPairs(),
+              playerStats.getLastPlayedAt()
                   .format(FORMATTER))
       );
-      rank++;
     }
     scoreLines.add(ChatColor.GOLD + FOOTER_LINE);
     return scoreLines;
   }
+
+  /**
+   * 整形済みのスコアリストを改行で連結し、1つのメッセージにする。<br>
+   * 行ごとの文字色が次の行に引き継がれないよう、2行目以降の先頭で文字色をリセットする。
+   *
+   * @param scoreLines 整形済みのスコアリスト
+   * @return 改行で連結したメッセージ
+   */
+  public static String joinLines(List<String> scoreLines) {
+    return String.join("\n" + ChatColor.RESET, scoreLines);
+  }
 }
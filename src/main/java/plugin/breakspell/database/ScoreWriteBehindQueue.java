@@ -0,0 +1,264 @@
+package plugin.breakspell.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.database.mapper.PlayerScoreMapper;
+import plugin.breakspell.database.mapper.PlayerStatsMapper;
+import plugin.breakspell.database.spool.JournalEntry;
+import plugin.breakspell.database.spool.WriteSpool;
+
+/**
+ * スコア情報をキューに溜めておき、まとめてDBに登録するクラス（ライトビハインド）。<br>
+ * 一定件数が溜まるか一定時間が経過するごとに、ExecutorType.BATCHのセッション1つでまとめて登録する。<br>
+ * プレイヤーの成績（集計値）もスコア情報と同じトランザクションで更新する。<br>
+ * キューが満杯の場合は空きができるまで登録を待たせ（バックプレッシャー）、プラグインの停止時には残りをすべて登録する。<br>
+ * DBに障害が発生している場合は{@link WriteSpool}のジャーナルに退避し、DBの復旧後に再実行する。
+ */
+public class ScoreWriteBehindQueue {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final WriteSpool writeSpool;
+  private final SessionRouter sessionRouter;
+  private final Logger logger;
+  private final BlockingQueue<PendingScore> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final Thread flusherThread;
+  private volatile boolean running = true;
+
+  // キューのサイズ調整用の計測値
+  private final AtomicInteger maxQueueDepth = new AtomicInteger();
+  private final AtomicLong enqueuedCount = new AtomicLong();
+  private final AtomicLong backpressureCount = new AtomicLong();
+  private final AtomicLong flushedCount = new AtomicLong();
+  private final AtomicLong spooledCount = new AtomicLong();
+  private final AtomicLong flushCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong totalFlushNanos = new AtomicLong();
+  private final AtomicLong maxFlushNanos = new AtomicLong();
+
+  private static final int QUEUE_CAPACITY = 256;
+  private static final int BATCH_SIZE = 32;
+  private static final long FLUSH_INTERVAL_MILLIS = 1000;
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+  /**
+   * 登録待ちのスコア情報と成績に加算する1ゲーム分の結果、登録（コミット）の完了を通知するCompletableFutureの組。
+   *
+   * @param playerScore プレイヤーのスコア情報
+   * @param gameResult  成績に加算する1ゲーム分の結果
+   * @param committed   登録の完了
+   */
+  private record PendingScore(
+      PlayerScore playerScore, PlayerStats gameResult, CompletableFuture<Void> committed) {
+
+  }
+
+  public ScoreWriteBehindQueue(
+      SqlSessionFactory sqlSessionFactory, WriteSpool writeSpool, SessionRouter sessionRouter,
+      Logger logger) {
+
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.writeSpool = writeSpool;
+    this.sessionRouter = sessionRouter;
+    this.logger = logger;
+    this.flusherThread = Thread.ofPlatform()
+        .name("BreakSpell-ScoreFlusher")
+        .daemon(true)
+        .unstarted(this :: runFlushLoop);
+    flusherThread.start();
+  }
+
+  /**
+   * スコア情報をキューに追加する。キューが満杯の場合は空きができるまで待つ。<br>
+   * 呼び出し元のスレッドをブロックするため、メインスレッドからは呼び出さない。
+   *
+   * @param playerScore プレイヤーのスコア情報
+   * @param gameResult  成績に加算する1ゲーム分の結果
+   * @return DBへの登録（コミット）の完了
+   */
+  public CompletableFuture<Void> enqueue(PlayerScore playerScore, PlayerStats gameResult) {
+    PendingScore pendingScore =
+        new PendingScore(playerScore, gameResult, new CompletableFuture<>());
+    if (!queue.offer(pendingScore)) {
+      backpressureCount.incrementAndGet();
+      try {
+        queue.put(pendingScore);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        pendingScore.committed().completeExceptionally(ex);
+        return pendingScore.committed();
+      }
+    }
+    enqueuedCount.incrementAndGet();
+    maxQueueDepth.accumulateAndGet(queue.size(), Math :: max);
+    return pendingScore.committed();
+  }
+
+  /**
+   * キューからスコア情報を取り出し、一定件数または一定時間ごとにまとめて登録する。<br>
+   * 停止後はキューが空になるまで待たずに登録を続ける。<br>
+   * 待機中に割り込まれた場合も、キューから取り出したスコア情報は登録してからループを続ける。
+   */
+  private void runFlushLoop() {
+    while (running || !queue.isEmpty()) {
+      List<PendingScore> batch = new ArrayList<>(BATCH_SIZE);
+      try {
+        PendingScore first = queue.poll(FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        batch.add(first);
+        collectBatch(batch);
+      } catch (InterruptedException ex) {
+        // 停止はrunningとpollのタイムアウトで判定するため、割り込みは無視して取り出し済みの分を登録する
+      }
+      if (!batch.isEmpty()) {
+        flush(batch);
+      }
+    }
+  }
+
+  /**
+   * 登録件数が一定件数に達するか、最初の1件を取り出してから一定時間が経過するまでスコア情報を集める。
+   *
+   * @param batch まとめて登録するスコア情報のリスト
+   * @throws InterruptedException 待機中に割り込まれた場合
+   */
+  private void collectBatch(List<PendingScore> batch) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS);
+    while (batch.size() < BATCH_SIZE) {
+      queue.drainTo(batch, BATCH_SIZE - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= BATCH_SIZE || remaining <= 0 || !running) {
+        return;
+      }
+
+      PendingScore next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  /**
+   * スコア情報と成績をExecutorType.BATCHのセッション1つでまとめて登録・更新し、登録の完了を通知する。<br>
+   * DBへの書き込みが遮断中または失敗した場合は、ジャーナルに退避した時点で登録の完了を通知する。
+   *
+   * @param batch まとめて登録するスコア情報のリスト
+   */
+  private void flush(List<PendingScore> batch) {
+    long start = System.nanoTime();
+    try {
+      if (writeSpool.isDatabaseAvailable()) {
+        try {
+          // 書き込み中の取得もプライマリで行うよう、書き込みの前に記録する
+          sessionRouter.markScoreWritten(batch.stream()
+              .map(pendingScore -> UUID.fromString(pendingScore.playerScore().getPlayerUuid()))
+              .toList());
+          insertBatch(batch);
+          writeSpool.recordSuccess();
+          flushedCount.addAndGet(batch.size());
+          batch.forEach(pendingScore -> pendingScore.committed().complete(null));
+          return;
+        } catch (RuntimeException ex) {
+          writeSpool.recordFailure();
+          logger.log(Level.WARNING,
+              "スコア情報をまとめて登録できなかったため、ジャーナルに退避します。（" + batch.size() + "件）", ex);
+        }
+      }
+      spoolBatch(batch);
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      flushCount.incrementAndGet();
+      totalFlushNanos.addAndGet(elapsed);
+      maxFlushNanos.accumulateAndGet(elapsed, Math :: max);
+    }
+  }
+
+  /**
+   * スコア情報と成績をExecutorType.BATCHのセッション1つでまとめて登録・更新する。
+   *
+   * @param batch まとめて登録するスコア情報のリスト
+   */
+  private void insertBatch(List<PendingScore> batch) {
+    try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      PlayerScoreMapper scoreMapper = session.getMapper(PlayerScoreMapper.class);
+      PlayerStatsMapper statsMapper = session.getMapper(PlayerStatsMapper.class);
+      for (PendingScore pendingScore : batch) {
+        scoreMapper.insertNewScore(pendingScore.playerScore());
+        statsMapper.upsertPlayerStats(pendingScore.gameResult());
+      }
+      session.commit();
+    }
+  }
+
+  /**
+   * スコア情報と成績をジャーナルに退避し、登録の完了を通知する。<br>
+   * ジャーナルにも書き込めなかった場合のみ、登録の失敗を通知する。
+   *
+   * @param batch まとめて登録するスコア情報のリスト
+   */
+  private void spoolBatch(List<PendingScore> batch) {
+    try {
+      writeSpool.spool(batch.stream()
+          .map(pendingScore ->
+              JournalEntry.score(pendingScore.playerScore(), pendingScore.gameResult()))
+          .toList());
+      spooledCount.addAndGet(batch.size());
+      batch.forEach(pendingScore -> pendingScore.committed().complete(null));
+    } catch (RuntimeException ex) {
+      failedCount.addAndGet(batch.size());
+      logger.log(Level.SEVERE, "スコア情報をジャーナルに退避できませんでした。（" + batch.size() + "件）", ex);
+      batch.forEach(pendingScore -> pendingScore.committed().completeExceptionally(ex));
+    }
+  }
+
+  /**
+   * キューに残っているスコア情報をすべて登録してから、登録処理を停止する。<br>
+   * 取り出し済みのスコア情報を失わないよう、登録スレッドには割り込まずに停止を待つ
+   * （待機はpollのタイムアウトで抜ける）。
+   */
+  public void shutdown() {
+    running = false;
+    try {
+      flusherThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    if (!queue.isEmpty()) {
+      logger.warning("登録できなかったスコア情報があります。（" + queue.size() + "件）");
+    }
+  }
+
+  /**
+   * キューのサイズ調整用の計測値をメッセージ表示用に整形して取得する。
+   *
+   * @return 計測値のメッセージ
+   */
+  public List<String> getMetricsLines() {
+    long flushes = flushCount.get();
+    double averageFlushMillis = flushes == 0 ? 0 : totalFlushNanos.get() / 1_000_000.0 / flushes;
+    return List.of(
+        String.format("スコア登録キュー : %d / %d 件 (最大 %d 件, 待機発生 %d 回)",
+            queue.size(), QUEUE_CAPACITY, maxQueueDepth.get(), backpressureCount.get()),
+        String.format("スコア登録件数 : 受付 %d 件, 登録 %d 件, 退避 %d 件, 失敗 %d 件",
+            enqueuedCount.get(), flushedCount.get(), spooledCount.get(), failedCount.get()),
+        String.format("一括登録 : %d 回 (平均 %.2f ms, 最大 %.2f ms)",
+            flushes, averageFlushMillis, maxFlushNanos.get() / 1_000_000.0));
+  }
+}
@@ -0,0 +1,174 @@
+package plugin.breakspell.database;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * 取得処理のセッションを、書き込み先（プライマリ）と読み取り専用の接続先（レプリカ）に振り分けるクラス。<br>
+ * レプリカへの反映には遅れがあるため、直近に書き込みがあったデータの取得はプライマリで行い、
+ * 書き込んだ内容をすぐに読み取れるようにする（リードユアライト）。<br>
+ * スコア情報は全プレイヤーで共有するため直近のスコア情報の登録を、進捗状況と成績はプレイヤーごとの直近の書き込みを基準にする。<br>
+ * レプリカに接続できない場合やレプリカを使用しない場合は、プライマリで取得する。
+ * 接続できなかった場合は一定時間レプリカを停止中とみなし、取得のたびに接続の待ち時間がかからないようにする。<br>
+ * レプリカのセッションは2次キャッシュを使用しない専用のセッションファクトリーから開く。
+ * 反映が遅れたレプリカの取得結果がプライマリと共有するキャッシュに残り、書き込み後の取得で返されることはない。
+ */
+public class SessionRouter {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final SqlSessionFactory replicaSessionFactory;
+  private final DataSource replicaDataSource;
+  private final long maxLagMillis;
+  private final long replicaRetryMillis;
+  private final Logger logger;
+
+  private final Map<UUID, Long> playerWrittenAtMap = new ConcurrentHashMap<>();
+  private volatile long scoreWrittenAt;
+  private volatile long replicaDownUntil;
+
+  private final LongAdder primaryReadCount = new LongAdder();
+  private final LongAdder replicaReadCount = new LongAdder();
+  private final LongAdder replicaFailureCount = new LongAdder();
+  private final LongAdder replicaSkipCount = new LongAdder();
+
+  private static final int PRUNE_THRESHOLD = 1024;
+
+  /**
+   * セッションの振り分けを作成する。
+   *
+   * @param sqlSessionFactory     セッションファクトリー（プライマリに接続する）
+   * @param replicaSessionFactory レプリカに接続する、2次キャッシュを使用しないセッションファクトリー
+   *                              （レプリカを使用しない場合はnull）
+   * @param maxLagMillis          書き込み後にプライマリで取得し続ける時間（ミリ秒、レプリカへの反映の遅れの上限）
+   * @param replicaRetryMillis    レプリカに接続できなかった後、プライマリで取得し続ける時間（ミリ秒）
+   * @param logger                ロガー
+   */
+  public SessionRouter(
+      SqlSessionFactory sqlSessionFactory, SqlSessionFactory replicaSessionFactory,
+      long maxLagMillis, long replicaRetryMillis, Logger logger) {
+
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.replicaSessionFactory = replicaSessionFactory;
+    this.replicaDataSource = replicaSessionFactory == null
+        ? null
+        : replicaSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    this.maxLagMillis = maxLagMillis;
+    this.replicaRetryMillis = replicaRetryMillis;
+    this.logger = logger;
+  }
+
+  /**
+   * スコア情報を取得するセッションを開く。直近にスコア情報が登録された場合はプライマリで取得する。
+   *
+   * @return 取得用のセッション
+   */
+  public SqlSession openScoreReadSession() {
+    return isWithinLag(scoreWrittenAt) ? openPrimarySession() : openReplicaSession();
+  }
+
+  /**
+   * プレイヤーの進捗状況・成績を取得するセッションを開く。
+   * 直近にそのプレイヤーの書き込みがあった場合はプライマリで取得する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return 取得用のセッション
+   */
+  public SqlSession openPlayerReadSession(UUID playerUuid) {
+    Long writtenAt = playerWrittenAtMap.get(playerUuid);
+    return writtenAt != null && isWithinLag(writtenAt)
+        ? openPrimarySession()
+        : openReplicaSession();
+  }
+
+  /**
+   * スコア情報（とプレイヤーの成績）の書き込みを記録する。書き込みの前に記録し、書き込み中の取得もプライマリで行う。
+   *
+   * @param playerUuidList 書き込んだプレイヤーのUUIDのリスト
+   */
+  public void markScoreWritten(List<UUID> playerUuidList) {
+    scoreWrittenAt = System.currentTimeMillis();
+    playerUuidList.forEach(this :: markPlayerWritten);
+  }
+
+  /**
+   * プレイヤーの進捗状況・成績の書き込みを記録する。書き込みの前に記録し、書き込み中の取得もプライマリで行う。
+   *
+   * @param playerUuid プレイヤーのUUID
+   */
+  public void markPlayerWritten(UUID playerUuid) {
+    if (replicaDataSource == null) {
+      return;
+    }
+    if (playerWrittenAtMap.size() > PRUNE_THRESHOLD) {
+      playerWrittenAtMap.values().removeIf(writtenAt -> !isWithinLag(writtenAt));
+    }
+    playerWrittenAtMap.put(playerUuid, System.currentTimeMillis());
+  }
+
+  /**
+   * 書き込みからの経過時間が、レプリカへの反映の遅れの上限以内かどうかを判定する。
+   *
+   * @param writtenAt 書き込んだ日時（エポックミリ秒）
+   * @return 反映の遅れの上限以内かどうか
+   */
+  private boolean isWithinLag(long writtenAt) {
+    return System.currentTimeMillis() - writtenAt < maxLagMillis;
+  }
+
+  private SqlSession openPrimarySession() {
+    primaryReadCount.increment();
+    return sqlSessionFactory.openSession();
+  }
+
+  /**
+   * レプリカに接続したセッションを開く。レプリカに接続できない場合はプライマリのセッションを開く。<br>
+   * 接続できなかった場合はレプリカを停止中とし、一定時間はレプリカに接続せずにプライマリのセッションを開く。
+   *
+   * @return 取得用のセッション
+   */
+  private SqlSession openReplicaSession() {
+    if (replicaDataSource == null) {
+      return openPrimarySession();
+    }
+    if (System.currentTimeMillis() < replicaDownUntil) {
+      replicaSkipCount.increment();
+      return openPrimarySession();
+    }
+    try {
+      SqlSession session = replicaSessionFactory.openSession(replicaDataSource.getConnection());
+      replicaReadCount.increment();
+      return session;
+    } catch (SQLException ex) {
+      replicaFailureCount.increment();
+      replicaDownUntil = System.currentTimeMillis() + replicaRetryMillis;
+      logger.log(Level.WARNING, "レプリカに接続できないため、" + replicaRetryMillis
+          + "ミリ秒の間プライマリで取得します。", ex);
+      return openPrimarySession();
+    }
+  }
+
+  /**
+   * 取得処理の振り分けの状況をメッセージ表示用に整形して取得する。
+   *
+   * @return 振り分けの状況のメッセージ
+   */
+  public List<String> getMetricsLines() {
+    if (replicaDataSource == null) {
+      return List.of("読み取りの振り分け : レプリカ未使用");
+    }
+    return List.of(String.format(
+        "読み取りの振り分け : プライマリ %d 回, レプリカ %d 回 (接続失敗 %d 回, 停止中のためプライマリ %d 回)%s",
+        primaryReadCount.sum(), replicaReadCount.sum(), replicaFailureCount.sum(),
+        replicaSkipCount.sum(),
+        System.currentTimeMillis() < replicaDownUntil ? " [レプリカ停止中]" : ""));
+  }
+}
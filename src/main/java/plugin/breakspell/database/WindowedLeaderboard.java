@@ -0,0 +1,184 @@
+package plugin.breakspell.database;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import lombok.Getter;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.game.constant.GameDifficulty;
+
+/**
+ * 直近の一定期間（今日・週間・月間）のスコアの上位K件を、メモリ上に保持するクラス（期間別ランキング）。<br>
+ * 1日ごとの区間（バケット）をリングバッファで持ち、各区間には全体と難易度ごとの上位K件のみを保持する。<br>
+ * 区間は日付が変わって再利用される際に破棄されるため、期間外のスコアは自然に取り除かれる。<br>
+ * 期間別のランキングは、期間内の区間の上位K件を併合して求めるため、DBに接続せずに取得できる。<br>
+ * 起動時はDBから最長の期間分のスコア情報をプレイ日時で絞り込んで読み込み、以降はスコアの登録（コミット）に合わせて更新する。
+ */
+public class WindowedLeaderboard {
+
+  /**
+   * ランキングの期間。当日を含む直近の日数で表す。
+   */
+  @Getter
+  public enum RankingWindow {
+    DAILY("daily", "今日の", 1),
+    WEEKLY("weekly", "週間", 7),
+    MONTHLY("monthly", "月間", 30);
+
+    private final String inputArg;
+    private final String label;
+    private final int days;
+
+    RankingWindow(String inputArg, String label, int days) {
+      this.inputArg = inputArg;
+      this.label = label;
+      this.days = days;
+    }
+
+    /**
+     * 入力された引数に対応するランキングの期間を取得する。
+     *
+     * @param inputArg 入力された引数
+     * @return ランキングの期間（対応するものがない場合はnull）
+     */
+    public static RankingWindow getRankingWindow(String inputArg) {
+      for (RankingWindow rankingWindow : values()) {
+        if (rankingWindow.getInputArg().equals(inputArg)) {
+          return rankingWindow;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * 1日分の区間。全体と難易度ごとの上位K件を保持する。
+   */
+  private static class DayBucket {
+
+    private final LocalDate date;
+    private final TreeSet<PlayerScore> rankedScoreSet =
+        new TreeSet<>(ScoreLeaderboard.RANKING_ORDER);
+    private final Map<GameDifficulty, TreeSet<PlayerScore>> rankedByDifficultyScoreMap =
+        new EnumMap<>(GameDifficulty.class);
+
+    private DayBucket(LocalDate date) {
+      this.date = date;
+      for (GameDifficulty gameDifficulty : GameDifficulty.values()) {
+        rankedByDifficultyScoreMap.put(
+            gameDifficulty, new TreeSet<>(ScoreLeaderboard.RANKING_ORDER));
+      }
+    }
+
+    private TreeSet<PlayerScore> getRankedSet(GameDifficulty gameDifficulty) {
+      return gameDifficulty == null
+          ? rankedScoreSet
+          : rankedByDifficultyScoreMap.get(gameDifficulty);
+    }
+  }
+
+  @Getter
+  private final int size;
+  private final DayBucket[] bucketRing = new DayBucket[RING_SIZE];
+  private volatile boolean loaded = false;
+
+  private static final int RING_SIZE = RankingWindow.MONTHLY.getDays();
+
+  public WindowedLeaderboard(int size) {
+    this.size = size;
+  }
+
+  /**
+   * 最長の期間の初日を取得する。起動時にDBから読み込むスコア情報の範囲に使用する。
+   *
+   * @return 最長の期間の初日
+   */
+  public static LocalDate getOldestDate() {
+    return LocalDate.now().minusDays(RING_SIZE - 1);
+  }
+
+  /**
+   * 登録したスコアがプレイ日の区間の上位K件に入る場合、区間を更新する。<br>
+   * プレイ日の区間が古い日付のものであれば破棄して作り直し、期間外やプレイ日時がないスコアは無視する。
+   *
+   * @param playerScore 登録したスコア情報
+   */
+  public synchronized void offer(PlayerScore playerScore) {
+    GameDifficulty gameDifficulty = GameDifficulty.getGameDifficulty(playerScore.getDifficulty());
+    if (gameDifficulty == null || playerScore.getRegisteredAt() == null) {
+      return;
+    }
+    LocalDate playDate = playerScore.getRegisteredAt().toLocalDate();
+    if (playDate.isBefore(getOldestDate())) {
+      return;
+    }
+
+    int index = Math.floorMod(playDate.toEpochDay(), RING_SIZE);
+    DayBucket bucket = bucketRing[index];
+    if (bucket == null || bucket.date.isBefore(playDate)) {
+      bucket = new DayBucket(playDate);
+      bucketRing[index] = bucket;
+    } else if (bucket.date.isAfter(playDate)) {
+      return;
+    }
+    addWithinSize(bucket.rankedScoreSet, playerScore);
+    addWithinSize(bucket.rankedByDifficultyScoreMap.get(gameDifficulty), playerScore);
+  }
+
+  /**
+   * スコアを区間の上位K件に追加し、K件を超えた場合は最下位のスコアを取り除く。
+   *
+   * @param rankedSet   区間の上位K件
+   * @param playerScore 追加するスコア情報
+   */
+  private void addWithinSize(TreeSet<PlayerScore> rankedSet, PlayerScore playerScore) {
+    rankedSet.add(playerScore);
+    if (rankedSet.size() > size) {
+      rankedSet.pollLast();
+    }
+  }
+
+  /**
+   * 指定の期間のランキングのスコアリストを、期間内の区間の上位K件を併合して取得する。
+   *
+   * @param rankingWindow  ランキングの期間
+   * @param gameDifficulty ゲームの難易度（難易度別でない場合はnull）
+   * @return スコアが高い順のスコアリスト
+   */
+  public synchronized List<PlayerScore> getRankedScoreList(
+      RankingWindow rankingWindow, GameDifficulty gameDifficulty) {
+
+    LocalDate today = LocalDate.now();
+    TreeSet<PlayerScore> mergedSet = new TreeSet<>(ScoreLeaderboard.RANKING_ORDER);
+    for (int daysAgo = 0; daysAgo < rankingWindow.getDays(); daysAgo++) {
+      LocalDate date = today.minusDays(daysAgo);
+      DayBucket bucket = bucketRing[Math.floorMod(date.toEpochDay(), RING_SIZE)];
+      if (bucket != null && bucket.date.equals(date)) {
+        for (PlayerScore playerScore : bucket.getRankedSet(gameDifficulty)) {
+          addWithinSize(mergedSet, playerScore);
+        }
+      }
+    }
+    return new ArrayList<>(mergedSet);
+  }
+
+  /**
+   * DBから最長の期間分のスコア情報を読み込み終えたことを記録する。
+   */
+  public void markLoaded() {
+    loaded = true;
+  }
+
+  /**
+   * DBから最長の期間分のスコア情報を読み込み済みかどうかを判定する。<br>
+   * 読み込みが途中で失敗した場合は読み込み済みとせず、読み込み直す。同じスコア情報は区間に重複して登録されない。
+   *
+   * @return 読み込み済みかどうか
+   */
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
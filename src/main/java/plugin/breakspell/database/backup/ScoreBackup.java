@@ -0,0 +1,466 @@
+package plugin.breakspell.database.backup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import plugin.breakspell.database.AsyncPlayerScoreConnector;
+import plugin.breakspell.database.DatabaseExecutor;
+import plugin.breakspell.database.PlayerProgressCache;
+import plugin.breakspell.database.PlayerStatsCache;
+import plugin.breakspell.database.data.PlayerProgress;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.database.data.ScoreDailyHistogram;
+import plugin.breakspell.database.data.ScoreDailyRollup;
+import plugin.breakspell.database.mapper.BackupMapper;
+import plugin.breakspell.database.mapper.PlayerProgressMapper;
+import plugin.breakspell.database.mapper.PlayerScoreMapper;
+import plugin.breakspell.database.storage.StorageBackend;
+
+/**
+ * スコア情報・進捗状況・成績と、アーカイブしたスコア情報・日別の集計値・スコア分布を、
+ * gzip圧縮したCSVファイルにエクスポート・インポートするクラス。<br>
+ * エクスポートはMyBatisのCursorで1件ずつ読み込んで書き出し、インポートは1行ずつ読み込んで一定件数ごとにまとめて登録する。<br>
+ * エクスポートは保存先が用意した専用の接続で行い、結果をフェッチサイズ分ずつ受け取る。<br>
+ * いずれも全件をメモリ上に保持せず、仮想スレッドで実行するためメインスレッドを止めない。<br>
+ * ファイルはプラグインのデータフォルダ内のbackupフォルダに、実行日時の名前のフォルダごとに作成する。
+ */
+public class ScoreBackup {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final StorageBackend storageBackend;
+  private final DatabaseExecutor databaseExecutor;
+  private final AsyncPlayerScoreConnector playerScoreConnector;
+  private final PlayerProgressCache playerProgressCache;
+  private final PlayerStatsCache playerStatsCache;
+  private final Path backupFolder;
+  private final int importBatchSize;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private static final String SCORE_FILE = "player_score.csv.gz";
+  private static final String PROGRESS_FILE = "player_progress.csv.gz";
+  private static final String STATS_FILE = "player_stats.csv.gz";
+  private static final String ARCHIVE_FILE = "player_score_archive.csv.gz";
+  private static final String ROLLUP_FILE = "player_score_daily_rollup.csv.gz";
+  private static final String HISTOGRAM_FILE = "player_score_daily_histogram.csv.gz";
+  private static final long PROGRESS_INTERVAL_ROWS = 10_000;
+  private static final DateTimeFormatter FOLDER_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private static final List<String> SCORE_HEADER = List.of(
+      "id", "player_uuid", "player_name", "score", "difficulty", "registered_at", "session_id");
+  private static final List<String> PROGRESS_HEADER = List.of(
+      "player_uuid", "difficulty", "played", "cleared", "cleared_at");
+  private static final List<String> STATS_HEADER = List.of(
+      "player_uuid", "difficulty", "best_score", "played_count", "cleared_count", "total_pairs",
+      "last_played_at");
+  private static final List<String> ROLLUP_HEADER = List.of(
+      "play_date", "difficulty", "play_count", "max_score", "total_score");
+  private static final List<String> HISTOGRAM_HEADER = List.of(
+      "play_date", "difficulty", "bucket_floor", "play_count");
+
+  public ScoreBackup(
+      SqlSessionFactory sqlSessionFactory, StorageBackend storageBackend,
+      DatabaseExecutor databaseExecutor, AsyncPlayerScoreConnector playerScoreConnector,
+      PlayerProgressCache playerProgressCache, PlayerStatsCache playerStatsCache, Path dataFolder,
+      int importBatchSize) {
+
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.storageBackend = storageBackend;
+    this.databaseExecutor = databaseExecutor;
+    this.playerScoreConnector = playerScoreConnector;
+    this.playerProgressCache = playerProgressCache;
+    this.playerStatsCache = playerStatsCache;
+    this.backupFolder = dataFolder.resolve("backup");
+    this.importBatchSize = Math.max(1, importBatchSize);
+  }
+
+  /**
+   * すべてのテーブルを、実行日時の名前のフォルダにエクスポートする。
+   *
+   * @param progress 進捗状況のメッセージを受け取る処理（メインスレッドで呼び出す）
+   * @return エクスポートしたフォルダの名前（他のエクスポート・インポートの実行中は失敗する）
+   */
+  public CompletableFuture<String> exportAll(Consumer<String> progress) {
+    String folderName = LocalDateTime.now().format(FOLDER_FORMATTER);
+    return runExclusively(() -> {
+      Path folder = backupFolder.resolve(folderName);
+      createDirectories(folder);
+      exportTable(folder.resolve(SCORE_FILE), SCORE_HEADER, BackupMapper :: selectAllScores,
+          ScoreBackup :: toScoreFields, progress);
+      exportTable(folder.resolve(PROGRESS_FILE), PROGRESS_HEADER,
+          BackupMapper :: selectAllProgress, ScoreBackup :: toProgressFields, progress);
+      exportTable(folder.resolve(STATS_FILE), STATS_HEADER, BackupMapper :: selectAllStats,
+          ScoreBackup :: toStatsFields, progress);
+      exportTable(folder.resolve(ARCHIVE_FILE), SCORE_HEADER,
+          BackupMapper :: selectAllArchivedScores, ScoreBackup :: toScoreFields, progress);
+      exportTable(folder.resolve(ROLLUP_FILE), ROLLUP_HEADER,
+          BackupMapper :: selectAllDailyRollups, ScoreBackup :: toRollupFields, progress);
+      exportTable(folder.resolve(HISTOGRAM_FILE), HISTOGRAM_HEADER,
+          BackupMapper :: selectAllDailyHistograms, ScoreBackup :: toHistogramFields, progress);
+      return folderName;
+    });
+  }
+
+  /**
+   * 指定のフォルダからすべてのテーブルをインポートし、メモリ上のランキングとキャッシュを読み込み直す。<br>
+   * 登録済みのスコア情報（アーカイブを含め、IDが同じもの）は登録せず、
+   * 進捗状況・成績・日別の集計値・スコア分布はファイルの内容で上書きする。<br>
+   * 一定件数ごとにコミットするため、途中で失敗した場合は同じフォルダを再度インポートすれば続きから反映される。
+   *
+   * @param folderName インポートするフォルダの名前
+   * @param progress   進捗状況のメッセージを受け取る処理（メインスレッドで呼び出す）
+   * @return インポートしたフォルダの名前（他のエクスポート・インポートの実行中は失敗する）
+   */
+  public CompletableFuture<String> importAll(String folderName, Consumer<String> progress) {
+    return runExclusively(() -> {
+      Path folder = backupFolder.resolve(folderName).normalize();
+      if (!folder.startsWith(backupFolder) || !Files.isDirectory(folder)) {
+        throw new IllegalArgumentException("バックアップが見つかりません : " + folderName);
+      }
+      importTable(folder.resolve(SCORE_FILE), SCORE_HEADER, ScoreBackup :: toPlayerScore,
+          BackupMapper :: insertImportedScore, progress);
+      importTable(folder.resolve(PROGRESS_FILE), PROGRESS_HEADER, ScoreBackup :: toPlayerProgress,
+          BackupMapper :: upsertImportedProgress, progress);
+      importTable(folder.resolve(STATS_FILE), STATS_HEADER, ScoreBackup :: toPlayerStats,
+          BackupMapper :: upsertImportedStats, progress);
+      importTable(folder.resolve(ARCHIVE_FILE), SCORE_HEADER, ScoreBackup :: toPlayerScore,
+          BackupMapper :: insertImportedArchivedScore, progress);
+      importTable(folder.resolve(ROLLUP_FILE), ROLLUP_HEADER, ScoreBackup :: toRollup,
+          BackupMapper :: upsertImportedDailyRollup, progress);
+      importTable(folder.resolve(HISTOGRAM_FILE), HISTOGRAM_HEADER, ScoreBackup :: toHistogram,
+          BackupMapper :: upsertImportedDailyHistogram, progress);
+      clearMapperCaches();
+      return folderName;
+    }).thenApply(name -> {
+      playerProgressCache.clear();
+      playerStatsCache.clear();
+      playerScoreConnector.reloadScores();
+      return name;
+    });
+  }
+
+  /**
+   * エクスポート・インポートを1つずつ仮想スレッドで実行する。
+   *
+   * @param task エクスポート・インポートの処理
+   * @return メインスレッドで完了する処理の結果
+   */
+  private CompletableFuture<String> runExclusively(Supplier<String> task) {
+    if (!running.compareAndSet(false, true)) {
+      return CompletableFuture.failedFuture(
+          new IllegalStateException("エクスポートまたはインポートを実行中です。"));
+    }
+    return databaseExecutor.supplyAsync(() -> {
+      try {
+        return task.get();
+      } finally {
+        running.set(false);
+      }
+    });
+  }
+
+  /**
+   * テーブルの全行をCursorで1件ずつ読み込み、gzip圧縮したCSVファイルに書き出す。<br>
+   * 結果をフェッチサイズ分ずつ受け取れるよう、保存先が用意したエクスポート用の接続でセッションを開く。
+   *
+   * @param file     書き出すファイル
+   * @param header   CSVの見出し行
+   * @param query    全行を読み込むCursorを取得する処理
+   * @param toFields 1行分をCSVの項目に変換する処理
+   * @param progress 進捗状況のメッセージを受け取る処理
+   * @param <T>      1行分のオブジェクトの型
+   */
+  private <T> void exportTable(
+      Path file, List<String> header, Function<BackupMapper, Cursor<T>> query,
+      Function<T, List<String>> toFields, Consumer<String> progress) {
+
+    long rows = 0;
+    try (Connection connection = storageBackend.openExportConnection();
+        SqlSession session = sqlSessionFactory.openSession(connection);
+        Cursor<T> cursor = query.apply(session.getMapper(BackupMapper.class));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+
+      writeLine(writer, header);
+      for (T row : cursor) {
+        writeLine(writer, toFields.apply(row));
+        rows++;
+        if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+          report(progress, file, "エクスポート中", rows);
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } catch (SQLException ex) {
+      throw new IllegalStateException("エクスポート用の接続を取得できませんでした。", ex);
+    }
+    report(progress, file, "エクスポート完了", rows);
+  }
+
+  /**
+   * gzip圧縮したCSVファイルを1行ずつ読み込み、一定件数ごとにまとめて登録する。
+   *
+   * @param file       読み込むファイル
+   * @param header     CSVの見出し行
+   * @param fromFields CSVの項目を1行分のオブジェクトに変換する処理
+   * @param insert     1行分を登録する処理
+   * @param progress   進捗状況のメッセージを受け取る処理
+   * @param <T>        1行分のオブジェクトの型
+   */
+  private <T> void importTable(
+      Path file, List<String> header, Function<List<String>, T> fromFields,
+      BiConsumer<BackupMapper, T> insert, Consumer<String> progress) {
+
+    if (!Files.exists(file)) {
+      report(progress, file, "ファイルがないためスキップ", 0);
+      return;
+    }
+
+    long rows = 0;
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+        SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+
+      if (!header.equals(parseLine(reader.readLine()))) {
+        throw new IllegalArgumentException("CSVの見出し行が一致しません : " + file.getFileName());
+      }
+      BackupMapper mapper = session.getMapper(BackupMapper.class);
+      String line;
+      while ((line = reader.readLine()) != null) {
+        insert.accept(mapper, fromFields.apply(parseLine(line)));
+        rows++;
+        if (rows % importBatchSize == 0) {
+          session.commit();
+        }
+        if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+          report(progress, file, "インポート中", rows);
+        }
+      }
+      session.commit();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    report(progress, file, "インポート完了", rows);
+  }
+
+  /**
+   * インポートしたテーブルを参照するマッパーの2次キャッシュを破棄する。
+   */
+  private void clearMapperCaches() {
+    for (Class<?> mapperClass : List.of(PlayerScoreMapper.class, PlayerProgressMapper.class)) {
+      Cache cache = sqlSessionFactory.getConfiguration().getCache(mapperClass.getName());
+      if (cache != null) {
+        cache.clear();
+      }
+    }
+  }
+
+  /**
+   * 進捗状況のメッセージをメインスレッドで受け渡す。
+   *
+   * @param progress 進捗状況のメッセージを受け取る処理
+   * @param file     処理中のファイル
+   * @param state    処理の状況
+   * @param rows     処理した行数
+   */
+  private void report(Consumer<String> progress, Path file, String state, long rows) {
+    String message = String.format("%s : %s (%,d 行)", file.getFileName(), state, rows);
+    databaseExecutor.runOnMainThread(() -> progress.accept(message));
+  }
+
+  private static void createDirectories(Path folder) {
+    try {
+      Files.createDirectories(folder);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * CSVの1行を書き出す。カンマ・ダブルクォート・改行を含む項目はダブルクォートで囲み、nullは空の項目とする。
+   *
+   * @param writer 書き出し先
+   * @param fields CSVの項目
+   * @throws IOException 書き出せなかった場合
+   */
+  private static void writeLine(BufferedWriter writer, List<String> fields) throws IOException {
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      String field = fields.get(i);
+      if (field == null) {
+        continue;
+      }
+      if (field.isEmpty() || field.contains(",") || field.contains("\"")
+          || field.contains("\n") || field.contains("\r")) {
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(field);
+      }
+    }
+    writer.newLine();
+  }
+
+  /**
+   * CSVの1行を項目に分割する。ダブルクォートで囲まれていない空の項目はnullとする。
+   *
+   * @param line CSVの1行
+   * @return CSVの項目
+   */
+  private static List<String> parseLine(String line) {
+    List<String> fields = new ArrayList<>();
+    if (line == null) {
+      return fields;
+    }
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean wasQuoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+        wasQuoted = true;
+      } else if (c == ',') {
+        fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+        field.setLength(0);
+        wasQuoted = false;
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+    return fields;
+  }
+
+  private static List<String> toScoreFields(PlayerScore playerScore) {
+    return Arrays.asList(
+        String.valueOf(playerScore.getId()), playerScore.getPlayerUuid(),
+        playerScore.getPlayerName(), String.valueOf(playerScore.getScore()),
+        playerScore.getDifficulty(), toText(playerScore.getRegisteredAt()),
+        playerScore.getSessionId());
+  }
+
+  private static PlayerScore toPlayerScore(List<String> fields) {
+    PlayerScore playerScore =
+        new PlayerScore(
+            fields.get(1), fields.get(2), Integer.parseInt(fields.get(3)), fields.get(4),
+            toDateTime(fields.get(5)));
+    playerScore.setId(Integer.parseInt(fields.get(0)));
+    playerScore.setSessionId(fields.get(6));
+    return playerScore;
+  }
+
+  private static List<String> toProgressFields(PlayerProgress playerProgress) {
+    return Arrays.asList(
+        playerProgress.getPlayerUuid(), playerProgress.getDifficulty(),
+        String.valueOf(playerProgress.isPlayed()), String.valueOf(playerProgress.isCleared()),
+        toText(playerProgress.getClearedAt()));
+  }
+
+  private static PlayerProgress toPlayerProgress(List<String> fields) {
+    return new PlayerProgress(
+        fields.get(0), fields.get(1), Boolean.parseBoolean(fields.get(2)),
+        Boolean.parseBoolean(fields.get(3)), toDateTime(fields.get(4)));
+  }
+
+  private static List<String> toStatsFields(PlayerStats playerStats) {
+    return Arrays.asList(
+        playerStats.getPlayerUuid(), playerStats.getDifficulty(),
+        String.valueOf(playerStats.getBestScore()), String.valueOf(playerStats.getPlayedCount()),
+        String.valueOf(playerStats.getClearedCount()),
+        String.valueOf(playerStats.getTotalPairs()), toText(playerStats.getLastPlayedAt()));
+  }
+
+  private static PlayerStats toPlayerStats(List<String> fields) {
+    return new PlayerStats(
+        fields.get(0), fields.get(1), Integer.parseInt(fields.get(2)),
+        Integer.parseInt(fields.get(3)), Integer.parseInt(fields.get(4)),
+        Integer.parseInt(fields.get(5)), toDateTime(fields.get(6)));
+  }
+
+  private static List<String> toRollupFields(ScoreDailyRollup scoreDailyRollup) {
+    return Arrays.asList(
+        toText(scoreDailyRollup.getPlayDate()), scoreDailyRollup.getDifficulty(),
+        String.valueOf(scoreDailyRollup.getPlayCount()),
+        String.valueOf(scoreDailyRollup.getMaxScore()),
+        String.valueOf(scoreDailyRollup.getTotalScore()));
+  }
+
+  private static ScoreDailyRollup toRollup(List<String> fields) {
+    ScoreDailyRollup scoreDailyRollup =
+        new ScoreDailyRollup(toDate(fields.get(0)), fields.get(1));
+    scoreDailyRollup.setPlayCount(Integer.parseInt(fields.get(2)));
+    scoreDailyRollup.setMaxScore(Integer.parseInt(fields.get(3)));
+    scoreDailyRollup.setTotalScore(Long.parseLong(fields.get(4)));
+    return scoreDailyRollup;
+  }
+
+  private static List<String> toHistogramFields(ScoreDailyHistogram scoreDailyHistogram) {
+    return Arrays.asList(
+        toText(scoreDailyHistogram.getPlayDate()), scoreDailyHistogram.getDifficulty(),
+        String.valueOf(scoreDailyHistogram.getBucketFloor()),
+        String.valueOf(scoreDailyHistogram.getPlayCount()));
+  }
+
+  private static ScoreDailyHistogram toHistogram(List<String> fields) {
+    return new ScoreDailyHistogram(
+        toDate(fields.get(0)), fields.get(1), Integer.parseInt(fields.get(2)),
+        Integer.parseInt(fields.get(3)));
+  }
+
+  private static String toText(LocalDate date) {
+    return date == null ? null : date.toString();
+  }
+
+  private static LocalDate toDate(String text) {
+    return text == null ? null : LocalDate.parse(text);
+  }
+
+  private static String toText(LocalDateTime dateTime) {
+    return dateTime == null ? null : dateTime.toString();
+  }
+
+  private static LocalDateTime toDateTime(String text) {
+    return text == null ? null : LocalDateTime.parse(text);
+  }
+}
@@ -0,0 +1,96 @@
+package plugin.breakspell.database.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.decorators.LruCache;
+
+/**
+ * マッパーの2次キャッシュに使用する、ヒット数とミス数を数えるLRUキャッシュ。<br>
+ * MyBatisの{@code @CacheNamespace}のevictionに指定すると、件数の上限（size）を超えた場合に
+ * 最も長く参照されていない結果から破棄する。<br>
+ * 登録・更新のSQLを実行したトランザクションがコミットされると、マッパー単位でキャッシュ全体が破棄される。<br>
+ * 計測値はキャッシュのID（マッパーの名前空間）ごとに保持し、管理者向けコマンドで表示する。
+ */
+public class CountingLruCache implements Cache {
+
+  private static final Map<String, CountingLruCache> CACHE_REGISTRY =
+      new ConcurrentSkipListMap<>();
+
+  private final LruCache delegate;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong clearCount = new AtomicLong();
+
+  public CountingLruCache(Cache delegate) {
+    this.delegate = new LruCache(delegate);
+    CACHE_REGISTRY.put(delegate.getId(), this);
+  }
+
+  /**
+   * キャッシュする件数の上限を設定する。{@code @CacheNamespace}のsizeから設定される。
+   *
+   * @param size キャッシュする件数の上限
+   */
+  public void setSize(int size) {
+    delegate.setSize(size);
+  }
+
+  @Override
+  public String getId() {
+    return delegate.getId();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    delegate.putObject(key, value);
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    Object value = delegate.getObject(key);
+    if (value == null) {
+      missCount.incrementAndGet();
+    } else {
+      hitCount.incrementAndGet();
+    }
+    return value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    return delegate.removeObject(key);
+  }
+
+  @Override
+  public void clear() {
+    clearCount.incrementAndGet();
+    delegate.clear();
+  }
+
+  @Override
+  public int getSize() {
+    return delegate.getSize();
+  }
+
+  /**
+   * すべてのマッパーのキャッシュの計測値をメッセージ表示用に整形して取得する。
+   *
+   * @return 計測値のメッセージ
+   */
+  public static List<String> getMetricsLines() {
+    List<String> metricsLines = new ArrayList<>();
+    for (CountingLruCache cache : CACHE_REGISTRY.values()) {
+      long hits = cache.hitCount.get();
+      long lookups = hits + cache.missCount.get();
+      String id = cache.getId();
+      metricsLines.add(String.format("キャッシュ (%s) : %d 件, ヒット %d / %d 回 (%.1f%%), 破棄 %d 回",
+          id.substring(id.lastIndexOf('.') + 1), cache.getSize(), hits, lookups,
+          lookups == 0 ? 0 : hits * 100.0 / lookups, cache.clearCount.get()));
+    }
+    return metricsLines;
+  }
+}
@@ -19,11 +19,16 @@ public class PlayerScore {
   private int score;
   private String difficulty;
   private LocalDateTime registeredAt;
+  private String sessionId;
+
+  public PlayerScore(
+      String playerUuid, String playerName, int score, String difficulty,
+      LocalDateTime registeredAt) {
 
-  public PlayerScore(String playerUuid, String playerName, int score, String difficulty) {
     this.playerUuid = playerUuid;
     this.playerName = playerName;
     this.score = score;
     this.difficulty = difficulty;
+    this.registeredAt = registeredAt;
   }
 }
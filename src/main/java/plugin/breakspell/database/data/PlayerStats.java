@@ -0,0 +1,55 @@
+package plugin.breakspell.database.data;
+
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * プレイヤーの難易度ごとの成績（集計値）を扱うオブジェクト。DBに存在するテーブルと連動する。<br>
+ * 1ゲーム分の結果を表す場合は、集計値に加算する差分として扱う。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlayerStats {
+
+  private String playerUuid;
+  private String difficulty;
+  private int bestScore;
+  private int playedCount;
+  private int clearedCount;
+  private int totalPairs;
+  private LocalDateTime lastPlayedAt;
+
+  public PlayerStats(
+      String playerUuid, String difficulty, int bestScore, int playedCount, int clearedCount,
+      int totalPairs, LocalDateTime lastPlayedAt) {
+
+    this.playerUuid = playerUuid;
+    this.difficulty = difficulty;
+    this.bestScore = bestScore;
+    this.playedCount = playedCount;
+    this.clearedCount = clearedCount;
+    this.totalPairs = totalPairs;
+    this.lastPlayedAt = lastPlayedAt;
+  }
+
+  /**
+   * 集計値に1ゲーム分の結果（差分）を加算した、新しい成績を作成する。
+   *
+   * @param gameResult 1ゲーム分の結果
+   * @return 加算後の成績
+   */
+  public PlayerStats merge(PlayerStats gameResult) {
+    return new PlayerStats(
+        playerUuid, difficulty,
+        Math.max(bestScore, gameResult.bestScore),
+        playedCount + gameResult.playedCount,
+        clearedCount + gameResult.clearedCount,
+        totalPairs + gameResult.totalPairs,
+        lastPlayedAt == null || gameResult.lastPlayedAt.isAfter(lastPlayedAt)
+            ? gameResult.lastPlayedAt
+            : lastPlayedAt);
+  }
+}
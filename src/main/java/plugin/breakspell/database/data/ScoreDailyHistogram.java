@@ -0,0 +1,30 @@
+package plugin.breakspell.database.data;
+
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * アーカイブしたスコア情報の日別・難易度別のスコア分布の1区間を扱うオブジェクト。DBに存在するテーブルと連動する。<br>
+ * エクスポート・インポートで1行ずつ受け渡す際に使用する。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScoreDailyHistogram {
+
+  private LocalDate playDate;
+  private String difficulty;
+  private int bucketFloor;
+  private int playCount;
+
+  public ScoreDailyHistogram(
+      LocalDate playDate, String difficulty, int bucketFloor, int playCount) {
+
+    this.playDate = playDate;
+    this.difficulty = difficulty;
+    this.bucketFloor = bucketFloor;
+    this.playCount = playCount;
+  }
+}
@@ -0,0 +1,52 @@
+package plugin.breakspell.database.data;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * アーカイブしたスコア情報の日別・難易度別の集計値を扱うオブジェクト。DBに存在するテーブルと連動する。<br>
+ * 平均スコアは合計スコアとプレイ回数から求める。スコア分布は区間の下限ごとのプレイ回数として持つ。
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ScoreDailyRollup {
+
+  private LocalDate playDate;
+  private String difficulty;
+  private int playCount;
+  private int maxScore;
+  private long totalScore;
+  private Map<Integer, Integer> histogramMap = new TreeMap<>();
+
+  public ScoreDailyRollup(LocalDate playDate, String difficulty) {
+    this.playDate = playDate;
+    this.difficulty = difficulty;
+  }
+
+  /**
+   * 1ゲーム分のスコアを集計値に加算する。
+   *
+   * @param score       スコア
+   * @param bucketWidth スコア分布の区間の幅
+   */
+  public void add(int score, int bucketWidth) {
+    playCount++;
+    maxScore = playCount == 1 ? score : Math.max(maxScore, score);
+    totalScore += score;
+    histogramMap.merge(Math.floorDiv(score, bucketWidth) * bucketWidth, 1, Integer :: sum);
+  }
+
+  /**
+   * 平均スコアを取得する。
+   *
+   * @return 平均スコア
+   */
+  public double getAverageScore() {
+    return playCount == 0 ? 0 : (double) totalScore / playCount;
+  }
+}
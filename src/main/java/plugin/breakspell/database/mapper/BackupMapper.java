@@ -0,0 +1,127 @@
+package plugin.breakspell.database.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+import plugin.breakspell.database.data.PlayerProgress;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
+import plugin.breakspell.database.data.ScoreDailyHistogram;
+import plugin.breakspell.database.data.ScoreDailyRollup;
+
+public interface BackupMapper {
+
+  // スコア情報を登録順に1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_score
+      ORDER BY id ASC
+      """)
+  Cursor<PlayerScore> selectAllScores();
+
+  // 進捗状況を1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_progress
+      """)
+  Cursor<PlayerProgress> selectAllProgress();
+
+  // 成績を1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_stats
+      """)
+  Cursor<PlayerStats> selectAllStats();
+
+  // アーカイブしたスコア情報をID順に1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_score_archive
+      ORDER BY id ASC
+      """)
+  Cursor<PlayerScore> selectAllArchivedScores();
+
+  // 日別・難易度別の集計値を1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_score_daily_rollup
+      """)
+  Cursor<ScoreDailyRollup> selectAllDailyRollups();
+
+  // 日別・難易度別のスコア分布を1件ずつ取得（エクスポート用、結果はフェッチサイズ分ずつ受け取る）
+  @Options(fetchSize = 1000, useCache = false)
+  @Select("""
+      SELECT * FROM player_score_daily_histogram
+      """)
+  Cursor<ScoreDailyHistogram> selectAllDailyHistograms();
+
+  // エクスポートしたスコア情報をIDを引き継いで登録（同じIDのスコア情報が登録済みの場合は何もしない）
+  @Insert("""
+      INSERT INTO player_score(
+        id, player_uuid, player_name, score, difficulty, registered_at, session_id)
+      VALUES (
+        #{id}, #{playerUuid}, #{playerName}, #{score}, #{difficulty}, #{registeredAt},
+        #{sessionId})
+      ON DUPLICATE KEY UPDATE id=id
+      """)
+  void insertImportedScore(PlayerScore playerScore);
+
+  // エクスポートした進捗状況を登録（登録済みの場合はエクスポートした内容で上書き）
+  @Insert("""
+      INSERT INTO player_progress(player_uuid, difficulty, played, cleared, cleared_at)
+      VALUES (#{playerUuid}, #{difficulty}, #{played}, #{cleared}, #{clearedAt})
+      ON DUPLICATE KEY UPDATE
+        played=#{played}, cleared=#{cleared}, cleared_at=#{clearedAt}
+      """)
+  void upsertImportedProgress(PlayerProgress playerProgress);
+
+  // エクスポートした成績を登録（登録済みの場合はエクスポートした内容で上書き）
+  @Insert("""
+      INSERT INTO player_stats(
+        player_uuid, difficulty, best_score, played_count, cleared_count, total_pairs,
+        last_played_at)
+      VALUES (
+        #{playerUuid}, #{difficulty}, #{bestScore}, #{playedCount}, #{clearedCount},
+        #{totalPairs}, #{lastPlayedAt})
+      ON DUPLICATE KEY UPDATE
+        best_score=#{bestScore},
+        played_count=#{playedCount},
+        cleared_count=#{clearedCount},
+        total_pairs=#{totalPairs},
+        last_played_at=#{lastPlayedAt}
+      """)
+  void upsertImportedStats(PlayerStats playerStats);
+
+  // エクスポートしたアーカイブのスコア情報をIDを引き継いで登録（同じIDのスコア情報が登録済みの場合は何もしない）
+  @Insert("""
+      INSERT INTO player_score_archive(
+        id, player_uuid, player_name, score, difficulty, registered_at, session_id)
+      VALUES (
+        #{id}, #{playerUuid}, #{playerName}, #{score}, #{difficulty}, #{registeredAt},
+        #{sessionId})
+      ON DUPLICATE KEY UPDATE id=id
+      """)
+  void insertImportedArchivedScore(PlayerScore playerScore);
+
+  // エクスポートした日別・難易度別の集計値を登録（登録済みの場合はエクスポートした内容で上書き）
+  @Insert("""
+      INSERT INTO player_score_daily_rollup(
+        play_date, difficulty, play_count, max_score, total_score)
+      VALUES (#{playDate}, #{difficulty}, #{playCount}, #{maxScore}, #{totalScore})
+      ON DUPLICATE KEY UPDATE
+        play_count=#{playCount},
+        max_score=#{maxScore},
+        total_score=#{totalScore}
+      """)
+  void upsertImportedDailyRollup(ScoreDailyRollup scoreDailyRollup);
+
+  // エクスポートした日別・難易度別のスコア分布を登録（登録済みの場合はエクスポートした内容で上書き）
+  @Insert("""
+      INSERT INTO player_score_daily_histogram(play_date, difficulty, bucket_floor, play_count)
+      VALUES (#{playDate}, #{difficulty}, #{bucketFloor}, #{playCount})
+      ON DUPLICATE KEY UPDATE
+        play_count=#{playCount}
+      """)
+  void upsertImportedDailyHistogram(ScoreDailyHistogram scoreDailyHistogram);
+}
@@ -1,61 +1,41 @@
 package plugin.breakspell.database.mapper;
 
+import java.util.List;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
-import org.apache.ibatis.annotations.Update;
+import plugin.breakspell.database.cache.CountingLruCache;
 import plugin.breakspell.database.data.PlayerProgress;
 
+// 取得結果をLRU方式でキャッシュし、進捗状況の登録・更新をコミットした時点でキャッシュ全体を破棄する
+// （取得結果は共有するため、呼び出し側で変更しない）
+@CacheNamespace(eviction = CountingLruCache.class, size = 512, readWrite = false)
 public interface PlayerProgressMapper {
 
-  // いずれかの難易度でゲームをクリアしたことがあるかを確認
+  // プレイヤーの全難易度分の進捗状況をリスト形式で取得
   @Select("""
-      SELECT EXISTS(
-      SELECT 1
+      SELECT *
       FROM player_progress
-      WHERE player_uuid=#{playerUuid} AND cleared=true)
+      WHERE player_uuid=#{playerUuid}
       """)
-  boolean hasClearedAnyDifficulty(@Param("playerUuid") String playerUuid);
+  List<PlayerProgress> selectPlayerProgressList(@Param("playerUuid") String playerUuid);
 
-  // 指定の難易度でゲームをクリアしたことがあるかを確認
-  @Select("""
-      SELECT cleared
-      FROM player_progress
-      WHERE player_uuid=#{playerUuid} AND difficulty=#{difficulty}
-      """)
-  boolean hasCleared(
-      @Param("playerUuid") String playerUuid, @Param("difficulty") String difficulty);
-
-  // いずれかの難易度でゲームをプレイしたことがあるかを確認
-  @Select("""
-      SELECT EXISTS(
-      SELECT 1
-      FROM player_progress
-      WHERE player_uuid=#{playerUuid} AND played=true)
-      """)
-  boolean hasPlayedAnyDifficulty(@Param("playerUuid") String playerUuid);
-
-  // 指定の難易度でゲームをプレイしたことがあるかを確認
-  @Select("""
-      SELECT played
-      FROM player_progress
-      WHERE player_uuid=#{playerUuid} AND difficulty=#{difficulty}
+  // 指定の難易度をプレイ済みとして登録（登録済みの場合はプレイ済みに更新）
+  @Insert("""
+      INSERT INTO player_progress(player_uuid, difficulty, played, cleared, cleared_at)
+      VALUES (#{playerUuid}, #{difficulty}, true, false, NULL)
+      ON DUPLICATE KEY UPDATE played=true
       """)
-  Boolean hasPlayed(
+  void upsertPlayed(
       @Param("playerUuid") String playerUuid, @Param("difficulty") String difficulty);
 
-  // ゲームの進捗状況を登録
+  // 指定の難易度をクリア済みとして登録（登録済みの場合はクリア済みに更新し、初回クリア日時は上書きしない）
   @Insert("""
       INSERT INTO player_progress(player_uuid, difficulty, played, cleared, cleared_at)
-      VALUES (#{playerUuid}, #{difficulty}, #{played}, #{cleared}, #{clearedAt})
-      """)
-  void insertPlayerProgress(PlayerProgress playerProgress);
-
-  // ゲームのクリア状況を更新
-  @Update("""
-      UPDATE player_progress SET cleared=true, cleared_at=now()
-      WHERE player_uuid=#{playerUuid} AND difficulty=#{difficulty}
+      VALUES (#{playerUuid}, #{difficulty}, true, true, now())
+      ON DUPLICATE KEY UPDATE played=true, cleared=true, cleared_at=COALESCE(cleared_at, now())
       """)
-  void updatePlayerProgress(
+  void upsertCleared(
       @Param("playerUuid") String playerUuid, @Param("difficulty") String difficulty);
-}
\ No newline at end of file
+}
@@ -1,49 +1,97 @@
 package plugin.breakspell.database.mapper;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import plugin.breakspell.database.cache.CountingLruCache;
 import plugin.breakspell.database.data.PlayerScore;
 
+// 取得結果をLRU方式でキャッシュし、スコア情報の登録・削除をコミットした時点でキャッシュ全体を破棄する
+// （取得結果は共有するため、呼び出し側で変更しない）
+@CacheNamespace(eviction = CountingLruCache.class, size = 256, readWrite = false)
 public interface PlayerScoreMapper {
 
-  // スコア情報を新しい順に5件選択し、古い順に並び替えてリスト形式で取得
+  // 指定のIDより古いスコア情報を新しい順に指定件数リスト形式で取得（キーセット方式のページ取得）
   @Select("""
-      SELECT * FROM(
-       SELECT * FROM player_score
-       ORDER BY id DESC
-       LIMIT 5
-      )AS latest_scores
-      ORDER BY id ASC
+      SELECT * FROM player_score
+      WHERE id < #{beforeId}
+      ORDER BY id DESC
+      LIMIT #{limit}
       """)
-  List<PlayerScore> selectNewlyScoreList();
+  List<PlayerScore> selectScoreHistoryPage(
+      @Param("beforeId") int beforeId, @Param("limit") int limit);
 
-  // スコア情報をスコアが高い順に5件リスト形式で取得
+  // スコア情報をスコアが高い順（同点の場合はプレイ日時が古い順）に指定件数リスト形式で取得
   @Select("""
       SELECT * FROM player_score
-      ORDER BY score DESC
-      LIMIT 5
+      ORDER BY score DESC, registered_at ASC, id ASC
+      LIMIT #{limit}
       """)
-  List<PlayerScore> selectRankedScoreList();
+  List<PlayerScore> selectRankedScoreList(@Param("limit") int limit);
 
-  // 指定の難易度のスコア情報をスコアが高い順に5件リスト形式で取得
+  // 指定の難易度のスコア情報をスコアが高い順（同点の場合はプレイ日時が古い順）に指定件数リスト形式で取得
   @Select("""
       SELECT * FROM player_score
       WHERE difficulty=#{difficulty}
-      ORDER BY score DESC
-      LIMIT 5
+      ORDER BY score DESC, registered_at ASC, id ASC
+      LIMIT #{limit}
+      """)
+  List<PlayerScore> selectRankedByDifficultyScoreList(
+      @Param("difficulty") String difficulty, @Param("limit") int limit);
+
+  // 指定の日時以降に登録されたスコア情報のうち、指定のIDより新しいものを古い順に指定件数リスト形式で取得
+  // （期間別ランキングの読み込み用、キーセット方式のページ取得）
+  @Options(useCache = false)
+  @Select("""
+      SELECT * FROM player_score
+      WHERE registered_at >= #{since} AND id > #{afterId}
+      ORDER BY id ASC
+      LIMIT #{limit}
       """)
-  List<PlayerScore> selectRankedByDifficultyScoreList(@Param("difficulty") String difficulty);
+  List<PlayerScore> selectScorePageSince(
+      @Param("since") LocalDateTime since, @Param("afterId") int afterId,
+      @Param("limit") int limit);
 
-  // 指定の難易度のハイスコアを取得
-  @Select("SELECT MAX(score) FROM player_score WHERE difficulty=#{difficulty}")
-  Integer selectHighScore(@Param("difficulty") String difficulty);
+  // 難易度ごとのハイスコアをリスト形式で取得
+  @Select("""
+      SELECT difficulty, MAX(score) AS score FROM player_score
+      GROUP BY difficulty
+      """)
+  List<PlayerScore> selectHighScoreList();
+
+  // 指定のセッションIDのうち、スコア情報が登録済みのものをリスト形式で取得（ジャーナルの再実行時の重複確認）
+  @Options(useCache = false)
+  @Select("""
+      <script>
+      SELECT session_id FROM player_score
+      WHERE session_id IN
+      <foreach item="sessionId" collection="sessionIdList" open="(" separator="," close=")">
+        #{sessionId}
+      </foreach>
+      </script>
+      """)
+  List<String> selectCommittedSessionIdList(@Param("sessionIdList") List<String> sessionIdList);
+
+  // 指定のIDのスコア情報のセッションIDを取得（アーカイブ済みのスコア情報も対象、リプレイログの検索用）
+  @Select("""
+      SELECT session_id FROM player_score WHERE id = #{id}
+      UNION ALL
+      SELECT session_id FROM player_score_archive WHERE id = #{id}
+      """)
+  String selectSessionIdById(@Param("id") int id);
 
-  // 新しいスコアを登録
+  // 新しいスコアを登録（まとめて登録するため、プレイ日時はゲーム終了時の日時を使用）
+  // ランキングの並び順に使用するため、採番されたIDをスコア情報に設定する
+  @Options(useGeneratedKeys = true, keyProperty = "id")
   @Insert("""
-      INSERT INTO player_score(player_uuid, player_name, score, difficulty, registered_at)
-      VALUES (#{playerUuid}, #{playerName}, #{score}, #{difficulty}, now())
+      INSERT INTO player_score(
+        player_uuid, player_name, score, difficulty, registered_at, session_id)
+      VALUES (
+        #{playerUuid}, #{playerName}, #{score}, #{difficulty}, #{registeredAt}, #{sessionId})
       """)
   void insertNewScore(PlayerScore playerScore);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package plugin.breakspell.database.mapper;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import plugin.breakspell.database.data.PlayerStats;
+
+public interface PlayerStatsMapper {
+
+  // プレイヤーの全難易度分の成績をリスト形式で取得
+  @Select("""
+      SELECT *
+      FROM player_stats
+      WHERE player_uuid=#{playerUuid}
+      """)
+  List<PlayerStats> selectPlayerStatsList(@Param("playerUuid") String playerUuid);
+
+  // 1ゲーム分の結果を成績に加算（未登録の場合はそのまま登録）
+  @Insert("""
+      INSERT INTO player_stats(
+        player_uuid, difficulty, best_score, played_count, cleared_count, total_pairs,
+        last_played_at)
+      VALUES (
+        #{playerUuid}, #{difficulty}, #{bestScore}, #{playedCount}, #{clearedCount},
+        #{totalPairs}, #{lastPlayedAt})
+      ON DUPLICATE KEY UPDATE
+        best_score=GREATEST(best_score, #{bestScore}),
+        played_count=played_count + #{playedCount},
+        cleared_count=cleared_count + #{clearedCount},
+        total_pairs=total_pairs + #{totalPairs},
+        last_played_at=GREATEST(last_played_at, #{lastPlayedAt})
+      """)
+  void upsertPlayerStats(PlayerStats gameResult);
+}
@@ -0,0 +1,40 @@
+package plugin.breakspell.database.mapper;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+public interface SchemaVersionMapper {
+
+  // 適用済みのマイグレーションを記録するテーブルを作成（存在しない場合のみ）
+  @Update("""
+      CREATE TABLE IF NOT EXISTS schema_version(
+        version INT,
+        description VARCHAR(100),
+        applied_at DATETIME,
+        PRIMARY KEY (version))
+      """)
+  void createSchemaVersionTable();
+
+  // 適用済みのバージョンを古い順にリスト形式で取得
+  @Select("SELECT version FROM schema_version ORDER BY version ASC")
+  List<Integer> selectAppliedVersionList();
+
+  // 適用したバージョンを登録
+  @Insert("""
+      INSERT INTO schema_version(version, description, applied_at)
+      VALUES (#{version}, #{description}, now())
+      """)
+  void insertAppliedVersion(
+      @Param("version") int version, @Param("description") String description);
+
+  // マイグレーション用のロックを取得（MySQLのみ、取得できた場合は1）
+  @Select("SELECT GET_LOCK(#{name}, #{timeoutSeconds})")
+  Integer acquireLock(@Param("name") String name, @Param("timeoutSeconds") int timeoutSeconds);
+
+  // マイグレーション用のロックを解放（MySQLのみ）
+  @Select("SELECT RELEASE_LOCK(#{name})")
+  Integer releaseLock(@Param("name") String name);
+}
@@ -0,0 +1,89 @@
+package plugin.breakspell.database.mapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.ibatis.annotations.CacheNamespaceRef;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.ScoreDailyRollup;
+
+// スコア情報のキャッシュを共有し、スコア情報の移動をコミットした時点でキャッシュ全体を破棄する
+@CacheNamespaceRef(PlayerScoreMapper.class)
+public interface ScoreArchiveMapper {
+
+  // 指定の日時より古いスコア情報を古い順に指定件数リスト形式で取得（除外するIDのスコア情報は含まない）
+  @Options(useCache = false)
+  @Select("""
+      <script>
+      SELECT * FROM player_score
+      WHERE registered_at &lt; #{cutoff}
+      <if test="excludedIdList.size() > 0">
+        AND id NOT IN
+        <foreach item="id" collection="excludedIdList" open="(" separator="," close=")">
+          #{id}
+        </foreach>
+      </if>
+      ORDER BY id ASC
+      LIMIT #{limit}
+      </script>
+      """)
+  List<PlayerScore> selectArchivableScoreList(
+      @Param("cutoff") LocalDateTime cutoff,
+      @Param("excludedIdList") List<Integer> excludedIdList,
+      @Param("limit") int limit);
+
+  // 指定のIDのスコア情報をアーカイブテーブルに複製
+  @Insert("""
+      <script>
+      INSERT INTO player_score_archive(
+        id, player_uuid, player_name, score, difficulty, registered_at, session_id)
+      SELECT id, player_uuid, player_name, score, difficulty, registered_at, session_id
+      FROM player_score
+      WHERE id IN
+      <foreach item="id" collection="idList" open="(" separator="," close=")">
+        #{id}
+      </foreach>
+      </script>
+      """)
+  void insertArchivedScores(@Param("idList") List<Integer> idList);
+
+  // 指定のIDのスコア情報を削除
+  @Delete("""
+      <script>
+      DELETE FROM player_score
+      WHERE id IN
+      <foreach item="id" collection="idList" open="(" separator="," close=")">
+        #{id}
+      </foreach>
+      </script>
+      """)
+  void deleteScores(@Param("idList") List<Integer> idList);
+
+  // 日別・難易度別の集計値を加算（未登録の場合はそのまま登録）
+  @Insert("""
+      INSERT INTO player_score_daily_rollup(
+        play_date, difficulty, play_count, max_score, total_score)
+      VALUES (#{playDate}, #{difficulty}, #{playCount}, #{maxScore}, #{totalScore})
+      ON DUPLICATE KEY UPDATE
+        play_count=play_count + #{playCount},
+        max_score=GREATEST(max_score, #{maxScore}),
+        total_score=total_score + #{totalScore}
+      """)
+  void upsertDailyRollup(ScoreDailyRollup scoreDailyRollup);
+
+  // 日別・難易度別のスコア分布の区間にプレイ回数を加算（未登録の場合はそのまま登録）
+  @Insert("""
+      INSERT INTO player_score_daily_histogram(play_date, difficulty, bucket_floor, play_count)
+      VALUES (#{playDate}, #{difficulty}, #{bucketFloor}, #{playCount})
+      ON DUPLICATE KEY UPDATE
+        play_count=play_count + #{playCount}
+      """)
+  void upsertDailyHistogram(
+      @Param("playDate") LocalDate playDate, @Param("difficulty") String difficulty,
+      @Param("bucketFloor") int bucketFloor, @Param("playCount") int playCount);
+}
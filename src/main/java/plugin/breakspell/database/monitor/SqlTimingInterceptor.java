@@ -0,0 +1,154 @@
+package plugin.breakspell.database.monitor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.bukkit.Bukkit;
+
+/**
+ * マッパーのメソッドの実行時間を計測するMyBatisのインターセプター。<br>
+ * マップドステートメントごとに実行時間のヒストグラムを記録し、管理者向けコマンドで集計値を表示する。<br>
+ * 実行時間がしきい値を超えた場合は、呼び出し元のクラスとメソッド、メインスレッドで実行されたかどうかをスロークエリとして記録する。<br>
+ * 2次キャッシュにヒットした場合も含めた、呼び出し元から見た実行時間を計測する。<br>
+ * ExecutorType.BATCHのセッションでは、登録・更新は実行の予約までの時間となる。
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "queryCursor",
+        args = {MappedStatement.class, Object.class, RowBounds.class}),
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class})})
+public class SqlTimingInterceptor implements Interceptor {
+
+  private final long slowQueryNanos;
+  private final Logger logger;
+  private final Map<String, StatementStats> statsMap = new ConcurrentHashMap<>();
+  private final Deque<String> slowQueryLog = new ArrayDeque<>();
+
+  private static final int SLOW_QUERY_LOG_SIZE = 20;
+  private static final int SUMMARY_SIZE = 10;
+  private static final String APPLICATION_PACKAGE = "plugin.breakspell.";
+  private static final String MAPPER_PACKAGE = "plugin.breakspell.database.mapper.";
+  private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+  /**
+   * スロークエリとして記録するしきい値を指定してインターセプターを作成する。
+   *
+   * @param slowQueryMillis スロークエリとして記録するしきい値（ミリ秒）
+   * @param logger          ロガー
+   */
+  public SqlTimingInterceptor(long slowQueryMillis, Logger logger) {
+    this.slowQueryNanos = slowQueryMillis * 1_000_000;
+    this.logger = logger;
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      return invocation.proceed();
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+      String statementId = getShortId(mappedStatement.getId());
+      statsMap.computeIfAbsent(statementId, StatementStats :: new).record(elapsed);
+      if (elapsed >= slowQueryNanos) {
+        recordSlowQuery(statementId, elapsed);
+      }
+    }
+  }
+
+  /**
+   * マップドステートメントのIDから、マッパー名とメソッド名のみを取り出す。
+   *
+   * @param statementId マップドステートメントのID
+   * @return マッパー名.メソッド名
+   */
+  private String getShortId(String statementId) {
+    return statementId.startsWith(MAPPER_PACKAGE)
+        ? statementId.substring(MAPPER_PACKAGE.length())
+        : statementId;
+  }
+
+  /**
+   * スロークエリを、呼び出し元のメソッドと実行スレッドとともに記録する。
+   *
+   * @param statementId  マッパー名.メソッド名
+   * @param elapsedNanos 実行時間（ナノ秒）
+   */
+  private void recordSlowQuery(String statementId, long elapsedNanos) {
+    boolean isMainThread = Bukkit.isPrimaryThread();
+    String message = String.format("%s %s %.1f ms (呼び出し元 : %s, %s)",
+        LocalDateTime.now().format(FORMATTER), statementId, elapsedNanos / 1_000_000.0,
+        findCaller(), isMainThread ? "メインスレッド" : Thread.currentThread().getName());
+    logger.warning("スロークエリ : " + message);
+    synchronized (slowQueryLog) {
+      slowQueryLog.addLast(message);
+      if (slowQueryLog.size() > SLOW_QUERY_LOG_SIZE) {
+        slowQueryLog.removeFirst();
+      }
+    }
+  }
+
+  /**
+   * マッパーを呼び出したプラグイン内のクラスとメソッドを、スタックトレースから取得する。
+   *
+   * @return 呼び出し元のクラス名.メソッド名（見つからない場合は不明）
+   */
+  private String findCaller() {
+    return StackWalker.getInstance().walk(frames -> frames
+        .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+        .filter(frame -> !frame.getClassName().startsWith(MAPPER_PACKAGE))
+        .filter(frame -> !frame.getClassName().equals(SqlTimingInterceptor.class.getName()))
+        .findFirst()
+        .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+            + "." + frame.getMethodName())
+        .orElse("不明"));
+  }
+
+  /**
+   * マッパーのメソッドごとの実行時間の集計値と、直近のスロークエリをメッセージ表示用に整形して取得する。<br>
+   * 集計値は実行時間の合計が大きい順に表示する。
+   *
+   * @return 集計値のメッセージ
+   */
+  public List<String> getSummaryLines() {
+    List<String> summaryLines = new ArrayList<>();
+    statsMap.values().stream()
+        .sorted(Comparator.comparingDouble(
+            (StatementStats stats) -> stats.getAverageMillis() * stats.getCount()).reversed())
+        .limit(SUMMARY_SIZE)
+        .forEach(stats -> {
+          summaryLines.add(String.format("%s : %d 回 (平均 %.2f ms, p95 %.0f ms, 最大 %.2f ms)",
+              stats.getStatementId(), stats.getCount(), stats.getAverageMillis(),
+              stats.getPercentileMillis(95), stats.getMaxMillis()));
+          summaryLines.add("  " + stats.getHistogramLabel());
+        });
+    if (summaryLines.isEmpty()) {
+      summaryLines.add("実行されたSQLはありません。");
+    }
+
+    synchronized (slowQueryLog) {
+      summaryLines.add(String.format("スロークエリ (%d ms以上, 直近 %d 件) : %d 件",
+          slowQueryNanos / 1_000_000, SLOW_QUERY_LOG_SIZE, slowQueryLog.size()));
+      summaryLines.addAll(slowQueryLog.reversed());
+    }
+    return summaryLines;
+  }
+}
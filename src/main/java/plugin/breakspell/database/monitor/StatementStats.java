@@ -0,0 +1,111 @@
+package plugin.breakspell.database.monitor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+
+/**
+ * 1つのマップドステートメント（マッパーのメソッド）の実行時間を集計するクラス。<br>
+ * 実行時間は対数的な区間（バケット）ごとの回数としてヒストグラムに記録し、パーセンタイルは区間の上限で近似する。
+ */
+class StatementStats {
+
+  // ヒストグラムの区間の上限（ミリ秒）。最後の区間はこれより長いものすべて
+  private static final long[] BUCKET_UPPER_MILLIS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+  @Getter
+  private final String statementId;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_MILLIS.length + 1);
+
+  StatementStats(String statementId) {
+    this.statementId = statementId;
+  }
+
+  /**
+   * 1回分の実行時間を記録する。
+   *
+   * @param elapsedNanos 実行時間（ナノ秒）
+   */
+  void record(long elapsedNanos) {
+    count.increment();
+    totalNanos.add(elapsedNanos);
+    maxNanos.accumulateAndGet(elapsedNanos, Math :: max);
+    bucketCounts.incrementAndGet(getBucketIndex(elapsedNanos));
+  }
+
+  /**
+   * 実行時間が含まれるヒストグラムの区間を取得する。
+   *
+   * @param elapsedNanos 実行時間（ナノ秒）
+   * @return 区間のインデックス
+   */
+  private int getBucketIndex(long elapsedNanos) {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+      if (elapsedMillis < BUCKET_UPPER_MILLIS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_UPPER_MILLIS.length;
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * 指定のパーセンタイルの実行時間を、ヒストグラムの区間の上限で近似して取得する。
+   *
+   * @param percentile パーセンタイル（0〜100）
+   * @return 実行時間の近似値（ミリ秒、最後の区間に含まれる場合は最大値）
+   */
+  double getPercentileMillis(double percentile) {
+    long total = getCount();
+    long threshold = (long) Math.ceil(total * percentile / 100.0);
+    long cumulative = 0;
+    for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+      cumulative += bucketCounts.get(i);
+      if (cumulative >= threshold && cumulative > 0) {
+        return BUCKET_UPPER_MILLIS[i];
+      }
+    }
+    return getMaxMillis();
+  }
+
+  double getAverageMillis() {
+    long total = getCount();
+    return total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total;
+  }
+
+  double getMaxMillis() {
+    return maxNanos.get() / 1_000_000.0;
+  }
+
+  /**
+   * ヒストグラムを表示用に整形して取得する。回数が0の区間は省略する。
+   *
+   * @return ヒストグラムの文字列
+   */
+  String getHistogramLabel() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i <= BUCKET_UPPER_MILLIS.length; i++) {
+      long bucketCount = bucketCounts.get(i);
+      if (bucketCount == 0) {
+        continue;
+      }
+      if (!builder.isEmpty()) {
+        builder.append(", ");
+      }
+      builder.append(i < BUCKET_UPPER_MILLIS.length
+              ? "<" + BUCKET_UPPER_MILLIS[i]
+              : ">=" + BUCKET_UPPER_MILLIS[BUCKET_UPPER_MILLIS.length - 1])
+          .append("ms:").append(bucketCount);
+    }
+    return builder.toString();
+  }
+}
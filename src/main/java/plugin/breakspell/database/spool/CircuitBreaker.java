@@ -0,0 +1,55 @@
+package plugin.breakspell.database.spool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DBの障害を検知し、DBへの書き込みを一時的に止めるクラス（サーキットブレーカー）。<br>
+ * 書き込みが一定回数続けて失敗すると遮断状態になり、一定時間はDBに接続せずにジャーナルに書き込ませる。<br>
+ * 一定時間が経過すると試行を再開し、成功すれば通常の状態に戻り、失敗すれば再び遮断状態になる。
+ */
+public class CircuitBreaker {
+
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile long openUntilMillis = 0;
+
+  private static final int FAILURE_THRESHOLD = 3;
+  private static final long OPEN_DURATION_MILLIS = 10_000;
+
+  /**
+   * DBへの書き込みを試行してよいかどうかを判定する。
+   *
+   * @return 書き込みを試行してよいかどうか
+   */
+  public boolean allowRequest() {
+    return System.currentTimeMillis() >= openUntilMillis;
+  }
+
+  /**
+   * DBへの書き込みが成功したことを記録し、通常の状態に戻す。
+   */
+  public void recordSuccess() {
+    consecutiveFailures.set(0);
+    openUntilMillis = 0;
+  }
+
+  /**
+   * DBへの書き込みが失敗したことを記録し、続けて失敗した回数が一定回数に達した場合は遮断状態にする。
+   */
+  public void recordFailure() {
+    if (consecutiveFailures.incrementAndGet() >= FAILURE_THRESHOLD) {
+      openUntilMillis = System.currentTimeMillis() + OPEN_DURATION_MILLIS;
+    }
+  }
+
+  /**
+   * 現在の状態を表示用に取得する。
+   *
+   * @return 現在の状態
+   */
+  public String getStateLabel() {
+    if (!allowRequest()) {
+      return "遮断中";
+    }
+    return consecutiveFailures.get() >= FAILURE_THRESHOLD ? "試行中" : "正常";
+  }
+}
@@ -0,0 +1,119 @@
+package plugin.breakspell.database.spool;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import plugin.breakspell.database.data.PlayerScore;
+import plugin.breakspell.database.data.PlayerStats;
+
+/**
+ * ジャーナルに記録する1件分の書き込み。<br>
+ * スコア情報の登録（成績の加算を含む）と、進捗状況のプレイ済み・クリア済みへの更新を扱う。<br>
+ * スコア情報はゲームごとのセッションIDで識別するため、同じ書き込みを繰り返し再実行しても重複しない。
+ *
+ * @param type        書き込みの種類
+ * @param playerScore スコア情報（スコア情報の登録以外はnull）
+ * @param gameResult  成績に加算する1ゲーム分の結果（スコア情報の登録以外はnull）
+ * @param playerUuid  プレイヤーのUUID
+ * @param difficulty  ゲームの難易度
+ */
+public record JournalEntry(
+    Type type, PlayerScore playerScore, PlayerStats gameResult,
+    String playerUuid, String difficulty) {
+
+  /**
+   * 書き込みの種類。
+   */
+  public enum Type {
+    SCORE, PLAYED, CLEARED
+  }
+
+  /**
+   * スコア情報の登録を作成する。
+   *
+   * @param playerScore スコア情報
+   * @param gameResult  成績に加算する1ゲーム分の結果
+   * @return スコア情報の登録
+   */
+  public static JournalEntry score(PlayerScore playerScore, PlayerStats gameResult) {
+    return new JournalEntry(
+        Type.SCORE, playerScore, gameResult,
+        playerScore.getPlayerUuid(), playerScore.getDifficulty());
+  }
+
+  /**
+   * 進捗状況の更新を作成する。
+   *
+   * @param type       書き込みの種類（PLAYEDまたはCLEARED）
+   * @param playerUuid プレイヤーのUUID
+   * @param difficulty ゲームの難易度
+   * @return 進捗状況の更新
+   */
+  public static JournalEntry progress(Type type, String playerUuid, String difficulty) {
+    return new JournalEntry(type, null, null, playerUuid, difficulty);
+  }
+
+  /**
+   * ジャーナルに記録するバイト列に変換する。
+   *
+   * @return バイト列
+   */
+  public byte[] encode() {
+    try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(type.ordinal());
+      out.writeUTF(playerUuid);
+      out.writeUTF(difficulty);
+      if (type == Type.SCORE) {
+        out.writeUTF(playerScore.getSessionId());
+        out.writeUTF(playerScore.getPlayerName());
+        out.writeInt(playerScore.getScore());
+        out.writeUTF(playerScore.getRegisteredAt().toString());
+        out.writeInt(gameResult.getClearedCount());
+        out.writeInt(gameResult.getTotalPairs());
+      }
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * ジャーナルから読み込んだバイト列を変換する。
+   *
+   * @param payload バイト列
+   * @return 1件分の書き込み
+   */
+  public static JournalEntry decode(byte[] payload) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+      Type type = Type.values()[in.readByte()];
+      String playerUuid = in.readUTF();
+      String difficulty = in.readUTF();
+      if (type != Type.SCORE) {
+        return progress(type, playerUuid, difficulty);
+      }
+
+      String sessionId = in.readUTF();
+      String playerName = in.readUTF();
+      int score = in.readInt();
+      LocalDateTime registeredAt = LocalDateTime.parse(in.readUTF());
+      int clearedCount = in.readInt();
+      int totalPairs = in.readInt();
+
+      PlayerScore playerScore =
+          new PlayerScore(playerUuid, playerName, score, difficulty, registeredAt);
+      playerScore.setSessionId(sessionId);
+      PlayerStats gameResult =
+          new PlayerStats(
+              playerUuid, difficulty, score, 1, clearedCount, totalPairs, registeredAt);
+      return score(playerScore, gameResult);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package plugin.breakspell.database.spool;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import lombok.Getter;
+
+/**
+ * ジャーナルの1ファイル分（セグメント）を、メモリマップトファイルとして追記するクラス。<br>
+ * 1件分の書き込みは「長さ・本体・CRC32」の順に記録し、最後の書き込みの直後には長さ0の終端を置く。<br>
+ * 読み込み時は終端またはCRC32が一致しない箇所（書き込み途中での停止）までを有効な書き込みとする。
+ */
+class JournalSegment implements AutoCloseable {
+
+  @Getter
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  @Getter
+  private int entryCount;
+
+  private static final int HEADER_BYTES = Integer.BYTES;
+  private static final int CHECKSUM_BYTES = Integer.BYTES;
+
+  private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  /**
+   * セグメントファイルを開き（存在しない場合は作成し）、有効な書き込みの末尾を追記位置とする。
+   *
+   * @param path        セグメントファイルのパス
+   * @param segmentSize セグメントファイルのサイズ（バイト）
+   * @return セグメント
+   * @throws IOException ファイルを開けなかった場合
+   */
+  static JournalSegment open(Path path, int segmentSize) throws IOException {
+    FileChannel channel = FileChannel.open(
+        path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      int size = (int) Math.max(channel.size(), segmentSize);
+      JournalSegment segment =
+          new JournalSegment(path, channel, channel.map(MapMode.READ_WRITE, 0, size));
+      segment.entryCount = segment.readAll().size();
+      return segment;
+    } catch (IOException ex) {
+      channel.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * 書き込みを追記する。空き容量が足りない場合は追記しない。
+   *
+   * @param payload 1件分の書き込み
+   * @return 追記したかどうか
+   */
+  boolean append(byte[] payload) {
+    int required = HEADER_BYTES + payload.length + CHECKSUM_BYTES + HEADER_BYTES;
+    if (buffer.remaining() < required) {
+      return false;
+    }
+
+    CRC32 crc32 = new CRC32();
+    crc32.update(payload);
+    int start = buffer.position();
+    buffer.position(start + HEADER_BYTES);
+    buffer.put(payload);
+    buffer.putInt((int) crc32.getValue());
+    buffer.putInt(buffer.position(), 0);
+    // 本体とCRC32を書き終えてから長さを書き込み、途中で停止しても不完全な書き込みを読み込まないようにする
+    buffer.putInt(start, payload.length);
+    entryCount++;
+    return true;
+  }
+
+  /**
+   * 追記した内容をディスクに書き出す。
+   */
+  void force() {
+    buffer.force();
+  }
+
+  /**
+   * セグメントの先頭から有効な書き込みをすべて読み込み、その末尾を追記位置とする。
+   *
+   * @return 書き込みのリスト
+   */
+  List<byte[]> readAll() {
+    List<byte[]> payloadList = new ArrayList<>();
+    int position = 0;
+    while (position + HEADER_BYTES <= buffer.limit()) {
+      int length = buffer.getInt(position);
+      int end = position + HEADER_BYTES + length + CHECKSUM_BYTES;
+      if (length <= 0 || end > buffer.limit()) {
+        break;
+      }
+
+      byte[] payload = new byte[length];
+      buffer.get(position + HEADER_BYTES, payload);
+      CRC32 crc32 = new CRC32();
+      crc32.update(payload);
+      if (buffer.getInt(end - CHECKSUM_BYTES) != (int) crc32.getValue()) {
+        break;
+      }
+      payloadList.add(payload);
+      position = end;
+    }
+    buffer.position(position);
+    return payloadList;
+  }
+
+  /**
+   * 書き込みがないかどうかを判定する。
+   *
+   * @return 書き込みがないかどうか
+   */
+  boolean isEmpty() {
+    return entryCount == 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    force();
+    channel.close();
+  }
+
+  /**
+   * セグメントを閉じてファイルを削除する。
+   *
+   * @throws IOException ファイルを削除できなかった場合
+   */
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+}
@@ -0,0 +1,206 @@
+package plugin.breakspell.database.spool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * DBに書き込めなかった書き込みを、プラグインのデータフォルダに追記専用で記録するクラス（ジャーナル）。<br>
+ * 追記は書き込み中のセグメントに行い、満杯になるか再実行を始める際に確定済みのセグメントとして切り離す。<br>
+ * 確定済みのセグメントはDBへの再実行が完了した時点で削除し、プラグインの起動時に残っていたものはすべて再実行の対象とする。<br>
+ * 再実行に繰り返し失敗したセグメントは隔離用のフォルダ（quarantine）に移動し、他のセグメントの再実行を妨げないようにする。
+ */
+public class ScoreJournal {
+
+  private final Path directory;
+  private final List<JournalSegment> sealedSegmentList = new ArrayList<>();
+  private JournalSegment activeSegment;
+  private long nextSequence;
+
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final String QUARANTINE_DIRECTORY = "quarantine";
+  private static final int SEGMENT_SIZE = 1024 * 1024;
+
+  /**
+   * 指定のフォルダにジャーナルを開き、残っているセグメントを再実行の対象として読み込む。
+   *
+   * @param directory セグメントファイルを置くフォルダ
+   */
+  public ScoreJournal(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+      try (Stream<Path> pathStream = Files.list(directory)) {
+        for (Path path : pathStream
+            .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+            .sorted()
+            .toList()) {
+          JournalSegment segment = JournalSegment.open(path, SEGMENT_SIZE);
+          sealedSegmentList.add(segment);
+          nextSequence = Math.max(nextSequence, parseSequence(path) + 1);
+        }
+      }
+      activeSegment = openNextSegment();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * セグメントファイル名から連番を取得する。
+   *
+   * @param path セグメントファイルのパス
+   * @return 連番
+   */
+  private long parseSequence(Path path) {
+    String fileName = path.getFileName().toString();
+    try {
+      return Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException ex) {
+      return -1;
+    }
+  }
+
+  /**
+   * 次の連番のセグメントを作成する。
+   *
+   * @return 書き込み中のセグメント
+   * @throws IOException ファイルを作成できなかった場合
+   */
+  private JournalSegment openNextSegment() throws IOException {
+    Path path = directory.resolve(String.format("%019d%s", nextSequence++, SEGMENT_SUFFIX));
+    return JournalSegment.open(path, SEGMENT_SIZE);
+  }
+
+  /**
+   * 書き込みをまとめて追記し、ディスクに書き出す。書き込み中のセグメントが満杯の場合は次のセグメントに追記する。
+   *
+   * @param entryList 書き込みのリスト
+   */
+  public synchronized void append(List<JournalEntry> entryList) {
+    try {
+      for (JournalEntry entry : entryList) {
+        byte[] payload = entry.encode();
+        if (!activeSegment.append(payload)) {
+          activeSegment.force();
+          sealedSegmentList.add(activeSegment);
+          activeSegment = openNextSegment();
+          if (!activeSegment.append(payload)) {
+            throw new IOException("ジャーナルのセグメントに収まらない書き込みです。");
+          }
+        }
+      }
+      activeSegment.force();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * 書き込み中のセグメントを確定済みとして切り離し、再実行の対象となる確定済みのセグメントをすべて取得する。<br>
+   * 以降の追記は新しいセグメントに行うため、再実行中の追記は次回の再実行の対象となる。
+   *
+   * @return 確定済みのセグメントのリスト
+   */
+  public synchronized List<JournalSegment> sealForReplay() {
+    if (!activeSegment.isEmpty()) {
+      try {
+        activeSegment.force();
+        sealedSegmentList.add(activeSegment);
+        activeSegment = openNextSegment();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+    return List.copyOf(sealedSegmentList);
+  }
+
+  /**
+   * 確定済みのセグメントから書き込みをすべて読み込む。
+   *
+   * @param segment 確定済みのセグメント
+   * @return 書き込みのリスト（追記した順）
+   */
+  public List<JournalEntry> read(JournalSegment segment) {
+    return segment.readAll().stream()
+        .map(JournalEntry :: decode)
+        .toList();
+  }
+
+  /**
+   * 再実行に繰り返し失敗した確定済みのセグメントを再実行の対象から外し、隔離用のフォルダに移動する。<br>
+   * 移動したファイルは自動では再実行しないため、原因を調べてから手動で対処する。
+   *
+   * @param segment 確定済みのセグメント
+   * @return 移動先のパス
+   */
+  public synchronized Path quarantine(JournalSegment segment) {
+    sealedSegmentList.remove(segment);
+    try {
+      segment.close();
+      Path quarantineDirectory = Files.createDirectories(directory.resolve(QUARANTINE_DIRECTORY));
+      return Files.move(
+          segment.getPath(), quarantineDirectory.resolve(segment.getPath().getFileName()));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * 再実行が完了した確定済みのセグメントを削除する。
+   *
+   * @param segmentList 再実行が完了したセグメントのリスト
+   */
+  public synchronized void delete(List<JournalSegment> segmentList) {
+    for (JournalSegment segment : segmentList) {
+      sealedSegmentList.remove(segment);
+      try {
+        segment.delete();
+      } catch (IOException ex) {
+        // 削除できなかったセグメントは次回の起動時に再実行されるが、セッションIDで重複を除くため問題ない
+      }
+    }
+  }
+
+  /**
+   * 再実行されていない書き込みがあるかどうかを判定する。
+   *
+   * @return 再実行されていない書き込みがあるかどうか
+   */
+  public synchronized boolean hasPendingEntries() {
+    return !sealedSegmentList.isEmpty() || !activeSegment.isEmpty();
+  }
+
+  /**
+   * 再実行されていない書き込みの件数を取得する。
+   *
+   * @return 再実行されていない書き込みの件数
+   */
+  public synchronized int getPendingCount() {
+    return activeSegment.getEntryCount()
+        + sealedSegmentList.stream().mapToInt(JournalSegment :: getEntryCount).sum();
+  }
+
+  /**
+   * すべてのセグメントをディスクに書き出して閉じる。削除はせず、次回の起動時に再実行する。
+   */
+  public synchronized void close() {
+    List<JournalSegment> segmentList = new ArrayList<>(sealedSegmentList);
+    segmentList.add(activeSegment);
+    for (JournalSegment segment : segmentList) {
+      try {
+        if (segment.isEmpty() && segment == activeSegment) {
+          segment.delete();
+        } else {
+          segment.close();
+        }
+      } catch (IOException ex) {
+        // 閉じられなかったセグメントも追記のたびに書き出しているため、次回の起動時に読み込める
+      }
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package plugin.breakspell.database.spool;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import plugin.breakspell.database.SessionRouter;
+import plugin.breakspell.database.mapper.PlayerProgressMapper;
+import plugin.breakspell.database.mapper.PlayerScoreMapper;
+import plugin.breakspell.database.mapper.PlayerStatsMapper;
+
+/**
+ * DBに障害が発生している間の書き込みをジャーナルに退避し、DBの復旧後に再実行するクラス（スプール）。<br>
+ * DBへの書き込みの成否をサーキットブレーカーに記録し、遮断中はDBに接続せずにジャーナルに追記する。<br>
+ * 再実行は一定時間ごとに専用のスレッドで、セグメントごとに一定件数ずつ行い、登録済みのセッションIDのスコア情報は再実行しない（冪等）。<br>
+ * 再実行の失敗はサーキットブレーカーに記録せず、繰り返し失敗するセグメントは隔離してライブの書き込みに影響させない。<br>
+ * 進捗状況の更新はアップサートのため、何度再実行しても結果は変わらない。
+ */
+public class WriteSpool {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final SessionRouter sessionRouter;
+  private final ScoreJournal scoreJournal;
+  private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+  private final Logger logger;
+  private final ScheduledExecutorService replayExecutor;
+
+  private final AtomicLong spooledCount = new AtomicLong();
+  private final AtomicLong replayedCount = new AtomicLong();
+  private final AtomicLong duplicatedCount = new AtomicLong();
+  private final AtomicLong replayFailureCount = new AtomicLong();
+  private final AtomicLong quarantinedCount = new AtomicLong();
+  // 再実行スレッドからのみ参照する
+  private final Map<Path, Integer> segmentFailureMap = new HashMap<>();
+
+  private static final String JOURNAL_DIRECTORY = "spool";
+  private static final long REPLAY_INTERVAL_SECONDS = 5;
+  private static final int SESSION_ID_CHUNK_SIZE = 500;
+  private static final int REPLAY_CHUNK_SIZE = 500;
+  private static final int QUARANTINE_THRESHOLD = 3;
+
+  public WriteSpool(
+      SqlSessionFactory sqlSessionFactory, SessionRouter sessionRouter, Path dataFolder,
+      Logger logger) {
+
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.sessionRouter = sessionRouter;
+    this.scoreJournal = new ScoreJournal(dataFolder.resolve(JOURNAL_DIRECTORY));
+    this.logger = logger;
+    this.replayExecutor = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("BreakSpell-SpoolReplayer").daemon(true).factory());
+    replayExecutor.scheduleWithFixedDelay(
+        this :: replay, 0, REPLAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+    int pendingCount = scoreJournal.getPendingCount();
+    if (pendingCount > 0) {
+      logger.info("前回までにDBに登録できなかった書き込みを再実行します。（" + pendingCount + "件）");
+    }
+  }
+
+  /**
+   * DBへの書き込みを試行してよいかどうかを判定する。遮断中の場合はジャーナルに追記する。
+   *
+   * @return 書き込みを試行してよいかどうか
+   */
+  public boolean isDatabaseAvailable() {
+    return circuitBreaker.allowRequest();
+  }
+
+  /**
+   * DBへの書き込みが成功したことを記録する。
+   */
+  public void recordSuccess() {
+    circuitBreaker.recordSuccess();
+  }
+
+  /**
+   * DBへの書き込みが失敗したことを記録する。
+   */
+  public void recordFailure() {
+    circuitBreaker.recordFailure();
+  }
+
+  /**
+   * 書き込みをジャーナルに追記し、DBの復旧後に再実行する。
+   *
+   * @param entryList 書き込みのリスト
+   */
+  public void spool(List<JournalEntry> entryList) {
+    scoreJournal.append(entryList);
+    spooledCount.addAndGet(entryList.size());
+  }
+
+  /**
+   * DBへの書き込みを実行し、遮断中または失敗した場合はジャーナルに追記する。<br>
+   * 呼び出し元のスレッドをブロックするため、メインスレッドからは呼び出さない。
+   *
+   * @param entry 書き込み
+   * @param write DBへの書き込み処理
+   */
+  public void writeOrSpool(JournalEntry entry, Runnable write) {
+    if (isDatabaseAvailable()) {
+      try {
+        write.run();
+        recordSuccess();
+        return;
+      } catch (RuntimeException ex) {
+        recordFailure();
+        logger.log(Level.WARNING, "DBに書き込めなかったため、ジャーナルに退避します。", ex);
+      }
+    }
+    spool(List.of(entry));
+  }
+
+  /**
+   * ジャーナルに退避した書き込みを、確定済みのセグメントごとに古い順にDBに再実行する。<br>
+   * 再実行に失敗した場合はそのサイクルを終え、次のサイクルで同じセグメントから再実行する。
+   * 同じセグメントで一定回数続けて失敗した場合は隔離し、残りのセグメントを再実行できるようにする。<br>
+   * 再実行の失敗はライブの書き込みのサーキットブレーカーには記録しない。
+   */
+  private void replay() {
+    if (!scoreJournal.hasPendingEntries() || !isDatabaseAvailable()) {
+      return;
+    }
+
+    List<JournalSegment> segmentList;
+    try {
+      segmentList = scoreJournal.sealForReplay();
+    } catch (RuntimeException ex) {
+      logger.log(Level.WARNING, "ジャーナルのセグメントを確定できませんでした。", ex);
+      return;
+    }
+
+    for (JournalSegment segment : segmentList) {
+      try {
+        replaySegment(segment);
+        segmentFailureMap.remove(segment.getPath());
+        scoreJournal.delete(List.of(segment));
+      } catch (RuntimeException ex) {
+        replayFailureCount.incrementAndGet();
+        handleReplayFailure(segment, ex);
+        return;
+      }
+    }
+  }
+
+  /**
+   * 確定済みのセグメントの書き込みを、一定件数ごとにトランザクションを分けてDBに再実行する。<br>
+   * 登録済みのセッションIDのスコア情報は、成績の加算も含めて再実行しない。
+   * 途中で失敗しても、コミット済みの分は次回の再実行で重複として除外される（冪等）。
+   *
+   * @param segment 確定済みのセグメント
+   */
+  private void replaySegment(JournalSegment segment) {
+    List<JournalEntry> entryList = scoreJournal.read(segment);
+    for (int from = 0; from < entryList.size(); from += REPLAY_CHUNK_SIZE) {
+      replayChunk(entryList.subList(from, Math.min(from + REPLAY_CHUNK_SIZE, entryList.size())));
+    }
+    if (!entryList.isEmpty()) {
+      logger.info("ジャーナルに退避した書き込みをDBに再実行しました。（" + entryList.size() + "件）");
+    }
+  }
+
+  /**
+   * 書き込みを1つのトランザクションでまとめてDBに再実行する。
+   *
+   * @param entryList 書き込みのリスト
+   */
+  private void replayChunk(List<JournalEntry> entryList) {
+    // 書き込み中の取得もプライマリで行うよう、書き込みの前に記録する
+    sessionRouter.markScoreWritten(entryList.stream()
+        .map(entry -> UUID.fromString(entry.playerUuid()))
+        .distinct()
+        .toList());
+
+    int duplicated = 0;
+    try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      PlayerScoreMapper scoreMapper = session.getMapper(PlayerScoreMapper.class);
+      PlayerStatsMapper statsMapper = session.getMapper(PlayerStatsMapper.class);
+      PlayerProgressMapper progressMapper = session.getMapper(PlayerProgressMapper.class);
+
+      Set<String> committedSessionIdSet = selectCommittedSessionIdSet(scoreMapper, entryList);
+      for (JournalEntry entry : entryList) {
+        switch (entry.type()) {
+          case SCORE -> {
+            if (!committedSessionIdSet.add(entry.playerScore().getSessionId())) {
+              duplicated++;
+              continue;
+            }
+            scoreMapper.insertNewScore(entry.playerScore());
+            statsMapper.upsertPlayerStats(entry.gameResult());
+          }
+          case PLAYED -> progressMapper.upsertPlayed(entry.playerUuid(), entry.difficulty());
+          case CLEARED -> progressMapper.upsertCleared(entry.playerUuid(), entry.difficulty());
+        }
+      }
+      session.commit();
+    }
+
+    replayedCount.addAndGet(entryList.size() - duplicated);
+    duplicatedCount.addAndGet(duplicated);
+  }
+
+  /**
+   * セグメントの再実行の失敗を記録し、一定回数続けて失敗した場合はセグメントを隔離する。
+   *
+   * @param segment 再実行に失敗したセグメント
+   * @param ex      失敗の原因
+   */
+  private void handleReplayFailure(JournalSegment segment, RuntimeException ex) {
+    int failures = segmentFailureMap.merge(segment.getPath(), 1, Integer :: sum);
+    if (failures < QUARANTINE_THRESHOLD) {
+      logger.log(Level.WARNING, "ジャーナルに退避した書き込みを再実行できませんでした。（"
+          + segment.getPath().getFileName() + "、" + failures + "回目）", ex);
+      return;
+    }
+
+    segmentFailureMap.remove(segment.getPath());
+    try {
+      Path quarantinedPath = scoreJournal.quarantine(segment);
+      quarantinedCount.incrementAndGet();
+      logger.log(Level.SEVERE, "再実行に" + failures + "回続けて失敗したため、ジャーナルのセグメントを隔離しました。（"
+          + quarantinedPath + "）", ex);
+    } catch (RuntimeException quarantineEx) {
+      logger.log(Level.SEVERE, "ジャーナルのセグメントを隔離できませんでした。（"
+          + segment.getPath().getFileName() + "）", quarantineEx);
+    }
+  }
+
+  /**
+   * 再実行する書き込みのうち、スコア情報がDBに登録済みのセッションIDを取得する。
+   *
+   * @param scoreMapper スコア情報のマッパー
+   * @param entryList   書き込みのリスト
+   * @return 登録済みのセッションIDのセット
+   */
+  private Set<String> selectCommittedSessionIdSet(
+      PlayerScoreMapper scoreMapper, List<JournalEntry> entryList) {
+
+    List<String> sessionIdList = entryList.stream()
+        .filter(entry -> entry.type() == JournalEntry.Type.SCORE)
+        .map(entry -> entry.playerScore().getSessionId())
+        .toList();
+
+    Set<String> committedSessionIdSet = new HashSet<>();
+    for (int from = 0; from < sessionIdList.size(); from += SESSION_ID_CHUNK_SIZE) {
+      List<String> chunk = new ArrayList<>(sessionIdList.subList(
+          from, Math.min(from + SESSION_ID_CHUNK_SIZE, sessionIdList.size())));
+      committedSessionIdSet.addAll(scoreMapper.selectCommittedSessionIdList(chunk));
+    }
+    return committedSessionIdSet;
+  }
+
+  /**
+   * 再実行を停止し、ジャーナルを閉じる。再実行されていない書き込みは次回の起動時に再実行する。
+   */
+  public void shutdown() {
+    replayExecutor.shutdownNow();
+    try {
+      replayExecutor.awaitTermination(REPLAY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    int pendingCount = scoreJournal.getPendingCount();
+    if (pendingCount > 0) {
+      logger.warning("DBに登録できなかった書き込みをジャーナルに保存しました。次回の起動時に再実行します。（"
+          + pendingCount + "件）");
+    }
+    scoreJournal.close();
+  }
+
+  /**
+   * スプールの状態をメッセージ表示用に整形して取得する。
+   *
+   * @return スプールの状態のメッセージ
+   */
+  public List<String> getMetricsLines() {
+    return List.of(
+        String.format("DB書き込み : %s (ジャーナル未再実行 %d 件)",
+            circuitBreaker.getStateLabel(), scoreJournal.getPendingCount()),
+        String.format("ジャーナル : 退避 %d 件, 再実行 %d 件, 重複除外 %d 件, 再実行失敗 %d 回, 隔離 %d セグメント",
+            spooledCount.get(), replayedCount.get(), duplicatedCount.get(),
+            replayFailureCount.get(), quarantinedCount.get()));
+  }
+}
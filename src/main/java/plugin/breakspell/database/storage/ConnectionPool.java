@@ -0,0 +1,167 @@
+package plugin.breakspell.database.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * 保存先への接続を使い回すコネクションプール（HikariCP）を扱うクラス。<br>
+ * プールのサイズやタイムアウトは設定ファイルのstorage.poolセクションで調整する。<br>
+ * ピーク時の同時接続数に合わせてサイズを決められるよう、使用中・待機中の接続数と接続の取得時間を計測する。
+ */
+public class ConnectionPool implements MetricsTrackerFactory, IMetricsTracker {
+
+  private final HikariDataSource dataSource;
+
+  // プールのサイズ調整用の計測値
+  private final AtomicLong acquiredCount = new AtomicLong();
+  private final AtomicLong totalAcquireNanos = new AtomicLong();
+  private final AtomicLong maxAcquireNanos = new AtomicLong();
+  private final AtomicLong timeoutCount = new AtomicLong();
+  private final AtomicLong totalUsageMillis = new AtomicLong();
+  private final AtomicLong maxUsageMillis = new AtomicLong();
+
+  private static final String DEFAULT_POOL_NAME = "BreakSpell-Pool";
+  private static final int DEFAULT_MAXIMUM_POOL_SIZE = 10;
+  private static final int DEFAULT_MINIMUM_IDLE = 2;
+  private static final long DEFAULT_CONNECTION_TIMEOUT_MILLIS = 5_000;
+  private static final long DEFAULT_MAX_LIFETIME_MILLIS = 1_800_000;
+
+  /**
+   * 保存先ごとの接続設定に、設定ファイルのプール設定を加えてコネクションプールを作成する。
+   *
+   * @param hikariConfig 保存先ごとの接続設定
+   * @param poolSection  設定ファイルのstorage.poolセクション
+   */
+  public ConnectionPool(HikariConfig hikariConfig, ConfigurationSection poolSection) {
+    this(hikariConfig, poolSection, DEFAULT_POOL_NAME);
+  }
+
+  /**
+   * 保存先ごとの接続設定に、設定ファイルのプール設定を加えて、指定の名前のコネクションプールを作成する。
+   *
+   * @param hikariConfig 保存先ごとの接続設定
+   * @param poolSection  設定ファイルのstorage.poolセクション
+   * @param poolName     コネクションプールの名前
+   */
+  public ConnectionPool(
+      HikariConfig hikariConfig, ConfigurationSection poolSection, String poolName) {
+
+    this(hikariConfig, poolSection, poolName,
+        getLong(poolSection, "connection-timeout-millis", DEFAULT_CONNECTION_TIMEOUT_MILLIS));
+  }
+
+  /**
+   * 保存先ごとの接続設定に、設定ファイルのプール設定を加えて、指定の名前と接続の待ち時間のコネクションプールを作成する。<br>
+   * レプリカなど、プール設定とは別に接続の待ち時間を指定する場合に使用する。
+   *
+   * @param hikariConfig            保存先ごとの接続設定
+   * @param poolSection             設定ファイルのstorage.poolセクション
+   * @param poolName                コネクションプールの名前
+   * @param connectionTimeoutMillis 接続を取得できるまで待つ時間（ミリ秒）
+   */
+  public ConnectionPool(
+      HikariConfig hikariConfig, ConfigurationSection poolSection, String poolName,
+      long connectionTimeoutMillis) {
+
+    hikariConfig.setPoolName(poolName);
+    hikariConfig.setMaximumPoolSize(
+        getInt(poolSection, "maximum-pool-size", DEFAULT_MAXIMUM_POOL_SIZE));
+    hikariConfig.setMinimumIdle(getInt(poolSection, "minimum-idle", DEFAULT_MINIMUM_IDLE));
+    hikariConfig.setConnectionTimeout(connectionTimeoutMillis);
+    hikariConfig.setMaxLifetime(
+        getLong(poolSection, "max-lifetime-millis", DEFAULT_MAX_LIFETIME_MILLIS));
+    hikariConfig.setMetricsTrackerFactory(this);
+    // DBに接続できない場合もプラグインを起動できるよう、起動時には接続を確認しない
+    hikariConfig.setInitializationFailTimeout(-1);
+    this.dataSource = new HikariDataSource(hikariConfig);
+  }
+
+  /**
+   * 設定ファイルから整数値を取得する。セクションがない場合は既定値を返す。
+   *
+   * @param section      設定ファイルのセクション
+   * @param path         設定項目のパス
+   * @param defaultValue 既定値
+   * @return 設定値
+   */
+  static int getInt(ConfigurationSection section, String path, int defaultValue) {
+    return section == null ? defaultValue : section.getInt(path, defaultValue);
+  }
+
+  /**
+   * 設定ファイルから整数値（long）を取得する。セクションがない場合は既定値を返す。
+   *
+   * @param section      設定ファイルのセクション
+   * @param path         設定項目のパス
+   * @param defaultValue 既定値
+   * @return 設定値
+   */
+  static long getLong(ConfigurationSection section, String path, long defaultValue) {
+    return section == null ? defaultValue : section.getLong(path, defaultValue);
+  }
+
+  public DataSource getDataSource() {
+    return dataSource;
+  }
+
+  public void close() {
+    dataSource.close();
+  }
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats poolStats) {
+    return this;
+  }
+
+  @Override
+  public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+    acquiredCount.incrementAndGet();
+    totalAcquireNanos.addAndGet(elapsedAcquiredNanos);
+    maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math :: max);
+  }
+
+  @Override
+  public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+    totalUsageMillis.addAndGet(elapsedBorrowedMillis);
+    maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math :: max);
+  }
+
+  @Override
+  public void recordConnectionTimeout() {
+    timeoutCount.incrementAndGet();
+  }
+
+  /**
+   * プールのサイズ調整用の計測値をメッセージ表示用に整形して取得する。
+   *
+   * @return 計測値のメッセージ
+   */
+  public List<String> getMetricsLines() {
+    HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+    long acquired = acquiredCount.get();
+    double averageAcquireMillis =
+        acquired == 0 ? 0 : totalAcquireNanos.get() / 1_000_000.0 / acquired;
+    double averageUsageMillis = acquired == 0 ? 0 : (double) totalUsageMillis.get() / acquired;
+
+    String poolLine = pool == null
+        ? "コネクションプール : 未接続"
+        : String.format("コネクションプール : 使用中 %d, 待機中 %d, 接続待ち %d (最大 %d)",
+            pool.getActiveConnections(), pool.getIdleConnections(),
+            pool.getThreadsAwaitingConnection(), dataSource.getMaximumPoolSize());
+    return List.of(
+        poolLine,
+        String.format("接続の取得 : %d 回 (平均 %.2f ms, 最大 %.2f ms, タイムアウト %d 回)",
+            acquired, averageAcquireMillis,
+            maxAcquireNanos.get() / 1_000_000.0, timeoutCount.get()),
+        String.format("接続の使用時間 : 平均 %.2f ms, 最大 %d ms",
+            averageUsageMillis, maxUsageMillis.get()));
+  }
+}
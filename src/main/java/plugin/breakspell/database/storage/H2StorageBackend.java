@@ -0,0 +1,62 @@
+package plugin.breakspell.database.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import java.io.File;
+import java.util.List;
+import javax.sql.DataSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * プラグインのデータフォルダ内のファイルに保存する組み込みDB（H2）を保存先とするクラス。<br>
+ * MySQLのサーバーを用意せずに動作し、ネットワークを経由しないため、単一サーバーでの運用や動作確認に向く。<br>
+ * マッパーのSQLをそのまま使用できるよう、MySQL互換モードで接続する。
+ */
+public class H2StorageBackend implements StorageBackend {
+
+  private final ConnectionPool connectionPool;
+
+  private static final String DRIVER = "org.h2.Driver";
+  private static final String DEFAULT_FILE_NAME = "break_spell";
+  private static final String URL_OPTIONS =
+      ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+  private static final int DEFAULT_STATEMENT_CACHE_SIZE = 250;
+
+  public H2StorageBackend(
+      ConfigurationSection h2Section, ConfigurationSection poolSection, File dataFolder) {
+
+    String fileName =
+        h2Section == null ? DEFAULT_FILE_NAME : h2Section.getString("file", DEFAULT_FILE_NAME);
+    String path = new File(dataFolder, fileName).getAbsolutePath();
+    int statementCacheSize = ConnectionPool.getInt(
+        poolSection, "prepared-statement-cache-size", DEFAULT_STATEMENT_CACHE_SIZE);
+
+    HikariConfig hikariConfig = new HikariConfig();
+    hikariConfig.setDriverClassName(DRIVER);
+    hikariConfig.setJdbcUrl(
+        "jdbc:h2:file:" + path + URL_OPTIONS + ";QUERY_CACHE_SIZE=" + statementCacheSize);
+    hikariConfig.setUsername("sa");
+    hikariConfig.setPassword("");
+
+    this.connectionPool = new ConnectionPool(hikariConfig, poolSection);
+  }
+
+  @Override
+  public String getName() {
+    return "h2";
+  }
+
+  @Override
+  public DataSource getDataSource() {
+    return connectionPool.getDataSource();
+  }
+
+  @Override
+  public List<String> getMetricsLines() {
+    return connectionPool.getMetricsLines();
+  }
+
+  @Override
+  public void close() {
+    connectionPool.close();
+  }
+}
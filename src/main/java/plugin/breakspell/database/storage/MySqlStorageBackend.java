@@ -0,0 +1,128 @@
+package plugin.breakspell.database.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import javax.sql.DataSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * MySQLを保存先とするクラス。接続先は設定ファイルのstorage.mysqlセクションで指定する。<br>
+ * 同じSQLを繰り返し実行するため、ドライバーのプリペアドステートメントのキャッシュを有効にする。<br>
+ * storage.mysql.replicaセクションを有効にした場合は、読み取り専用の接続先（レプリカ）のコネクションプールも作成する。<br>
+ * エクスポートでは、サーバー側のカーソルで結果を少しずつ受け取る設定をした専用の接続を、プールを経由せずに使用する。
+ */
+public class MySqlStorageBackend implements StorageBackend {
+
+  private final ConnectionPool connectionPool;
+  private final ConnectionPool replicaPool;
+  private final String url;
+  private final Properties exportProperties = new Properties();
+
+  private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+  private static final int DEFAULT_STATEMENT_CACHE_SIZE = 250;
+  private static final int DEFAULT_STATEMENT_CACHE_SQL_LIMIT = 2048;
+  private static final String REPLICA_POOL_NAME = "BreakSpell-ReplicaPool";
+  private static final long DEFAULT_REPLICA_CONNECTION_TIMEOUT_MILLIS = 1000;
+  private static final long MIN_CONNECTION_TIMEOUT_MILLIS = 250;
+
+  public MySqlStorageBackend(
+      ConfigurationSection mysqlSection, ConfigurationSection poolSection) {
+
+    if (mysqlSection == null) {
+      throw new IllegalArgumentException("storage.mysql is not configured.");
+    }
+
+    this.connectionPool =
+        new ConnectionPool(createHikariConfig(mysqlSection, poolSection), poolSection);
+    this.url = mysqlSection.getString("url");
+    exportProperties.setProperty("user", mysqlSection.getString("username", ""));
+    exportProperties.setProperty("password", mysqlSection.getString("password", ""));
+    // フェッチサイズを指定したSQL（エクスポート）の結果を、すべて読み込まずにサーバー側のカーソルで少しずつ受け取る
+    exportProperties.setProperty("useCursorFetch", "true");
+
+    ConfigurationSection replicaSection = mysqlSection.getConfigurationSection("replica");
+    if (replicaSection != null && replicaSection.getBoolean("enabled", false)) {
+      HikariConfig replicaConfig = createHikariConfig(replicaSection, poolSection);
+      replicaConfig.setReadOnly(true);
+      // 停止中のレプリカで取得処理が長く止まらないよう、プライマリより短い時間で接続をあきらめる
+      long replicaConnectionTimeoutMillis = Math.max(
+          MIN_CONNECTION_TIMEOUT_MILLIS,
+          replicaSection.getLong(
+              "connection-timeout-millis", DEFAULT_REPLICA_CONNECTION_TIMEOUT_MILLIS));
+      this.replicaPool = new ConnectionPool(
+          replicaConfig, poolSection, REPLICA_POOL_NAME, replicaConnectionTimeoutMillis);
+    } else {
+      this.replicaPool = null;
+    }
+  }
+
+  /**
+   * 接続先のURL・ユーザー名・パスワードに、ドライバーの設定を加えた接続設定を作成する。
+   *
+   * @param section     接続先のセクション（storage.mysqlまたはstorage.mysql.replica）
+   * @param poolSection 設定ファイルのstorage.poolセクション
+   * @return 接続設定
+   */
+  private HikariConfig createHikariConfig(
+      ConfigurationSection section, ConfigurationSection poolSection) {
+
+    HikariConfig hikariConfig = new HikariConfig();
+    hikariConfig.setDriverClassName(DRIVER);
+    hikariConfig.setJdbcUrl(section.getString("url"));
+    hikariConfig.setUsername(section.getString("username"));
+    hikariConfig.setPassword(section.getString("password"));
+
+    hikariConfig.addDataSourceProperty("cachePrepStmts", true);
+    hikariConfig.addDataSourceProperty("useServerPrepStmts", true);
+    hikariConfig.addDataSourceProperty("prepStmtCacheSize", ConnectionPool.getInt(
+        poolSection, "prepared-statement-cache-size", DEFAULT_STATEMENT_CACHE_SIZE));
+    hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", ConnectionPool.getInt(
+        poolSection, "prepared-statement-cache-sql-limit", DEFAULT_STATEMENT_CACHE_SQL_LIMIT));
+    // ExecutorType.BATCHでまとめて登録する際に、1つのINSERT文に書き換えて送信する
+    hikariConfig.addDataSourceProperty("rewriteBatchedStatements", true);
+    return hikariConfig;
+  }
+
+  @Override
+  public String getName() {
+    return "mysql";
+  }
+
+  @Override
+  public DataSource getDataSource() {
+    return connectionPool.getDataSource();
+  }
+
+  @Override
+  public Connection openExportConnection() throws SQLException {
+    return DriverManager.getConnection(url, exportProperties);
+  }
+
+  @Override
+  public DataSource getReadDataSource() {
+    return replicaPool == null ? null : replicaPool.getDataSource();
+  }
+
+  @Override
+  public List<String> getMetricsLines() {
+    if (replicaPool == null) {
+      return connectionPool.getMetricsLines();
+    }
+    List<String> metricsLines = new ArrayList<>(connectionPool.getMetricsLines());
+    replicaPool.getMetricsLines().forEach(line -> metricsLines.add("[レプリカ] " + line));
+    return metricsLines;
+  }
+
+  @Override
+  public void close() {
+    connectionPool.close();
+    if (replicaPool != null) {
+      replicaPool.close();
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package plugin.breakspell.database.storage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import javax.sql.DataSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * スコア情報と進捗状況の保存先（ストレージ）を表すインターフェース。<br>
+ * マッパーのSQLはMySQLとH2（MySQL互換モード）の両方で動作するため、保存先ごとの違いは接続先（データソース）に限られる。<br>
+ * 保存先は設定ファイル（config.yml）のstorage.typeで選択する。
+ */
+public interface StorageBackend {
+
+  /**
+   * 保存先の名前を取得する。MyBatisの環境（Environment）のIDとしても使用する。
+   *
+   * @return 保存先の名前
+   */
+  String getName();
+
+  /**
+   * 保存先に接続するデータソースを取得する。
+   *
+   * @return データソース
+   */
+  DataSource getDataSource();
+
+  /**
+   * 読み取り専用の接続先（レプリカ）のデータソースを取得する。レプリカを使用しない場合はnullを返す。
+   *
+   * @return レプリカのデータソース
+   */
+  default DataSource getReadDataSource() {
+    return null;
+  }
+
+  /**
+   * エクスポートで全行を少しずつ読み込むための接続を取得する。<br>
+   * 既定ではコネクションプールから取得する。フェッチサイズを指定したSQLの結果を少しずつ受け取るために
+   * ドライバーの設定が必要な保存先では、その設定をした専用の接続を返す。
+   *
+   * @return エクスポート用の接続（使用後に閉じる）
+   * @throws SQLException 接続できなかった場合
+   */
+  default Connection openExportConnection() throws SQLException {
+    return getDataSource().getConnection();
+  }
+
+  /**
+   * 保存先への接続状況の計測値をメッセージ表示用に整形して取得する。
+   *
+   * @return 計測値のメッセージ
+   */
+  List<String> getMetricsLines();
+
+  /**
+   * 保存先への接続をすべて閉じる。
+   */
+  void close();
+
+  /**
+   * 設定ファイルの内容に応じて保存先を作成する。指定がない場合はMySQLを使用する。
+   *
+   * @param storageSection 設定ファイルのstorageセクション
+   * @param dataFolder     プラグインのデータフォルダ
+   * @return 保存先
+   */
+  static StorageBackend fromConfig(ConfigurationSection storageSection, File dataFolder) {
+    String type = storageSection.getString("type", "mysql");
+    ConfigurationSection poolSection = storageSection.getConfigurationSection("pool");
+    return switch (type.toLowerCase()) {
+      case "mysql" -> new MySqlStorageBackend(
+          storageSection.getConfigurationSection("mysql"), poolSection);
+      case "h2" -> new H2StorageBackend(
+          storageSection.getConfigurationSection("h2"), poolSection, dataFolder);
+      default -> throw new IllegalArgumentException("Unexpected storage type: " + type);
+    };
+  }
+}
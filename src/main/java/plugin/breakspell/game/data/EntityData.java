@@ -5,16 +5,19 @@ import org.bukkit.entity.EntityType;
 
 /**
  * ゲーム実行中に出現させたエンティティの情報を扱うオブジェクト。<br>
- * 変身後のエンティティの種類、真の姿の名前の情報を持つ。
+ * 変身後のエンティティの種類、真の姿の名前、出現位置の番号（スロット）の情報を持つ。<br>
+ * スロットは呪いをかけられた姿と真の姿を入れ替えても変わらないため、リプレイログでエンティティを識別するのに使用する。
  */
 @Getter
 public class EntityData {
 
   private final EntityType transformedEntityType;
   private final String trueNatureName;
+  private final int slot;
 
-  public EntityData(EntityType transformedEntityType, String trueNatureName) {
+  public EntityData(EntityType transformedEntityType, String trueNatureName, int slot) {
     this.transformedEntityType = transformedEntityType;
     this.trueNatureName = trueNatureName;
+    this.slot = slot;
   }
 }
@@ -9,14 +9,18 @@ import lombok.Setter;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.inventory.ItemStack;
 import plugin.breakspell.game.constant.GameDifficulty;
+import plugin.breakspell.game.replay.ReplayRecorder;
 
 /**
  * ゲームを実行中のプレイヤーのゲームデータを扱うオブジェクト。<br>
- * プレイヤーのUUID、名前、プレイ中の難易度、メインハンドに持っていたアイテムなどの情報を持つ。
+ * プレイヤーのUUID、名前、プレイ中の難易度、メインハンドに持っていたアイテムなどの情報を持つ。<br>
+ * ゲームごとにセッションIDを採番し、スコア情報の登録を重複なく再実行するために使用する。<br>
+ * ゲーム中のクリックやペアの判定はリプレイレコーダーに記録し、ゲーム終了時にセッションIDと紐付けて保存する。
  */
 @Getter
 public class PlayerGameData {
 
+  private final UUID sessionId = UUID.randomUUID();
   private final UUID playerUuid;
   private final String playerName;
   private final GameDifficulty gameDifficulty;
@@ -34,6 +38,7 @@ public class PlayerGameData {
 
   private final Map<LivingEntity, EntityData> entityDataMap = new HashMap<>();
   private final Map<LivingEntity, PendingEntityData> awaitingPairMap = new LinkedHashMap<>();
+  private final ReplayRecorder replayRecorder = new ReplayRecorder();
 
   public PlayerGameData(
       UUID playerUuid, String playerName, GameDifficulty gameDifficulty, ItemStack mainHandItem) {
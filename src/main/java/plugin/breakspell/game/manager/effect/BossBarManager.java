@@ -7,7 +7,8 @@ import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 
 /**
- * ボスバーを作成・更新・削除するクラス。
+ * ボスバーを作成・更新・削除するクラス。<br>
+ * ボスバーを1つだけ保持するため、ゲームセッションごとにインスタンスを作成する。
  */
 public class BossBarManager {
 
@@ -54,9 +55,12 @@ public class BossBarManager {
   }
 
   /**
-   * ボスバーを削除する。
+   * ボスバーを削除する。作成前または削除済みの場合は何もしない。
    */
   public void removeBossBar() {
+    if (bossBar == null) {
+      return;
+    }
     bossBar.removeAll();
     bossBar = null;
   }
@@ -9,6 +9,7 @@ import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import plugin.breakspell.game.data.PlayerGameData;
+import plugin.breakspell.game.session.GameSession;
 
 /**
  * スコアボードの作成・更新・削除を担うクラス。
@@ -23,11 +24,12 @@ public class ScoreboardManager {
   private static final String LABEL_SCORE = ChatColor.GOLD + "" + ChatColor.BOLD + "スコア";
 
   /**
-   * スコアボードを作成する。
+   * スコアボードを作成し、プレイヤーに表示する。
    *
    * @param player 　ゲームを実行中のプレイヤー
+   * @return 作成したスコアボード
    */
-  public void createScoreboard(Player player) {
+  public Scoreboard createScoreboard(Player player) {
     Scoreboard scoreboard = Objects.requireNonNull(Bukkit.getScoreboardManager()).getNewScoreboard();
     Objective objective = scoreboard.registerNewObjective(
         CURRENT_SCORE,
@@ -39,16 +41,21 @@ public class ScoreboardManager {
     objective.getScore(LABEL_SCORE).setScore(0);
 
     player.setScoreboard(scoreboard);
+    return scoreboard;
   }
 
   /**
-   * スコアボードを更新する。
+   * ゲームセッションのスコアボードを更新する。スコアボードの作成前は何もしない。
    *
-   * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
+   * @param gameSession ゲームセッション
    */
-  public void updateCurrentScore(Player player, PlayerGameData playerGameData) {
-    Scoreboard scoreboard = player.getScoreboard();
+  public void updateCurrentScore(GameSession gameSession) {
+    Scoreboard scoreboard = gameSession.getScoreboard();
+    if (scoreboard == null) {
+      return;
+    }
+
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     Objective objective = scoreboard.getObjective(CURRENT_SCORE);
 
     if (objective != null) {
@@ -22,7 +22,7 @@ public class SendTextManager {
 
   private static final String ERROR_INPUT_ARGUMENT_2 = "正しい引数を入力してください。 %s";
   private static final String GAME_MENU_ARGS = "[easy, normal, hard]";
-  private static final String SCORE_MENU_ARGS = "[new, rank, easy, normal, hard]";
+  private static final String SCORE_MENU_ARGS = "[new [ページ], rank, easy, normal, hard, daily|weekly|monthly [難易度], me]";
 
   private static final String NOT_PLAYED_ALERT_1 = "まだゲームを%sしていません。";
   private static final String NOT_PLAYED_ALERT_2 = "いずれかの難易度で%sすると%sを読めるようになります。";
@@ -97,13 +97,22 @@ public class SendTextManager {
   }
 
   /**
-   * 整形済みのスコアリストをメッセージとして表示する。
+   * スコア履歴の次のページがない場合のメッセージを表示する。
    *
-   * @param player     コマンドを実行またはメニューをクリックしたプレイヤー
-   * @param scoreLines 整形済みのスコアリスト
+   * @param player コマンドを実行またはメニューをクリックしたプレイヤー
+   */
+  public void sendNoMoreScoreHistoryMessage(Player player) {
+    player.sendMessage(ChatColor.YELLOW + "これより古いスコアはありません。");
+  }
+
+  /**
+   * 改行で連結した整形済みのスコアリストを、1つのメッセージとして表示する。
+   *
+   * @param player           コマンドを実行またはメニューをクリックしたプレイヤー
+   * @param scoreListMessage 改行で連結した整形済みのスコアリスト
    */
-  public void sendScoreLines(Player player, List<String> scoreLines) {
-    scoreLines.forEach(player :: sendMessage);
+  public void sendScoreList(Player player, String scoreListMessage) {
+    player.sendMessage(scoreListMessage);
   }
 
   /**
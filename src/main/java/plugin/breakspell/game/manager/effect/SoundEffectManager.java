@@ -1,27 +1,22 @@
 package plugin.breakspell.game.manager.effect;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.SoundCategory;
 import org.bukkit.entity.Player;
-import plugin.breakspell.Main;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.Pitch;
 import plugin.breakspell.game.constant.SpecialEntity;
 import plugin.breakspell.game.constant.TickTime;
 import plugin.breakspell.game.constant.Volume;
+import plugin.breakspell.game.session.GameSession;
 
 /**
- * 演出用のサウンドを再生・停止するクラス。
+ * 演出用のサウンドを再生・停止するクラス。<br>
+ * 遅らせて実行する演出はゲームセッションを経由して予約し、処理時間をそのセッションに加算する。<br>
+ * ゲーム中の演出はセッションを閉じると取り消し、ゲームの終了時の演出はセッションを閉じた後も続ける。
  */
 public class SoundEffectManager {
 
-  private final Main main;
-
-  public SoundEffectManager(Main main) {
-    this.main = main;
-  }
-
   /**
    * プロローグが書かれた本を開く際のサウンドを再生する。
    *
@@ -134,9 +129,10 @@ public class SoundEffectManager {
   /**
    * 魔法の杖を振って魔法を唱える際のサウンドを再生する。
    *
-   * @param player ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void playWaveMagicWandSound(Player player) {
+  public void playWaveMagicWandSound(Player player, GameSession gameSession) {
     player.playSound(player, Sound.BLOCK_AMETHYST_BLOCK_CHIME, Volume.STANDARD, Pitch.MEDIUM);
     player.playSound(player, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, Volume.MEDIUM, Pitch.MEDIUM);
 
@@ -159,7 +155,7 @@ public class SoundEffectManager {
       final Sound sound = sounds[s];
       final float volume = volumes[s];
       final float pitch = pitches[s];
-      Bukkit.getScheduler().runTaskLater(main, () ->
+      gameSession.runTaskLater(() ->
           player.playSound(player, sound, volume, pitch), TickTime.DELAY_BIT * s);
     }
   }
@@ -167,19 +163,20 @@ public class SoundEffectManager {
   /**
    * ペアが揃った場合のサウンドを再生する。
    *
-   * @param player ゲームを実行中プレイヤー
+   * @param player      ゲームを実行中プレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void playMatchPairSound(Player player) {
+  public void playMatchPairSound(Player player, GameSession gameSession) {
     long delayTime = TickTime.DELAY_BIT;
 
     player.playSound(player, Sound.ENTITY_PLAYER_LEVELUP, Volume.LITTLE_QUIET, Pitch.MIDDLE_LOW);
 
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.BLOCK_NOTE_BLOCK_HARP, Volume.LITTLE_QUIET, Pitch.MIDDLE_LOW),
         delayTime);
 
     delayTime += TickTime.DELAY_BIT;
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.BLOCK_NOTE_BLOCK_BELL, Volume.LITTLE_QUIET, Pitch.MIDDLE_LOW),
         delayTime);
   }
@@ -187,34 +184,35 @@ public class SoundEffectManager {
   /**
    * ペアが揃わなかった場合のサウンドを再生する。
    *
-   * @param player ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void playMisMatchPairSound(Player player) {
+  public void playMisMatchPairSound(Player player, GameSession gameSession) {
     long delayTime = TickTime.DELAY_BIT;
 
     player.playSound(player, Sound.ENTITY_WITHER_SPAWN, Volume.SILENT, Pitch.VERY_LOW);
 
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.ENTITY_ELDER_GUARDIAN_CURSE, Volume.SILENT, Pitch.VERY_LOW),
         delayTime);
 
     delayTime += TickTime.DELAY_SHORT;
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.BLOCK_BREWING_STAND_BREW, Volume.SILENT, Pitch.LOW),
         delayTime);
 
     delayTime += TickTime.DELAY_BIT;
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.ENTITY_ILLUSIONER_PREPARE_MIRROR, Volume.SILENT, Pitch.MIDDLE_LOW),
         delayTime);
 
     delayTime += TickTime.DELAY_BIT;
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.ENTITY_ELDER_GUARDIAN_CURSE, Volume.SILENT, Pitch.LOWEST),
         delayTime);
 
     delayTime += TickTime.DELAY_SHORT;
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runTaskLater(() ->
             player.playSound(player, Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE, Volume.SILENT, Pitch.EXTRA_LOW),
         delayTime);
   }
@@ -223,9 +221,12 @@ public class SoundEffectManager {
    * スペシャルエンティティの姿に変わった場合のサウンドを再生する。
    *
    * @param player        ゲームを実行中のプレイヤー
+   * @param gameSession   ゲームセッション
    * @param specialEntity スペシャルエンティティ
    */
-  public void playRevealSpecialEntitySound(Player player, SpecialEntity specialEntity) {
+  public void playRevealSpecialEntitySound(
+      Player player, GameSession gameSession, SpecialEntity specialEntity) {
+
     switch (specialEntity) {
       case ALLAY -> {
         long delayTime = TickTime.DELAY_BIT;
@@ -234,19 +235,19 @@ public class SoundEffectManager {
         player.playSound(player, Sound.BLOCK_NOTE_BLOCK_HARP, Volume.LITTLE_QUIET, Pitch.MEDIUM);
         player.playSound(player, Sound.ENTITY_WANDERING_TRADER_YES, Volume.LITTLE_QUIET, Pitch.EXTRA_HIGH);
 
-        Bukkit.getScheduler().runTaskLater(main, () -> {
+        gameSession.runTaskLater(() -> {
           player.playSound(player, Sound.ENTITY_FIREWORK_ROCKET_TWINKLE, Volume.QUIET, Pitch.MEDIUM);
           player.playSound(player, Sound.BLOCK_NOTE_BLOCK_HARP, Volume.VERY_QUIET, Pitch.LITTLE_HIGH);
         }, delayTime);
 
         delayTime += TickTime.DELAY_BIT;
-        Bukkit.getScheduler().runTaskLater(main, () -> {
+        gameSession.runTaskLater(() -> {
           player.playSound(player, Sound.ENTITY_EXPERIENCE_ORB_PICKUP, Volume.VERY_QUIET, Pitch.LITTLE_HIGH);
           player.playSound(player, Sound.ENTITY_WANDERING_TRADER_YES, Volume.ALMOST_SILENT, Pitch.HIGHEST);
         }, delayTime);
 
         delayTime += TickTime.DELAY_BIT;
-        Bukkit.getScheduler().runTaskLater(main, () -> {
+        gameSession.runTaskLater(() -> {
           player.playSound(player, Sound.ENTITY_PARROT_AMBIENT, Volume.LITTLE_QUIET, Pitch.MEDIUM);
           player.playSound(player, Sound.ENTITY_BAT_TAKEOFF, Volume.EXTRA_QUIET, Pitch.MIDDLE_HIGH);
           player.playSound(player, Sound.BLOCK_NOTE_BLOCK_HARP, Volume.ALMOST_SILENT, Pitch.HIGH);
@@ -256,14 +257,14 @@ public class SoundEffectManager {
       case SHULKER -> {
         player.playSound(player, Sound.ENTITY_SHULKER_AMBIENT, Volume.LITTLE_QUIET, Pitch.EXTRA_LOW);
         player.playSound(player, Sound.BLOCK_PORTAL_AMBIENT, Volume.ALMOST_SILENT, Pitch.VERY_LOW);
-        Bukkit.getScheduler().runTaskLater(main, () ->
+        gameSession.runTaskLater(() ->
                 player.playSound(player, Sound.BLOCK_RESPAWN_ANCHOR_DEPLETE, Volume.EXTRA_QUIET, Pitch.EXTRA_LOW),
             TickTime.DELAY_MIDDLE);
       }
       case ENDERMAN -> {
         player.playSound(player, Sound.ENTITY_ENDERMAN_TELEPORT, Volume.MEDIUM, Pitch.MIDDLE_LOW);
         player.playSound(player, Sound.ENTITY_ILLUSIONER_MIRROR_MOVE, Volume.EXTRA_QUIET, Pitch.VERY_LOW);
-        Bukkit.getScheduler().runTaskLater(main, () ->
+        gameSession.runTaskLater(() ->
                 player.playSound(
                     player, Sound.BLOCK_BEACON_DEACTIVATE, Volume.ALMOST_SILENT, Pitch.VERY_LOW),
             TickTime.DELAY_SHORT);
@@ -301,9 +302,10 @@ public class SoundEffectManager {
   /**
    * 制限時間内にゲームをクリアした場合のサウンドを再生する。
    *
-   * @param player ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void playGameClearSound(Player player) {
+  public void playGameClearSound(Player player, GameSession gameSession) {
 
     float[] volumes
         = {Volume.MEDIUM, Volume.LITTLE_QUIET, Volume.VERY_QUIET, Volume.ALMOST_SILENT};
@@ -317,7 +319,7 @@ public class SoundEffectManager {
       final float pitch1 = pitches1[s];
       final float pitch2 = pitches2[s];
 
-      Bukkit.getScheduler().runTaskLater(main, () -> {
+      gameSession.runDetachedTaskLater(() -> {
         player.playSound(player, Sound.ENTITY_PLAYER_LEVELUP, volume, pitch1);
         player.playSound(player, Sound.BLOCK_NOTE_BLOCK_HARP, volume, pitch2);
       }, delayTime);
@@ -327,11 +329,12 @@ public class SoundEffectManager {
   /**
    * 制限時間が終了した際のサウンドを再生する。
    *
-   * @param player ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void playGameOverSound(Player player) {
+  public void playGameOverSound(Player player, GameSession gameSession) {
     player.playSound(player, Sound.BLOCK_BEACON_DEACTIVATE, Volume.LITTLE_QUIET, Pitch.VERY_LOW);
-    Bukkit.getScheduler().runTaskLater(main, () ->
+    gameSession.runDetachedTaskLater(() ->
             player.playSound(player, Sound.ENTITY_GHAST_SHOOT, Volume.MEDIUM, Pitch.EXTRA_LOW)
         , TickTime.DELAY_LONG);
   }
@@ -1,7 +1,6 @@
 package plugin.breakspell.game.manager.effect;
 
 import java.util.List;
-import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Color;
 import org.bukkit.FireworkEffect;
@@ -13,16 +12,19 @@ import org.bukkit.entity.Firework;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.meta.FireworkMeta;
-import plugin.breakspell.Main;
 import plugin.breakspell.game.constant.Offsets;
 import plugin.breakspell.game.constant.TickTime;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.tick.GameTickDriver;
 
 /**
- * 演出用の視覚効果を出現させるクラス。
+ * 演出用の視覚効果を出現させるクラス。<br>
+ * 遅らせて実行する演出はゲームセッションを経由して予約し、処理時間をそのセッションに加算する。<br>
+ * ゲームセッションを作成する前の演出（書見台）のみ、所有者なしで{@link GameTickDriver}に予約する。
  */
 public class VisualEffectManager {
 
-  private final Main main;
+  private final GameTickDriver gameTickDriver;
 
   // パーティクルの量（count）を定数化
   private static final int TINY = 3;
@@ -35,8 +37,8 @@ public class VisualEffectManager {
   private static final double ALMOST_STOP = 0.005;
   private static final double SLIGHTLY_MOVE = 0.05;
 
-  public VisualEffectManager(Main main) {
-    this.main = main;
+  public VisualEffectManager(GameTickDriver gameTickDriver) {
+    this.gameTickDriver = gameTickDriver;
   }
 
   /**
@@ -48,7 +50,7 @@ public class VisualEffectManager {
   public void spawnMagicBookOnLecternParticle(Player player, Location location) {
     final int MAGIC_FLASH_COUNT = 3;
     for (int p = 0; p < MAGIC_FLASH_COUNT; p++) {
-      Bukkit.getScheduler().runTaskLater(main, () ->
+      gameTickDriver.runTaskLater(() ->
               player.spawnParticle(Particle.FLASH, location, LITTLE_BIT,
                   0, Offsets.LITTLE_ABOVE, Offsets.LITTLE_SOUTH)
           , TickTime.DELAY_LONG * p);
@@ -92,16 +94,17 @@ public class VisualEffectManager {
   }
 
   /**
-   * ハイスコアを更新した際に花火を出現させる。
+   * ハイスコアを更新した際に花火を出現させる。セッションを閉じた後も打ち上げる。
    *
-   * @param player ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  public void spawnFireworksForHighScore(Player player) {
+  public void spawnFireworksForHighScore(Player player, GameSession gameSession) {
     List<Type> typeList = List.of(Type.BALL_LARGE, Type.BALL, Type.STAR, Type.BALL_LARGE, Type.STAR, Type.BALL);
 
     int f = 1;
     for (Type type : typeList) {
-      Bukkit.getScheduler().runTaskLater(main, () -> {
+      gameSession.runDetachedTaskLater(() -> {
         Firework firework = player.getWorld().spawn(player.getLocation(), Firework.class);
         FireworkMeta fireworkMeta = firework.getFireworkMeta();
         fireworkMeta.addEffect(
@@ -155,14 +158,16 @@ public class VisualEffectManager {
   }
 
   /**
-   * ペアが揃った際のコンボメッセージをアーマースタンドで表示し、0.5秒後に消滅させる。
+   * ペアが揃った際のコンボメッセージをアーマースタンドで表示し、0.5秒後に消滅させる。<br>
+   * 0.5秒以内にセッションを閉じた場合は、閉じる際に消滅させる。
    *
    * @param player       ゲームを実行中のプレイヤー
+   * @param gameSession  ゲームセッション
    * @param trueNature   真の姿のエンティティ
    * @param comboMessage コンボメッセージ
    */
   public void spawnComboMessageArmorStand(
-      Player player, LivingEntity trueNature, String comboMessage) {
+      Player player, GameSession gameSession, LivingEntity trueNature, String comboMessage) {
 
     ArmorStand armorStand
         = player.getWorld().spawn(
@@ -175,7 +180,8 @@ public class VisualEffectManager {
     armorStand.setMarker(true);
     armorStand.setGravity(false);
 
-    Bukkit.getScheduler().runTaskLater(main, armorStand :: remove, TickTime.DELAY_LONG);
+    gameSession.addEffectEntity(armorStand);
+    gameSession.runTaskLater(armorStand :: remove, TickTime.DELAY_LONG);
   }
 
   /**
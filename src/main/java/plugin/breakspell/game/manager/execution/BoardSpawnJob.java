@@ -0,0 +1,68 @@
+package plugin.breakspell.game.manager.execution;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import plugin.breakspell.game.session.GameSession;
+
+/**
+ * 1ゲーム分の盤面を出現させる処理の進み具合を扱うオブジェクト。<br>
+ * 出現させる位置の基準は盤面の作成時のプレイヤーの位置に固定し、出現の途中でプレイヤーが動いても盤面がずれないようにする。<br>
+ * 出現を終えるべき期限（カウントダウンの終了時のtick）を持ち、期限が近い盤面から出現させるために使用する。
+ */
+@Getter
+public class BoardSpawnJob {
+
+  private final Player player;
+  private final GameSession gameSession;
+  private final Location baseLocation;
+  private final List<EntityType> cursedEntityList;
+  private final List<EntityType> trueNatureList;
+  private final List<List<Integer>> xZList;
+  private int nextSlot;
+  @Setter
+  private long deadlineTick;
+
+  public BoardSpawnJob(
+      Player player, GameSession gameSession, Location baseLocation,
+      List<EntityType> cursedEntityList, List<EntityType> trueNatureList,
+      List<List<Integer>> xZList) {
+
+    this.player = player;
+    this.gameSession = gameSession;
+    this.baseLocation = baseLocation;
+    this.cursedEntityList = cursedEntityList;
+    this.trueNatureList = trueNatureList;
+    this.xZList = xZList;
+  }
+
+  /**
+   * 次に出現させるスロットを取得し、その次のスロットに進める。
+   *
+   * @return 次に出現させるスロット
+   */
+  public int advanceSlot() {
+    return nextSlot++;
+  }
+
+  /**
+   * すべてのスロットを出現させたかどうかを確認する。
+   *
+   * @return すべてのスロットを出現させたかどうか
+   */
+  public boolean isFinished() {
+    return nextSlot >= trueNatureList.size();
+  }
+
+  /**
+   * まだ出現させていないスロットの数を取得する。
+   *
+   * @return 残りのスロットの数
+   */
+  public int getRemainingSlots() {
+    return trueNatureList.size() - nextSlot;
+  }
+}
@@ -10,65 +10,70 @@ import org.bukkit.block.BlockFace;
 import org.bukkit.block.Lectern;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Directional;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.LecternInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
-import plugin.breakspell.Main;
-import plugin.breakspell.database.PlayerProgressConnector;
-import plugin.breakspell.database.PlayerScoreConnector;
+import plugin.breakspell.database.AsyncPlayerProgressConnector;
+import plugin.breakspell.database.AsyncPlayerScoreConnector;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.Offsets;
 import plugin.breakspell.game.constant.TickTime;
 import plugin.breakspell.game.data.EntityData;
 import plugin.breakspell.game.data.PlayerGameData;
-import plugin.breakspell.game.manager.effect.BossBarManager;
 import plugin.breakspell.game.manager.effect.ScoreboardManager;
 import plugin.breakspell.game.manager.effect.SendTextManager;
 import plugin.breakspell.game.manager.effect.SoundEffectManager;
 import plugin.breakspell.game.manager.effect.VisualEffectManager;
 import plugin.breakspell.game.manager.effect.WrittenBookManager;
+import plugin.breakspell.game.replay.ReplayEventType;
+import plugin.breakspell.game.replay.ReplayStore;
+import plugin.breakspell.game.session.GamePhase;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.session.GameSessionRegistry;
+import plugin.breakspell.game.tick.GameTickDriver;
 
 /**
- * ゲームを実行するクラス。
+ * ゲームを実行するクラス。<br>
+ * ゲームの状態はプレイヤーごとの{@link GameSession}に持たせ、このクラスは状態を持たない。
  */
 public class GameExecutor {
 
-  private final Main main;
   private final GameStatusChecker gameStatusChecker;
   private final WrittenBookManager writtenBookManager;
   private final VisualEffectManager visualEffectManager;
   private final SoundEffectManager soundEffectManager;
   private final SendTextManager sendTextManager;
-  private final SpawnEntityManager spawnEntityManager;
+  private final SpawnPipeline spawnPipeline;
   private final ScoreboardManager scoreboardManager;
-  private final PlayerScoreConnector playerScoreConnector;
-  private final PlayerProgressConnector playerProgressConnector;
-  private final BossBarManager bossBarManager = new BossBarManager();
-
-  private final Map<UUID, PlayerGameData> playerGameDataMap;
+  private final AsyncPlayerScoreConnector playerScoreConnector;
+  private final AsyncPlayerProgressConnector playerProgressConnector;
+  private final ReplayStore replayStore;
+  private final GameSessionRegistry gameSessionRegistry;
+  private final GameTickDriver gameTickDriver;
 
   public GameExecutor(
-      Main main, GameStatusChecker gameStatusChecker, WrittenBookManager writtenBookManager,
+      GameStatusChecker gameStatusChecker, WrittenBookManager writtenBookManager,
       VisualEffectManager visualEffectManager, SoundEffectManager soundEffectManager,
-      SendTextManager sendTextManager, SpawnEntityManager spawnEntityManager,
-      ScoreboardManager scoreboardManager, PlayerScoreConnector playerScoreConnector,
-      PlayerProgressConnector playerProgressConnector, Map<UUID, PlayerGameData> playerGameDataMap) {
+      SendTextManager sendTextManager, SpawnPipeline spawnPipeline,
+      ScoreboardManager scoreboardManager, AsyncPlayerScoreConnector playerScoreConnector,
+      AsyncPlayerProgressConnector playerProgressConnector, ReplayStore replayStore,
+      GameSessionRegistry gameSessionRegistry, GameTickDriver gameTickDriver) {
 
-    this.main = main;
     this.gameStatusChecker = gameStatusChecker;
     this.writtenBookManager = writtenBookManager;
     this.visualEffectManager = visualEffectManager;
     this.soundEffectManager = soundEffectManager;
     this.sendTextManager = sendTextManager;
-    this.spawnEntityManager = spawnEntityManager;
+    this.spawnPipeline = spawnPipeline;
     this.scoreboardManager = scoreboardManager;
     this.playerScoreConnector = playerScoreConnector;
     this.playerProgressConnector = playerProgressConnector;
-    this.playerGameDataMap = playerGameDataMap;
+    this.replayStore = replayStore;
+    this.gameSessionRegistry = gameSessionRegistry;
+    this.gameTickDriver = gameTickDriver;
   }
 
   /**
@@ -77,13 +82,30 @@ public class GameExecutor {
    * @param player ゲーム実行中に中止コマンドを実行したプレイヤー
    */
   public void stopGame(Player player) {
-    PlayerGameData playerGameData = playerGameDataMap.get(player.getUniqueId());
-    playerGameData.endTime();
+    GameSession gameSession = gameSessionRegistry.get(player.getUniqueId());
+    gameSession.getPlayerGameData().endTime();
+  }
+
+  /**
+   * 実行中のすべてのゲームを中断する（プラグインの無効化時に使用）。<br>
+   * スコアは登録せずにセッションを閉じ、オンラインのプレイヤーの状態をゲーム開始前の状態に戻す。
+   */
+  public void abortAllGames() {
+    for (GameSession gameSession : gameSessionRegistry.getSessionList()) {
+      gameSession.close();
+      gameSessionRegistry.unregister(gameSession);
+
+      Player player = Bukkit.getPlayer(gameSession.getPlayerUuid());
+      if (player != null) {
+        scoreboardManager.clearScoreboard(player);
+        restorePlayerStatus(player, gameSession.getPlayerGameData());
+      }
+    }
   }
 
   /**
    * ゲームが実行されるのを待つ。<br>
-   * 初回プレイ時のみ、プロローグが書かれた本を開く。<br>
+   * 初回プレイ時のみ、プロローグが書かれた本を開く（DBに接続できない場合は開かない）。<br>
    * プレイヤーのメインハンドに魔法の本を持たせ、書見台を設置する。<br>
    * 書見台に魔法の本が設置されたら、ゲームを実行する。
    *
@@ -91,8 +113,22 @@ public class GameExecutor {
    * @param gameDifficulty ゲームの難易度
    */
   public void awaitExecuteGame(Player player, GameDifficulty gameDifficulty) {
+    gameStatusChecker.isFirstPlay(player)
+        .exceptionally(ex -> false)
+        .thenAccept(isFirstPlay -> prepareLectern(player, gameDifficulty, isFirstPlay));
+  }
+
+  /**
+   * 初回プレイ時のみプロローグが書かれた本を開き、
+   * プレイヤーのメインハンドに魔法の本を持たせて書見台を設置する。
+   *
+   * @param player         コマンドを実行またはゲームメニューGUIをクリックしたプレイヤー
+   * @param gameDifficulty ゲームの難易度
+   * @param isFirstPlay    初回プレイかどうか
+   */
+  private void prepareLectern(Player player, GameDifficulty gameDifficulty, boolean isFirstPlay) {
     double readingTime = 0;
-    if (gameStatusChecker.isFirstPlay(player)) {
+    if (isFirstPlay) {
       writtenBookManager.openPrologueBook(player);
       readingTime = 20;
     }
@@ -163,7 +199,7 @@ public class GameExecutor {
       LecternInventory lecternInventory, ItemStack magicBook, Block lecternBlock) {
 
     final double[] pendingTime = {10 + readingTime};
-    Bukkit.getScheduler().runTaskTimer(main, lecternCheckTask -> {
+    gameTickDriver.runTaskTimer(null, lecternCheckTask -> {
 
       ItemStack bookOnLectern = lecternInventory.getItem(0);
 
@@ -177,7 +213,7 @@ public class GameExecutor {
         soundEffectManager.playMagicBookOnLecternSound(player);
         visualEffectManager.spawnMagicBookOnLecternParticle(player, lecternBlock.getLocation());
 
-        Bukkit.getScheduler().runTaskLater(main, () -> {
+        gameTickDriver.runTaskLater(() -> {
           lecternBlock.setType(Material.AIR);
           visualEffectManager.spawnMagicBeginParticle(player, lecternBlock.getLocation());
           soundEffectManager.stopMagicBookOnLecternSound(player);
@@ -209,8 +245,9 @@ public class GameExecutor {
   }
 
   /**
-   * プレイヤーのゲームデータを作成し、UUIDと紐付けてマップ形式で保持する。<br>
+   * プレイヤーのゲームデータを持つゲームセッションを作成し、セッションの管理に登録する。<br>
    * DBにプレイ状況を登録し、ゲームプレイ用にプレイヤーの状態を設定する。<br>
+   * スコアボードを作成し、盤面の出現処理をキューに追加する（エンティティはカウントダウン中に数tickに分けて出現させる）。<br>
    * ゲーム開始前のカウントダウンを行い、ゲームを実行する。
    *
    * @param player         ゲームを実行したプレイヤー
@@ -221,14 +258,18 @@ public class GameExecutor {
       Player player, GameDifficulty gameDifficulty, ItemStack mainHandItem) {
 
     UUID playerUuid = player.getUniqueId();
-    PlayerGameData playerGameData =
-        new PlayerGameData(playerUuid, player.getName(), gameDifficulty, mainHandItem);
-    playerGameDataMap.put(playerUuid, playerGameData);
+    GameSession gameSession =
+        new GameSession(
+            new PlayerGameData(playerUuid, player.getName(), gameDifficulty, mainHandItem),
+            gameTickDriver);
+    gameSessionRegistry.register(gameSession);
 
     playerProgressConnector.insertGameProgress(playerUuid, gameDifficulty);
     initPlayerStatus(player);
-    countDownToStartGame(player);
-    handleGamePlay(player, playerGameData, gameDifficulty);
+    gameSession.setScoreboard(scoreboardManager.createScoreboard(player));
+    spawnPipeline.enqueue(player, gameDifficulty, gameSession, TickTime.DELAY_5_SECONDS);
+    countDownToStartGame(player, gameSession);
+    handleGamePlay(player, gameSession, gameDifficulty);
   }
 
   /**
@@ -258,11 +299,12 @@ public class GameExecutor {
   /**
    * ゲーム開始までのカウントダウンを行い、待機時間に応じてタイトルを表示する。
    *
-   * @param player 　ゲームを実行中のプレイヤー
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  private void countDownToStartGame(Player player) {
+  private void countDownToStartGame(Player player, GameSession gameSession) {
     final int[] idleTime = {5};
-    Bukkit.getScheduler().runTaskTimer(main, countDownTask -> {
+    gameSession.runTaskTimer(countDownTask -> {
       switch (idleTime[0]) {
         case 0 -> {
           countDownTask.cancel();
@@ -280,18 +322,18 @@ public class GameExecutor {
    * ボスバーを設置し、残り時間に応じて処理を分岐してゲームを管理する。
    *
    * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
+   * @param gameSession    ゲームセッション
    * @param gameDifficulty ゲームの難易度
    */
   private void handleGamePlay(
-      Player player, PlayerGameData playerGameData, GameDifficulty gameDifficulty) {
+      Player player, GameSession gameSession, GameDifficulty gameDifficulty) {
 
     int initialGameTime = gameDifficulty.getGameTime();
-    playerGameData.setGameTime(initialGameTime);
+    gameSession.getPlayerGameData().setGameTime(initialGameTime);
 
-    bossBarManager.createBossBar();
+    gameSession.getBossBarManager().createBossBar();
 
-    manageGamePlayByTimeLeft(player, playerGameData, gameDifficulty, initialGameTime);
+    manageGamePlayByTimeLeft(player, gameSession, gameDifficulty, initialGameTime);
   }
 
   /**
@@ -300,30 +342,31 @@ public class GameExecutor {
    * 残り時間が5秒になったらカウントダウンを開始し、残り時間が0になったらゲームタスクを中止して処理を実行する。
    *
    * @param player          ゲームを実行中のプレイヤー
-   * @param playerGameData  プレイヤーのゲームデータ
+   * @param gameSession     ゲームセッション
    * @param gameDifficulty  ゲームの難易度
    * @param initialGameTime ゲームの設定時間
    */
   private void manageGamePlayByTimeLeft(
-      Player player, PlayerGameData playerGameData,
+      Player player, GameSession gameSession,
       GameDifficulty gameDifficulty, int initialGameTime) {
 
-    Map<LivingEntity, EntityData> entityDataMap = playerGameData.getEntityDataMap();
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
+    Map<LivingEntity, EntityData> entityDataMap = gameSession.getEntityDataMap();
 
-    Bukkit.getScheduler().runTaskTimer(main, gameTask -> {
+    gameSession.runTaskTimer(gameTask -> {
       int timeLeft = playerGameData.getGameTime();
 
       if (playerGameData.getMatchedPair() == gameDifficulty.getPairNum()) {
         gameTask.cancel();
-        handleFindAllPairs(player, playerGameData, gameDifficulty, entityDataMap, timeLeft);
+        handleFindAllPairs(player, gameSession, gameDifficulty, timeLeft);
         return;
       }
 
-      if (timeLeft == initialGameTime && !playerGameData.isSpawnedEntity()) {
-        initGameAtFirstTick(player, playerGameData, gameDifficulty, entityDataMap);
+      if (timeLeft == initialGameTime && gameSession.getPhase() == GamePhase.COUNTDOWN) {
+        initGameAtFirstTick(player, gameSession, entityDataMap);
       } else if (timeLeft <= 0) {
         gameTask.cancel();
-        handleGameEnd(player, playerGameData, gameDifficulty, entityDataMap);
+        handleGameEnd(player, gameSession, gameDifficulty);
         return;
       } else if (timeLeft <= 5) {
         sendTextManager.sendCountDownToEndGameTitle(player, timeLeft);
@@ -331,141 +374,150 @@ public class GameExecutor {
       }
 
       soundEffectManager.playCursedEntitySound(player, gameDifficulty);
-      bossBarManager.updateBossBar(timeLeft, initialGameTime);
+      gameSession.getBossBarManager().updateBossBar(timeLeft, initialGameTime);
       playerGameData.reduceTime(1);
     }, TickTime.DELAY_5_SECONDS, TickTime.PERIOD_1_SECOND);
   }
 
   /**
    * 初めのtickでゲームの初期化処理を行う。<br>
-   * スコアボードを作成し、呪いをかけられた姿のエンティティを出現させ、ボスバーをプレイヤーに表示する。
+   * カウントダウン中に出現が間に合わなかった盤面のスロットを出現させ、ボスバーをプレイヤーに表示する。<br>
+   * 盤面が揃った時点をリプレイログの起点とし、セッションをプレイ中の段階に進める。
    *
-   * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
-   * @param gameDifficulty ゲームの難易度
-   * @param entityDataMap  エンティティデータマップ
+   * @param player        ゲームを実行中のプレイヤー
+   * @param gameSession   ゲームセッション
+   * @param entityDataMap エンティティデータマップ
    */
   private void initGameAtFirstTick(
-      Player player, PlayerGameData playerGameData, GameDifficulty gameDifficulty,
-      Map<LivingEntity, EntityData> entityDataMap) {
+      Player player, GameSession gameSession, Map<LivingEntity, EntityData> entityDataMap) {
 
-    scoreboardManager.createScoreboard(player);
-    spawnEntityManager.spawnInitialCursedEntity(
-        player, gameDifficulty, playerGameData, entityDataMap);
-    bossBarManager.showBossBarToPlayer(player);
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
+    spawnPipeline.finish(gameSession);
+    playerGameData.getReplayRecorder().start(entityDataMap.size());
+    gameSession.getBossBarManager().showBossBarToPlayer(player);
+    gameSession.setPhase(GamePhase.PLAYING);
   }
 
   /**
    * すべてのペアを揃えた場合に処理を実行する。<br>
    * 残り時間をスコアに加算し、残り時間を0にしてゲームを終了する。<br>
-   * クリア情報をDBに登録する（初回クリア時のみ）。
+   * 初回クリアかどうかを確認してから、クリア情報をDBに登録する（初回クリア時のみ）。<br>
+   * 進捗状況を読み込めない場合は初回クリアではないものとして扱う。
    *
    * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
+   * @param gameSession    ゲームセッション
    * @param gameDifficulty ゲームの難易度
-   * @param entityDataMap  エンティティデータマップ
    * @param timeLeft       ゲームの残り時間
    */
   private void handleFindAllPairs(
-      Player player, PlayerGameData playerGameData, GameDifficulty gameDifficulty,
-      Map<LivingEntity, EntityData> entityDataMap, int timeLeft) {
+      Player player, GameSession gameSession, GameDifficulty gameDifficulty, int timeLeft) {
 
-    soundEffectManager.playGameClearSound(player);
+    gameSession.setPhase(GamePhase.ENDING);
+    soundEffectManager.playGameClearSound(player, gameSession);
 
-    playerGameData.setFirstClear(gameStatusChecker.isFirstClear(player));
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     playerGameData.addScore((int) Math.round(timeLeft * gameDifficulty.getTimeBonus()));
     playerGameData.endTime();
-    playerProgressConnector.updateGameClear(player.getUniqueId(), gameDifficulty);
 
-    // タイトル表示の競合防止としてrunTask()で実行
-    Bukkit.getScheduler().runTask(main, () ->
-        handleGameEnd(player, playerGameData, gameDifficulty, entityDataMap));
+    gameStatusChecker.isFirstClear(player)
+        .exceptionally(ex -> false)
+        .thenAccept(isFirstClear -> {
+          playerGameData.setFirstClear(isFirstClear);
+          playerProgressConnector.updateGameClear(player.getUniqueId(), gameDifficulty);
+
+          // タイトル表示の競合防止としてrunTask()で実行
+          gameSession.runTask(() -> handleGameEnd(player, gameSession, gameDifficulty));
+        });
   }
 
   /**
    * ゲーム終了時に処理を実行する。<br>
-   * ボスバーを削除し、ゲーム終了のメッセージとスコアを表示する。<br>
-   * DBにスコア情報を登録してプレイヤーの無敵状態を解除し、出現させたエンティティを消滅させる。
+   * ボスバーを削除し、メモリ上のハイスコアと比較して更新してから、ゲーム終了のメッセージとスコアを表示する。<br>
+   * ハイスコアを読み込めていない場合はハイスコアの判定を行わない。<br>
+   * DBにスコア情報を登録してプレイヤーの無敵状態を解除し、セッションを閉じる。
    *
    * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーデータ
+   * @param gameSession    ゲームセッション
    * @param gameDifficulty ゲームの難易度
-   * @param entityDataMap  エンティティデータマップ
    */
   private void handleGameEnd(
-      Player player, PlayerGameData playerGameData,
-      GameDifficulty gameDifficulty, Map<LivingEntity, EntityData> entityDataMap) {
+      Player player, GameSession gameSession, GameDifficulty gameDifficulty) {
 
-    bossBarManager.removeBossBar();
+    gameSession.setPhase(GamePhase.ENDING);
+    gameSession.getBossBarManager().removeBossBar();
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     boolean isClear = playerGameData.isFirstClear() != null;
     boolean isHighScore =
-        playerGameData.getScore() > playerScoreConnector.getHighScore(gameDifficulty);
+        playerScoreConnector.updateHighScore(gameDifficulty, playerGameData.getScore());
 
-    addEffectIfGameOver(player, isClear);
-    showAndRegisterGameResult(player, playerGameData, gameDifficulty, isClear, isHighScore);
-    resetGame(player, playerGameData, entityDataMap);
+    addEffectIfGameOver(player, gameSession, isClear);
+    showAndRegisterGameResult(player, gameSession, gameDifficulty, isClear, isHighScore);
+    resetGame(player, gameSession);
   }
 
   /**
    * 時間切れでゲームオーバーになった場合は視覚効果をつける。
    *
-   * @param player  ゲームを実行中のプレイヤー
-   * @param isClear クリアしたかどうか
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
+   * @param isClear     クリアしたかどうか
    */
-  private void addEffectIfGameOver(Player player, boolean isClear) {
+  private void addEffectIfGameOver(Player player, GameSession gameSession, boolean isClear) {
     if (!isClear) {
-      soundEffectManager.playGameOverSound(player);
+      soundEffectManager.playGameOverSound(player, gameSession);
       visualEffectManager.spawnGameOverParticle(player);
     }
   }
 
   /**
-   * ゲームの結果を表示し、DBにスコアを登録する。<br>
-   * ハイスコアを更新した場合は併せてメッセージを表示し、初回クリアの場合は初回クリア用の処理を行う。
+   * ゲームの結果を表示し、DBにスコアを登録してリプレイログを保存する。<br>
+   * ハイスコアを更新した場合は併せてメッセージを表示し、初回クリアの場合は初回クリア用の処理を行う。<br>
+   * 結果の表示はセッションを閉じた後に行うため、セッションを閉じても取り消さない処理として予約する。
    *
    * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
+   * @param gameSession    ゲームセッション
    * @param gameDifficulty ゲームの難易度
    * @param isClear        クリアしたかどうか
    * @param isHighScore    ハイスコアを更新したかどうか
    */
   private void showAndRegisterGameResult(
-      Player player, PlayerGameData playerGameData, GameDifficulty gameDifficulty,
+      Player player, GameSession gameSession, GameDifficulty gameDifficulty,
       boolean isClear, boolean isHighScore) {
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     sendTextManager.sendGameEndTitle(player, isClear, playerGameData);
 
     long delayTime = TickTime.DELAY_3_SECONDS;
-    Bukkit.getScheduler().runTaskLater(main, () -> {
+    gameSession.runDetachedTaskLater(() -> {
       sendTextManager.sendGameScoreTitle(player, playerGameData, isHighScore);
       scoreboardManager.clearScoreboard(player);
       if (isHighScore) {
-        visualEffectManager.spawnFireworksForHighScore(player);
+        visualEffectManager.spawnFireworksForHighScore(player, gameSession);
       }
     }, delayTime);
 
     playerScoreConnector.insertNewScore(playerGameData, gameDifficulty);
+    playerGameData.getReplayRecorder().record(ReplayEventType.END, playerGameData.getScore());
+    replayStore.save(playerGameData);
 
     if (playerGameData.isFirstClear() != null && playerGameData.isFirstClear().equals(true)) {
-      handleIfFirstClear(player, delayTime);
+      handleIfFirstClear(player, gameSession, delayTime);
     }
   }
 
   /**
    * ゲームをリセットする。<br>
-   * 出現させたエンティティを消滅させ、プレイヤーの状態をゲーム開始前の状態に戻し、プレイヤーのゲームデータを削除する。
+   * セッションを閉じて（予約済みの処理の取り消しとエンティティの消滅）、プレイヤーの状態をゲーム開始前の状態に戻し、
+   * セッションの登録を解除する。
    *
-   * @param player         ゲームを実行中のプレイヤー
-   * @param playerGameData プレイヤーのゲームデータ
-   * @param entityDataMap  エンティティデータマップ
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
    */
-  private void resetGame(
-      Player player, PlayerGameData playerGameData, Map<LivingEntity, EntityData> entityDataMap) {
-
-    entityDataMap.keySet().forEach(Entity :: remove);
-    restorePlayerStatus(player, playerGameData);
-    playerGameDataMap.remove(player.getUniqueId());
+  private void resetGame(Player player, GameSession gameSession) {
+    gameSession.close();
+    restorePlayerStatus(player, gameSession.getPlayerGameData());
+    gameSessionRegistry.unregister(gameSession);
   }
 
   /**
@@ -482,16 +534,16 @@ public class GameExecutor {
   /**
    * 初回クリアの場合、エピローグが書かれた本を開いて5秒後に閉じ、初回クリア時のメッセージをタイトル表示する。
    *
-   * @param player    ゲームを実行中のプレイヤー
-   * @param delayTime 処理を遅らせる時間
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
+   * @param delayTime   処理を遅らせる時間
    */
-  private void handleIfFirstClear(Player player, long delayTime) {
+  private void handleIfFirstClear(Player player, GameSession gameSession, long delayTime) {
     delayTime += TickTime.DELAY_5_SECONDS;
-    Bukkit.getScheduler().runTaskLater(main, () ->
-        writtenBookManager.openEpilogueBook(player), delayTime);
+    gameSession.runDetachedTaskLater(() -> writtenBookManager.openEpilogueBook(player), delayTime);
 
     delayTime += TickTime.DELAY_20_SECONDS; // エピローグを読む時間分遅らせる
-    Bukkit.getScheduler().runTaskLater(main, () -> {
+    gameSession.runDetachedTaskLater(() -> {
       player.closeInventory();
       sendTextManager.sendFirstClearTitle(player);
     }, delayTime);
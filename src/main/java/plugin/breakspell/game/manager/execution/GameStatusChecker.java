@@ -1,89 +1,103 @@
 package plugin.breakspell.game.manager.execution;
 
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import plugin.breakspell.database.PlayerProgressConnector;
+import plugin.breakspell.database.AsyncPlayerProgressConnector;
+import plugin.breakspell.database.data.PlayerProgress;
 import plugin.breakspell.game.constant.GameDifficulty;
-import plugin.breakspell.game.data.PlayerGameData;
+import plugin.breakspell.game.session.GameSessionRegistry;
 
 /**
  * プレイヤーの状況を確認するクラス。
  */
 public class GameStatusChecker {
 
-  private final PlayerProgressConnector playerProgressConnector;
-  private final Map<UUID, PlayerGameData> playerGameDataMap;
+  private final AsyncPlayerProgressConnector playerProgressConnector;
+  private final GameSessionRegistry gameSessionRegistry;
 
   public GameStatusChecker(
-      PlayerProgressConnector playerProgressConnector, Map<UUID, PlayerGameData> playerGameDataMap) {
+      AsyncPlayerProgressConnector playerProgressConnector,
+      GameSessionRegistry gameSessionRegistry) {
 
     this.playerProgressConnector = playerProgressConnector;
-    this.playerGameDataMap = playerGameDataMap;
+    this.gameSessionRegistry = gameSessionRegistry;
   }
 
   /**
-   * プレイヤーデータマップにプレイヤーのUUIDが含まれているかを確認し、ゲームを実行中か判定する。
+   * プレイヤーのゲームセッションが登録されているかを確認し、ゲームを実行中か判定する。
    *
    * @param player コマンドを実行したプレイヤー
    * @return ゲームを実行中かどうか
    */
   public boolean isExecutingGame(Player player) {
-    return playerGameDataMap.containsKey(player.getUniqueId());
+    return gameSessionRegistry.contains(player.getUniqueId());
   }
 
   /**
-   * ひとつ前の難易度でゲームをプレイしたことがあるか判定する。
+   * ひとつ前の難易度でゲームをプレイしたことがあるか判定する。<br>
+   * 進捗状況がキャッシュにある場合はその場で、ない場合はDBから読み込んだ後にメインスレッドで判定結果を受け取る。
    *
    * @param player         コマンドを実行またはゲームメニューGUIをクリックしたプレイヤー
    * @param gameDifficulty ゲームの難易度
    * @return ゲームのプレイ有無（反転）
    */
-  public boolean hasNotPlayedPreDifficulty(Player player, GameDifficulty gameDifficulty) {
+  public CompletableFuture<Boolean> hasNotPlayedPreDifficulty(
+      Player player, GameDifficulty gameDifficulty) {
+
     UUID uuid = player.getUniqueId();
 
     GameDifficulty preDifficulty = GameDifficulty.getPreDifficulty(gameDifficulty);
     if (preDifficulty == null) {
-      return false;
+      return CompletableFuture.completedFuture(false);
     }
 
     if (gameDifficulty == GameDifficulty.NORMAL || gameDifficulty == GameDifficulty.HARD) {
-      return playerProgressConnector.hasNotPlayed(uuid, preDifficulty);
+      return playerProgressConnector.getPlayerProgress(uuid)
+          .thenApply(progressMap -> {
+            PlayerProgress preProgress = progressMap.get(preDifficulty);
+            return preProgress == null || !preProgress.isPlayed();
+          });
     } else {
-      return false;
+      return CompletableFuture.completedFuture(false);
     }
   }
 
   /**
-   * いずれかの難易度でゲームをプレイしたことがあるか判定する。
+   * いずれかの難易度でゲームをプレイしたことがあるか判定する。<br>
+   * 進捗状況がキャッシュにある場合はその場で、ない場合はDBから読み込んだ後にメインスレッドで判定結果を受け取る。
    *
    * @param player ゲームメニューGUIを開いているプレイヤー、あるいはコマンドまたはゲームメニューGUIをクリックしたプレイヤー
    * @return 初回プレイかどうか
    */
-  public boolean isFirstPlay(Player player) {
-    return playerProgressConnector.hasNotPlayedAnyDifficulty(player.getUniqueId());
+  public CompletableFuture<Boolean> isFirstPlay(Player player) {
+    return playerProgressConnector.getPlayerProgress(player.getUniqueId())
+        .thenApply(progressMap -> progressMap.values().stream()
+            .noneMatch(PlayerProgress :: isPlayed));
   }
 
   /**
-   * いずれかの難易度でゲームをクリアしたことがあるか判定する。
+   * いずれかの難易度でゲームをクリアしたことがあるか判定する。<br>
+   * 進捗状況がキャッシュにある場合はその場で、ない場合はDBから読み込んだ後にメインスレッドで判定結果を受け取る。
    *
    * @param player ゲームメニューGUIを開いているプレイヤー、あるいはゲームを実行中のプレイヤー
    * @return 初回クリアかどうか
    */
-  public boolean isFirstClear(Player player) {
-    return playerProgressConnector.hasNotClearedAnyDifficulty(player.getUniqueId());
+  public CompletableFuture<Boolean> isFirstClear(Player player) {
+    return playerProgressConnector.getPlayerProgress(player.getUniqueId())
+        .thenApply(progressMap -> progressMap.values().stream()
+            .noneMatch(PlayerProgress :: isCleared));
   }
 
   /**
-   * 対象のエンティティがゲームで出現させたエンティティかどうかを判定する。
+   * 対象のエンティティがゲームで出現させたエンティティかどうかを判定する。<br>
+   * エンティティに付与された所有者から判定するため、実行中のゲームの数によらず一定時間で判定できる。
    *
    * @param livingEntity 対象のエンティティ
    * @return ゲームで出現させたエンティティかどうか
    */
   public boolean isGameEntity(LivingEntity livingEntity) {
-    return playerGameDataMap.values().stream()
-        .map(PlayerGameData :: getEntityDataMap)
-        .anyMatch(entityDataMap -> entityDataMap.containsKey(livingEntity));
+    return gameSessionRegistry.isGameEntity(livingEntity);
   }
 }
@@ -1,5 +1,6 @@
 package plugin.breakspell.game.manager.execution;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -21,102 +22,174 @@ import plugin.breakspell.game.constant.EntityPair;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.Offsets;
 import plugin.breakspell.game.data.EntityData;
-import plugin.breakspell.game.data.PlayerGameData;
 import plugin.breakspell.game.manager.effect.VisualEffectManager;
+import plugin.breakspell.game.session.EntityPool;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.session.GameSessionRegistry;
 
 /**
- * エンティティを出現させるクラス。
+ * エンティティを出現させるクラス。<br>
+ * 盤面の出現時にスロットごとに呪いをかけられた姿と真の姿のエンティティを出現させて{@link EntityPool}に登録し、
+ * ゲーム中は表示・非表示と位置を切り替えて姿を変える（エンティティの消滅と再出現を繰り返さない）。<br>
+ * 出現させたエンティティには所有者のUUIDとスロットを付与し、所有するゲームセッションを取得できるようにする。
  */
 public class SpawnEntityManager {
 
   private final VisualEffectManager visualEffectManager;
+  private final GameSessionRegistry gameSessionRegistry;
 
   private static final String CURSED_ENTITY_TEAM = "cursed_entity";
   private static final String TRUE_NATURE_TEAM = "true_nature";
 
-  public SpawnEntityManager(VisualEffectManager visualEffectManager) {
+  public SpawnEntityManager(
+      VisualEffectManager visualEffectManager, GameSessionRegistry gameSessionRegistry) {
+
     this.visualEffectManager = visualEffectManager;
+    this.gameSessionRegistry = gameSessionRegistry;
   }
 
   /**
-   * エンティティを出現させる。<br>
+   * 盤面を作成する（エンティティはまだ出現させない）。<br>
    * 難易度に応じた呪われたエンティティリスト、真の姿のエンティティリスト、x軸とz軸のリストを取得する。<br>
-   * 真の姿のエンティティのリストはシャッフルしてランダムに振り分けられるようにする。
+   * 真の姿のエンティティのリストはコピーしてからシャッフルし、ランダムに振り分けられるようにする
+   * （複数の盤面を並行して出現させても互いの振り分けに影響しない）。<br>
+   * スロットの数のエンティティプールを作成し、ゲームセッションに設定する。
    *
    * @param player         ゲームを実行中のプレイヤー
    * @param gameDifficulty ゲームの難易度
-   * @param playerGameData プレイヤーのゲームデータ
-   * @param entityDataMap  エンティティデータマップ
+   * @param gameSession    ゲームセッション
+   * @return 盤面の出現処理
    */
-  public void spawnInitialCursedEntity(
-      Player player, GameDifficulty gameDifficulty,
-      PlayerGameData playerGameData, Map<LivingEntity, EntityData> entityDataMap) {
+  public BoardSpawnJob prepareBoard(
+      Player player, GameDifficulty gameDifficulty, GameSession gameSession) {
 
-    List<EntityType> cursedEntityList = gameDifficulty.getCursedEntityList();
-    List<EntityType> trueNatureList = gameDifficulty.getTrueNatureList();
+    List<EntityType> trueNatureList = new ArrayList<>(gameDifficulty.getTrueNatureList());
     Collections.shuffle(trueNatureList);
-    List<List<Integer>> xZList = gameDifficulty.getXZList();
 
-    for (int en = 0; en < trueNatureList.size(); en++) {
-      spawnCursedEntity(player, entityDataMap, cursedEntityList, trueNatureList, xZList, en);
-    }
+    gameSession.setEntityPool(new EntityPool(trueNatureList.size()));
+    return new BoardSpawnJob(
+        player, gameSession, player.getLocation().clone(),
+        gameDifficulty.getCursedEntityList(), trueNatureList, gameDifficulty.getXZList());
+  }
+
+  /**
+   * 盤面の次のスロットのエンティティを出現させる。すべてのスロットを出現させたら、出現済みとする。
+   *
+   * @param boardSpawnJob 盤面の出現処理
+   */
+  public void spawnNextSlot(BoardSpawnJob boardSpawnJob) {
+    GameSession gameSession = boardSpawnJob.getGameSession();
+    spawnCursedEntity(
+        boardSpawnJob.getPlayer(), gameSession.getEntityDataMap(), gameSession.getEntityPool(),
+        boardSpawnJob.getBaseLocation(), boardSpawnJob.getCursedEntityList(),
+        boardSpawnJob.getTrueNatureList(), boardSpawnJob.getXZList(),
+        boardSpawnJob.advanceSlot());
 
-    playerGameData.setSpawnedEntity(true);
+    if (boardSpawnJob.isFinished()) {
+      gameSession.getPlayerGameData().setSpawnedEntity(true);
+    }
   }
 
   /**
-   * 呪いをかけられた姿のエンティティを出現させる。<br>
+   * 呪いをかけられた姿のエンティティを出現させ、同じ位置に真の姿のエンティティを非表示で出現させる。<br>
    * 呪いをかけられた姿のエンティティリストからランダムでエンティティの種類を取得する。<br>
-   * プレイヤーの位置とx軸とz軸のリストの値から換算した位置にエンティティを出現させて、視覚効果をつけ、状態を設定する。<br>
-   * エンティティデータマップに呪いをかけられたエンティティとエンティティデータを紐付けてマップ形式で保持する。
+   * 基準の位置とx軸とz軸のリストの値から換算した位置にエンティティを出現させて、視覚効果をつけ、状態を設定する。<br>
+   * エンティティデータマップに呪いをかけられたエンティティとエンティティデータを紐付けてマップ形式で保持し、
+   * 2体のエンティティをエンティティプールに登録して、所有者のUUIDとスロットを付与する。
    *
    * @param player           プレイヤー
    * @param entityDataMap    エンティティデータマップ
+   * @param entityPool       エンティティプール
+   * @param baseLocation     出現させる位置の基準
    * @param cursedEntityList 呪いをかけられた姿のエンティティリスト
    * @param trueNatureList   真の姿のエンティティリスト
    * @param xZList           x軸とz軸のリスト
    * @param en               エンティティのインデックス
    */
   private void spawnCursedEntity(
-      Player player, Map<LivingEntity, EntityData> entityDataMap,
-      List<EntityType> cursedEntityList, List<EntityType> trueNatureList,
+      Player player, Map<LivingEntity, EntityData> entityDataMap, EntityPool entityPool,
+      Location baseLocation, List<EntityType> cursedEntityList, List<EntityType> trueNatureList,
       List<List<Integer>> xZList, int en) {
 
     EntityType cursedEntityType =
         cursedEntityList.get(new SplittableRandom().nextInt(cursedEntityList.size()));
 
+    Location spawnLocation = getSpawnLocation(baseLocation, xZList, en);
     LivingEntity cursedEntity =
-        (LivingEntity) player.getWorld().spawnEntity(
-            getSpawnLocation(player, xZList, en), cursedEntityType, false);
+        spawnPooledEntity(player, spawnLocation, cursedEntityType, false);
     visualEffectManager.spawnCursedParticle(player, cursedEntity.getLocation());
     setCursedEntityStatus(player, cursedEntity);
 
     EntityType trueNatureType = trueNatureList.get(en);
     String trueNatureName = EntityPair.getEntityName(trueNatureType, entityDataMap);
-    entityDataMap.put(cursedEntity, new EntityData(trueNatureType, trueNatureName));
+    LivingEntity trueNature = spawnPooledEntity(player, spawnLocation, trueNatureType, true);
+    setTrueNatureStatus(player, trueNature, trueNatureName);
+    setHidden(trueNature, true);
+    trueNature.setSilent(true);
+
+    entityDataMap.put(cursedEntity, new EntityData(trueNatureType, trueNatureName, en));
+    entityPool.put(en, cursedEntity, trueNature);
+    gameSessionRegistry.tagEntity(cursedEntity, player.getUniqueId(), en);
+    gameSessionRegistry.tagEntity(trueNature, player.getUniqueId(), en);
+  }
+
+  /**
+   * エンティティプールに登録するエンティティを出現させる。<br>
+   * サーバーが異常終了してセッションを閉じられなかった場合にチャンクに残らないよう、永続化しない設定にする。<br>
+   * 非表示で出現させる場合は、プレイヤーに一瞬も表示されないよう出現前に非表示にする。
+   *
+   * @param player     ゲームを実行中のプレイヤー
+   * @param location   出現させる位置
+   * @param entityType エンティティの種類
+   * @param hidden     非表示で出現させるかどうか
+   * @return 出現させたエンティティ
+   */
+  private LivingEntity spawnPooledEntity(
+      Player player, Location location, EntityType entityType, boolean hidden) {
+
+    Class<? extends LivingEntity> entityClass =
+        Objects.requireNonNull(entityType.getEntityClass()).asSubclass(LivingEntity.class);
+    return player.getWorld().spawn(location, entityClass, false, entity -> {
+      entity.setPersistent(false);
+      entity.setVisibleByDefault(!hidden);
+    });
+  }
+
+  /**
+   * エンティティの表示・非表示を切り替える。<br>
+   * 非表示の間は動かないよう、AIを止める。
+   *
+   * @param livingEntity エンティティ
+   * @param hidden       非表示にするかどうか
+   */
+  private void setHidden(LivingEntity livingEntity, boolean hidden) {
+    livingEntity.setVisibleByDefault(!hidden);
+    livingEntity.setAI(!hidden);
+    livingEntity.setVelocity(new Vector(0, 0, 0));
   }
 
   /**
    * エンティティを出現させる位置を取得する。
    *
-   * @param player プレイヤー
-   * @param xZList x軸とz軸のリスト
-   * @param en     エンティティのインデックス
+   * @param baseLocation 出現させる位置の基準
+   * @param xZList       x軸とz軸のリスト
+   * @param en           エンティティのインデックス
    * @return エンティティを出現させる位置
    */
   private Location getSpawnLocation(
-      Player player, List<List<Integer>> xZList, int en) {
+      Location baseLocation, List<List<Integer>> xZList, int en) {
 
-    Location playerLocation = player.getLocation();
-    double x = playerLocation.getX() + xZList.get(en).getFirst();
-    double y = playerLocation.getY() + Offsets.BIT_FLOAT;
-    double z = playerLocation.getZ() + xZList.get(en).getLast();
+    double x = baseLocation.getX() + xZList.get(en).getFirst();
+    double y = baseLocation.getY() + Offsets.BIT_FLOAT;
+    double z = baseLocation.getZ() + xZList.get(en).getLast();
 
-    return new Location(player.getWorld(), x, y, z);
+    return new Location(baseLocation.getWorld(), x, y, z);
   }
 
   /**
-   * 視覚効果をつけながら呪いをかけられた姿のエンティティを再出現させる。
+   * 視覚効果をつけながら呪いをかけられた姿のエンティティに戻す。<br>
+   * 真の姿のエンティティを非表示にし、その位置に非表示にしていた呪いをかけられた姿のエンティティを移動させて表示する。<br>
+   * エンティティデータマップの紐付けを真の姿のエンティティから呪いをかけられた姿のエンティティに差し替える。
    *
    * @param player        プレイヤー
    * @param entityDataMap エンティティデータマップ
@@ -124,16 +197,21 @@ public class SpawnEntityManager {
    * @param cursedEntity  呪いをかけられた姿のエンティティ
    * @param entityData    エンティティデータ
    */
-  public void respawnCursedEntity(
+  public void restoreCursedEntity(
       Player player, Map<LivingEntity, EntityData> entityDataMap,
       LivingEntity trueNature, LivingEntity cursedEntity, EntityData entityData) {
 
     Location entityLocation = trueNature.getLocation();
     visualEffectManager.spawnRespawnCursedParticle(player, entityLocation);
-    LivingEntity spawnEntity =
-        (LivingEntity) player.getWorld().spawnEntity(entityLocation, cursedEntity.getType(), false);
-    setCursedEntityStatus(player, spawnEntity);
-    entityDataMap.put(spawnEntity, new EntityData(trueNature.getType(), entityData.getTrueNatureName()));
+    setHidden(trueNature, true);
+    trueNature.setSilent(true);
+    entityDataMap.remove(trueNature);
+
+    cursedEntity.teleport(entityLocation);
+    setHidden(cursedEntity, false);
+    entityDataMap.put(
+        cursedEntity,
+        new EntityData(trueNature.getType(), entityData.getTrueNatureName(), entityData.getSlot()));
   }
 
   /**
@@ -175,27 +253,27 @@ public class SpawnEntityManager {
   }
 
   /**
-   * エンティティデータから真の姿のエンティティの種類を取得し、クリックされたエンティティの位置に出現させる。<br>
-   * エンティティデータから真の姿のエンティティの名前を取得し、出現させたエンティティに設定する。<br>
-   * エンティティのデータを生成し、真の姿のエンティティと紐付けてマップ形式で保持する。
+   * クリックされたエンティティを非表示にし、その位置にエンティティプールの真の姿のエンティティを移動させて表示する。<br>
+   * エンティティのデータを生成し（スロットは引き継ぐ）、真の姿のエンティティと紐付けてマップ形式で保持する。
    *
-   * @param player        ゲームを実行中のプレイヤー
-   * @param entityDataMap エンティティデータマップ
+   * @param gameSession   ゲームセッション
    * @param entityData    エンティティデータ
    * @param clickedEntity クリックされたエンティティ
    * @return 真の姿のエンティティ
    */
-  public LivingEntity spawnTrueNature(
-      Player player, Map<LivingEntity, EntityData> entityDataMap,
-      EntityData entityData, LivingEntity clickedEntity) {
+  public LivingEntity revealTrueNature(
+      GameSession gameSession, EntityData entityData, LivingEntity clickedEntity) {
 
-    EntityType trueNatureType = entityData.getTransformedEntityType();
-    LivingEntity trueNature =
-        (LivingEntity) player.getWorld().spawnEntity(
-            clickedEntity.getLocation(), trueNatureType, false);
-    String trueNatureName = entityData.getTrueNatureName();
-    setTrueNatureStatus(player, trueNature, trueNatureName);
-    entityDataMap.put(trueNature, new EntityData(clickedEntity.getType(), trueNatureName));
+    LivingEntity trueNature = gameSession.getEntityPool().getTrueNature(entityData.getSlot());
+    setHidden(clickedEntity, true);
+
+    trueNature.teleport(clickedEntity.getLocation());
+    trueNature.setSilent(false);
+    setHidden(trueNature, false);
+    gameSession.getEntityDataMap().put(
+        trueNature,
+        new EntityData(
+            clickedEntity.getType(), entityData.getTrueNatureName(), entityData.getSlot()));
     return trueNature;
   }
 
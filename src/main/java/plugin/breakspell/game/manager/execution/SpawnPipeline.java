@@ -0,0 +1,179 @@
+package plugin.breakspell.game.manager.execution;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.bukkit.entity.Player;
+import plugin.breakspell.game.constant.GameDifficulty;
+import plugin.breakspell.game.session.GamePhase;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.tick.GameTickDriver;
+
+/**
+ * 盤面のエンティティを複数のtickに分けて出現させるクラス。<br>
+ * ゲームごとの盤面の出現処理をキューに入れ、毎tick、予算の時間内で期限（カウントダウンの終了時）が近い盤面から順に出現させる。<br>
+ * 複数のゲームが同時に開始しても先に始まるゲームの盤面から揃い、1tickあたりの出現処理の時間は予算に収まる。<br>
+ * 出現はゲーム開始前のカウントダウン中に行い、カウントダウンの終了時に残っているスロットはその場で出現させる。
+ * その場での出現は予算の対象外のため、回数と処理時間を別に計測する。<br>
+ * メインスレッドからのみ呼び出す。
+ */
+public class SpawnPipeline {
+
+  private final SpawnEntityManager spawnEntityManager;
+  private final GameTickDriver gameTickDriver;
+  private final long budgetNanos;
+  private final PriorityQueue<BoardSpawnJob> jobQueue =
+      new PriorityQueue<>(Comparator.comparingLong(BoardSpawnJob :: getDeadlineTick));
+
+  private long averageSlotNanos;
+  private long spawnTicks;
+  private long totalSpawnNanos;
+  private long maxSpawnNanos;
+  private long overBudgetTicks;
+  private long spawnedSlots;
+  private long flushedSlots;
+  private long flushCount;
+  private long totalFlushNanos;
+  private long maxFlushNanos;
+
+  private static final int AVERAGE_WEIGHT = 8;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  public SpawnPipeline(
+      SpawnEntityManager spawnEntityManager, GameTickDriver gameTickDriver, double budgetMillis) {
+
+    this.spawnEntityManager = spawnEntityManager;
+    this.gameTickDriver = gameTickDriver;
+    this.budgetNanos = (long) (budgetMillis * NANOS_PER_MILLI);
+  }
+
+  /**
+   * 毎tickの出現処理を開始する。
+   */
+  public void start() {
+    gameTickDriver.runTaskTimer(null, pipelineTask -> spawnWithinBudget(), 1, 1);
+  }
+
+  /**
+   * 盤面を作成し、出現処理をキューに追加する。
+   *
+   * @param player         ゲームを実行中のプレイヤー
+   * @param gameDifficulty ゲームの難易度
+   * @param gameSession    ゲームセッション
+   * @param deadlineDelay  出現を終えるべき時点（カウントダウンの終了時）までのtick数
+   */
+  public void enqueue(
+      Player player, GameDifficulty gameDifficulty, GameSession gameSession, long deadlineDelay) {
+
+    BoardSpawnJob boardSpawnJob =
+        spawnEntityManager.prepareBoard(player, gameDifficulty, gameSession);
+    boardSpawnJob.setDeadlineTick(gameTickDriver.getCurrentTick() + deadlineDelay);
+    jobQueue.add(boardSpawnJob);
+  }
+
+  /**
+   * ゲームセッションの盤面の残りのスロットをその場ですべて出現させ、キューから取り除く。<br>
+   * カウントダウンの終了時に、出現が間に合わなかった場合に使用する。<br>
+   * 処理時間はゲームセッションの負荷として加算し、予算内の出現とは別に計測する。
+   *
+   * @param gameSession ゲームセッション
+   */
+  public void finish(GameSession gameSession) {
+    Iterator<BoardSpawnJob> iterator = jobQueue.iterator();
+    while (iterator.hasNext()) {
+      BoardSpawnJob boardSpawnJob = iterator.next();
+      if (boardSpawnJob.getGameSession() == gameSession) {
+        iterator.remove();
+        flushedSlots += boardSpawnJob.getRemainingSlots();
+
+        long startedAt = System.nanoTime();
+        while (!boardSpawnJob.isFinished()) {
+          spawnEntityManager.spawnNextSlot(boardSpawnJob);
+        }
+        long flushNanos = System.nanoTime() - startedAt;
+        gameSession.addTickCost(flushNanos);
+        flushCount++;
+        totalFlushNanos += flushNanos;
+        maxFlushNanos = Math.max(maxFlushNanos, flushNanos);
+        return;
+      }
+    }
+  }
+
+  /**
+   * 期限が最も近い盤面からスロットを1つずつ出現させ、すべてのスロットを出現させた盤面はキューから取り除く。<br>
+   * 次のスロットを出現させると予算を超えると見込まれる時点で、そのtickの出現を終える。
+   * ただし、盤面の出現が止まらないよう、1tickに少なくとも1スロットは出現させる。<br>
+   * スロットごとの処理時間は、その盤面のゲームセッションの負荷として加算する。
+   */
+  private void spawnWithinBudget() {
+    long startedAt = System.nanoTime();
+    long elapsedNanos = 0;
+    int slotCount = 0;
+
+    while (!jobQueue.isEmpty()) {
+      if (slotCount > 0 && elapsedNanos + averageSlotNanos > budgetNanos) {
+        break;
+      }
+      BoardSpawnJob boardSpawnJob = jobQueue.peek();
+      GameSession gameSession = boardSpawnJob.getGameSession();
+      if (gameSession.getPhase() == GamePhase.CLOSED) {
+        jobQueue.poll();
+        continue;
+      }
+
+      long slotStartedAt = System.nanoTime();
+      spawnEntityManager.spawnNextSlot(boardSpawnJob);
+      long slotNanos = System.nanoTime() - slotStartedAt;
+      gameSession.addTickCost(slotNanos);
+      updateAverageSlotNanos(slotNanos);
+      slotCount++;
+
+      if (boardSpawnJob.isFinished()) {
+        jobQueue.poll();
+      }
+      elapsedNanos = System.nanoTime() - startedAt;
+    }
+
+    if (slotCount > 0) {
+      spawnTicks++;
+      spawnedSlots += slotCount;
+      totalSpawnNanos += elapsedNanos;
+      maxSpawnNanos = Math.max(maxSpawnNanos, elapsedNanos);
+      if (elapsedNanos > budgetNanos) {
+        overBudgetTicks++;
+      }
+    }
+  }
+
+  /**
+   * スロット1つ分の処理時間の移動平均を更新する。
+   *
+   * @param slotNanos スロット1つ分の処理時間（ナノ秒）
+   */
+  private void updateAverageSlotNanos(long slotNanos) {
+    averageSlotNanos = averageSlotNanos == 0
+        ? slotNanos
+        : averageSlotNanos + (slotNanos - averageSlotNanos) / AVERAGE_WEIGHT;
+  }
+
+  /**
+   * 盤面の出現処理の計測値を表示用に取得する。
+   *
+   * @return 盤面の出現処理の計測値
+   */
+  public List<String> getMetricsLines() {
+    return List.of(
+        String.format("盤面の出現 : 待機 %d 件, 平均 %.3f ms/tick (最大 %.3f ms, 予算 %.3f ms, 超過 %d tick)",
+            jobQueue.size(),
+            spawnTicks == 0 ? 0 : totalSpawnNanos / NANOS_PER_MILLI / spawnTicks,
+            maxSpawnNanos / NANOS_PER_MILLI, budgetNanos / NANOS_PER_MILLI, overBudgetTicks),
+        String.format("  出現 %d スロット (%d tick, 1スロット平均 %.3f ms)",
+            spawnedSlots + flushedSlots, spawnTicks, averageSlotNanos / NANOS_PER_MILLI),
+        String.format("  カウントダウン後にまとめて出現 : %d スロット (%d 回, 平均 %.3f ms, 最大 %.3f ms)",
+            flushedSlots, flushCount,
+            flushCount == 0 ? 0 : totalFlushNanos / NANOS_PER_MILLI / flushCount,
+            maxFlushNanos / NANOS_PER_MILLI));
+  }
+}
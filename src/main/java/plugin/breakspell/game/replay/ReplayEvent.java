@@ -0,0 +1,13 @@
+package plugin.breakspell.game.replay;
+
+/**
+ * リプレイログから読み込んだ1件分のイベント。
+ *
+ * @param type          イベントの種類
+ * @param tick          ゲーム開始からの経過tick
+ * @param firstOperand  1つ目のオペランド
+ * @param secondOperand 2つ目のオペランド（オペランドが1つ以下の種類の場合は0）
+ */
+public record ReplayEvent(ReplayEventType type, long tick, int firstOperand, int secondOperand) {
+
+}
@@ -0,0 +1,51 @@
+package plugin.breakspell.game.replay;
+
+import lombok.Getter;
+
+/**
+ * リプレイログに記録するイベントの種類を扱うenum。<br>
+ * 種類ごとにファイル上のイベントコードと、続けて記録する値（オペランド）の数を持つ。<br>
+ * 各オペランドの意味は以下のとおり。<br>
+ * START : 出現させたエンティティの数<br>
+ * CLICK : クリックしたエンティティのスロット<br>
+ * SPECIAL : スペシャルエンティティのスロット、スペシャルエンティティの種類（{@code SpecialEntity}の序数）<br>
+ * MATCH / MISMATCH : 1体目のスロット、2体目のスロット<br>
+ * END : 最終スコア
+ */
+@Getter
+public enum ReplayEventType {
+  START(0, 1),
+  CLICK(1, 1),
+  SPECIAL(2, 2),
+  MATCH(3, 2),
+  MISMATCH(4, 2),
+  END(5, 1);
+
+  private final byte code;
+  private final int operandCount;
+
+  private static final ReplayEventType[] CODE_TABLE = new ReplayEventType[values().length];
+
+  static {
+    for (ReplayEventType replayEventType : values()) {
+      CODE_TABLE[replayEventType.code] = replayEventType;
+    }
+  }
+
+  ReplayEventType(int code, int operandCount) {
+    this.code = (byte) code;
+    this.operandCount = operandCount;
+  }
+
+  /**
+   * イベントコードに合致するイベントの種類を取得する。
+   *
+   * @param code イベントコード
+   * @return イベントの種類（合致しない場合はnull）
+   */
+  public static ReplayEventType getReplayEventType(int code) {
+    return code >= 0 && code < CODE_TABLE.length
+        ? CODE_TABLE[code]
+        : null;
+  }
+}
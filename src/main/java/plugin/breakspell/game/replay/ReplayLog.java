@@ -0,0 +1,37 @@
+package plugin.breakspell.game.replay;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * リプレイログから読み込んだ1ゲーム分のイベント列。
+ *
+ * @param sessionId  ゲームのセッションID（スコア情報のセッションIDと同じ）
+ * @param difficulty ゲームの難易度
+ * @param eventList  記録順のイベントリスト
+ */
+public record ReplayLog(UUID sessionId, String difficulty, List<ReplayEvent> eventList) {
+
+  /**
+   * 指定の種類のイベントの件数を取得する。
+   *
+   * @param type イベントの種類
+   * @return イベントの件数
+   */
+  public long countEvents(ReplayEventType type) {
+    return eventList.stream()
+        .filter(replayEvent -> replayEvent.type() == type)
+        .count();
+  }
+
+  /**
+   * ゲーム開始から最後のイベントまでの経過tickを取得する。
+   *
+   * @return 最後のイベントの経過tick（イベントがない場合は0）
+   */
+  public long getLastTick() {
+    return eventList.isEmpty()
+        ? 0
+        : eventList.getLast().tick();
+  }
+}
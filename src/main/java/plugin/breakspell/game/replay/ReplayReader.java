@@ -0,0 +1,106 @@
+package plugin.breakspell.game.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * リプレイログのファイルを読み込み、分析用のイベント列に変換するクラス。<br>
+ * ファイルの形式は{@link ReplayStore}、イベント列の形式は{@link ReplayRecorder}を参照。
+ */
+public final class ReplayReader {
+
+  static final int MAGIC = 0x42535231; // "BSR1"
+
+  private ReplayReader() {
+  }
+
+  /**
+   * リプレイログのファイルを読み込む。
+   *
+   * @param path リプレイログのファイルのパス
+   * @return 1ゲーム分のイベント列
+   * @throws IOException ファイルを読み込めない場合、または形式が正しくない場合
+   */
+  public static ReplayLog read(Path path) throws IOException {
+    try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+      return read(inputStream);
+    }
+  }
+
+  /**
+   * リプレイログを読み込む。
+   *
+   * @param inputStream リプレイログの入力ストリーム
+   * @return 1ゲーム分のイベント列
+   * @throws IOException 読み込めない場合、または形式が正しくない場合
+   */
+  public static ReplayLog read(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("リプレイログの形式ではありません。");
+    }
+    UUID sessionId = new UUID(in.readLong(), in.readLong());
+    String difficulty = in.readUTF();
+    byte[] events = new byte[in.readInt()];
+    in.readFully(events);
+    return new ReplayLog(sessionId, difficulty, decodeEvents(events));
+  }
+
+  /**
+   * {@link ReplayRecorder}で記録したイベント列をデコードする。経過tickはゲーム開始からの値に変換する。
+   *
+   * @param events イベント列のバイト列
+   * @return 記録順のイベントリスト
+   * @throws IOException イベント列の形式が正しくない場合
+   */
+  public static List<ReplayEvent> decodeEvents(byte[] events) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(events);
+    List<ReplayEvent> eventList = new ArrayList<>();
+    long tick = 0;
+    try {
+      while (buffer.hasRemaining()) {
+        ReplayEventType type = ReplayEventType.getReplayEventType(buffer.get());
+        if (type == null) {
+          throw new IOException("不明なイベントコードです。（位置 : " + (buffer.position() - 1) + "）");
+        }
+        tick += readVarLong(buffer);
+        int firstOperand = (int) readVarLong(buffer);
+        int secondOperand = type.getOperandCount() == 2
+            ? (int) readVarLong(buffer)
+            : 0;
+        eventList.add(new ReplayEvent(type, tick, firstOperand, secondOperand));
+      }
+    } catch (BufferUnderflowException ex) {
+      throw new IOException("イベント列が途中で終わっています。", ex);
+    }
+    return eventList;
+  }
+
+  /**
+   * 可変長整数を読み込む。
+   *
+   * @param buffer イベント列のバッファ
+   * @return 読み込んだ値
+   * @throws IOException 可変長整数が長すぎる場合
+   */
+  private static long readVarLong(ByteBuffer buffer) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("可変長整数が長すぎます。");
+  }
+}
@@ -0,0 +1,110 @@
+package plugin.breakspell.game.replay;
+
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * 1ゲーム分のイベントをバイト列として記録するクラス。<br>
+ * 1件のイベントは、イベントコード（1バイト）、前のイベントからの経過tick、オペランドを順に並べたもので、
+ * 経過tickとオペランドは可変長整数（7ビットずつ、続きがある場合は最上位ビットを立てる）で記録する。<br>
+ * バッファの拡張時以外はオブジェクトを生成しないため、クリックごとの記録でメモリをほとんど消費しない。<br>
+ * メインスレッドからのみ呼び出す。
+ */
+public class ReplayRecorder {
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int length;
+  private long startedNanos;
+  private long lastTick;
+  @Getter
+  private int eventCount;
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int MAX_EVENT_BYTES = 1 + 10 + 5 * 2;
+  private static final long NANOS_PER_TICK = 50_000_000L;
+
+  /**
+   * 経過tickの起点をゲーム開始時点に設定し、開始イベントを記録する。
+   *
+   * @param entityCount 出現させたエンティティの数
+   */
+  public void start(int entityCount) {
+    startedNanos = System.nanoTime();
+    lastTick = 0;
+    record(ReplayEventType.START, entityCount, 0);
+  }
+
+  /**
+   * オペランドが1つのイベントを記録する。
+   *
+   * @param type    イベントの種類
+   * @param operand オペランド
+   */
+  public void record(ReplayEventType type, int operand) {
+    record(type, operand, 0);
+  }
+
+  /**
+   * イベントを記録する。オペランドが1つの種類の場合、2つ目のオペランドは記録しない。
+   *
+   * @param type          イベントの種類
+   * @param firstOperand  1つ目のオペランド
+   * @param secondOperand 2つ目のオペランド
+   */
+  public void record(ReplayEventType type, int firstOperand, int secondOperand) {
+    long tick = Math.max(lastTick, (System.nanoTime() - startedNanos) / NANOS_PER_TICK);
+    ensureCapacity(MAX_EVENT_BYTES);
+
+    buffer[length++] = type.getCode();
+    writeVarLong(tick - lastTick);
+    writeVarLong(Integer.toUnsignedLong(firstOperand));
+    if (type.getOperandCount() == 2) {
+      writeVarLong(Integer.toUnsignedLong(secondOperand));
+    }
+
+    lastTick = tick;
+    eventCount++;
+  }
+
+  /**
+   * 記録したイベント列をコピーして取得する。
+   *
+   * @return 記録したイベント列のバイト列
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, length);
+  }
+
+  /**
+   * 記録したイベント列のバイト数を取得する。
+   *
+   * @return イベント列のバイト数
+   */
+  public int getByteLength() {
+    return length;
+  }
+
+  /**
+   * 値を可変長整数としてバッファに書き込む。
+   *
+   * @param value 書き込む値（0以上）
+   */
+  private void writeVarLong(long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[length++] = (byte) value;
+  }
+
+  /**
+   * 指定のバイト数を書き込めるよう、必要に応じてバッファを2倍に拡張する。
+   *
+   * @param additional 書き込むバイト数の上限
+   */
+  private void ensureCapacity(int additional) {
+    if (length + additional > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package plugin.breakspell.game.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import plugin.breakspell.database.PlayerScoreConnector;
+import plugin.breakspell.game.data.PlayerGameData;
+
+/**
+ * ゲームごとのリプレイログをファイルに保存し、読み込むクラス。<br>
+ * リプレイログはデータフォルダ内のreplayフォルダに「セッションID.bsr」として保存し、
+ * スコア情報とはセッションIDで紐付ける。<br>
+ * ファイルの形式は、マジックナンバー（"BSR1"）、セッションID、難易度、イベント列のバイト数、イベント列の順。<br>
+ * ファイルへの書き込みは専用のスレッドで行い、メインスレッドを止めない。<br>
+ * 保存期間を設定した場合は、起動時と1日ごとに保存期間を過ぎたファイルを同じスレッドで削除する。
+ */
+public class ReplayStore {
+
+  private final Path replayFolder;
+  private final PlayerScoreConnector playerScoreConnector;
+  private final boolean enabled;
+  private final int retentionDays;
+  private final Logger logger;
+  private final ExecutorService writeExecutor;
+  private Instant lastPurgedAt = Instant.MIN;
+
+  private final AtomicLong savedCount = new AtomicLong();
+  private final AtomicLong savedBytes = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong purgedCount = new AtomicLong();
+
+  private static final String FILE_EXTENSION = ".bsr";
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+  private static final Duration PURGE_INTERVAL = Duration.ofDays(1);
+
+  /**
+   * リプレイログの保存先を作成する。保存期間を設定した場合は、保存期間を過ぎたファイルの削除を開始する。
+   *
+   * @param dataFolder           プラグインのデータフォルダ
+   * @param playerScoreConnector スコア情報のDB処理（セッションIDの取得に使用する）
+   * @param enabled              リプレイログを保存するかどうか
+   * @param retentionDays        ファイルの保存期間（日数、0以下の場合は削除しない）
+   * @param logger               ロガー
+   */
+  public ReplayStore(
+      Path dataFolder, PlayerScoreConnector playerScoreConnector,
+      boolean enabled, int retentionDays, Logger logger) {
+
+    this.replayFolder = dataFolder.resolve("replay");
+    this.playerScoreConnector = playerScoreConnector;
+    this.enabled = enabled;
+    this.retentionDays = retentionDays;
+    this.logger = logger;
+    this.writeExecutor = Executors.newSingleThreadExecutor(
+        Thread.ofPlatform().name("BreakSpell-ReplayWriter").daemon(true).factory());
+    writeExecutor.execute(this :: purgeIfDue);
+  }
+
+  /**
+   * ゲームのリプレイログを保存する。<br>
+   * イベント列はメインスレッドでコピーし、ファイルへの書き込みは専用のスレッドで行う。
+   *
+   * @param playerGameData 終了したゲームのゲームデータ
+   */
+  public void save(PlayerGameData playerGameData) {
+    ReplayRecorder replayRecorder = playerGameData.getReplayRecorder();
+    if (!enabled || replayRecorder.getEventCount() == 0) {
+      return;
+    }
+
+    UUID sessionId = playerGameData.getSessionId();
+    String difficulty = playerGameData.getGameDifficulty().getInputArg();
+    byte[] events = replayRecorder.toByteArray();
+    writeExecutor.execute(() -> write(sessionId, difficulty, events));
+  }
+
+  /**
+   * リプレイログをファイルに書き込む。書き込み途中のファイルを読み込まないよう、一時ファイルに書き込んでから置き換える。
+   *
+   * @param sessionId  ゲームのセッションID
+   * @param difficulty ゲームの難易度
+   * @param events     イベント列のバイト列
+   */
+  private void write(UUID sessionId, String difficulty, byte[] events) {
+    Path path = getReplayPath(sessionId);
+    Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(replayFolder);
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+        out.writeInt(ReplayReader.MAGIC);
+        out.writeLong(sessionId.getMostSignificantBits());
+        out.writeLong(sessionId.getLeastSignificantBits());
+        out.writeUTF(difficulty);
+        out.writeInt(events.length);
+        out.write(events);
+      }
+      Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+      savedCount.incrementAndGet();
+      savedBytes.addAndGet(events.length);
+    } catch (IOException ex) {
+      failedCount.incrementAndGet();
+      logger.log(Level.WARNING, "リプレイログを保存できませんでした。（" + sessionId + "）", ex);
+    }
+    purgeIfDue();
+  }
+
+  /**
+   * 前回の削除から1日以上経過している場合に、保存期間を過ぎたリプレイログのファイルを削除する。<br>
+   * 保存期間を設定していない場合や、保存先のフォルダがまだない場合は何もしない。書き込み用のスレッドからのみ呼び出す。
+   */
+  private void purgeIfDue() {
+    Instant now = Instant.now();
+    if (retentionDays <= 0 || lastPurgedAt.plus(PURGE_INTERVAL).isAfter(now)) {
+      return;
+    }
+    lastPurgedAt = now;
+    if (!Files.isDirectory(replayFolder)) {
+      return;
+    }
+
+    FileTime cutoff = FileTime.from(now.minus(Duration.ofDays(retentionDays)));
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(replayFolder, "*" + FILE_EXTENSION)) {
+      for (Path path : stream) {
+        if (Files.getLastModifiedTime(path).compareTo(cutoff) < 0) {
+          Files.deleteIfExists(path);
+          purgedCount.incrementAndGet();
+        }
+      }
+    } catch (IOException ex) {
+      logger.log(Level.WARNING, "保存期間を過ぎたリプレイログを削除できませんでした。", ex);
+    }
+  }
+
+  /**
+   * セッションIDを指定してリプレイログを読み込む。
+   *
+   * @param sessionId ゲームのセッションID
+   * @return 1ゲーム分のイベント列
+   * @throws IOException リプレイログが存在しない場合、または読み込めない場合
+   */
+  public ReplayLog read(UUID sessionId) throws IOException {
+    return ReplayReader.read(getReplayPath(sessionId));
+  }
+
+  /**
+   * スコア情報のIDを指定してリプレイログを読み込む。<br>
+   * DBからセッションIDを取得するため、メインスレッドからは呼び出さない。
+   *
+   * @param scoreId スコア情報のID（アーカイブ済みのスコア情報を含む）
+   * @return 1ゲーム分のイベント列
+   * @throws IOException スコア情報またはリプレイログが存在しない場合、またはリプレイログを読み込めない場合
+   */
+  public ReplayLog readByScoreId(int scoreId) throws IOException {
+    String sessionId = playerScoreConnector.selectSessionId(scoreId);
+    if (sessionId == null) {
+      throw new IOException("スコアID " + scoreId + " のスコア情報が見つかりません。");
+    }
+    return read(UUID.fromString(sessionId));
+  }
+
+  /**
+   * リプレイログのファイルのパスを取得する。
+   *
+   * @param sessionId ゲームのセッションID
+   * @return リプレイログのファイルのパス
+   */
+  private Path getReplayPath(UUID sessionId) {
+    return replayFolder.resolve(sessionId + FILE_EXTENSION);
+  }
+
+  /**
+   * 書き込み待ちのリプレイログをすべて保存してから、書き込み用のスレッドを停止する。
+   */
+  public void shutdown() {
+    writeExecutor.shutdown();
+    try {
+      if (!writeExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warning("保存しきれなかったリプレイログがあります。");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * リプレイログの保存状況を表示用に取得する。
+   *
+   * @return リプレイログの保存状況
+   */
+  public List<String> getMetricsLines() {
+    if (!enabled) {
+      return List.of("リプレイログ : 無効");
+    }
+    long count = savedCount.get();
+    return List.of(String.format("リプレイログ : 保存 %d 件 (平均 %d バイト, 失敗 %d 件), 保存期間 %s, 期限切れで削除 %d 件",
+        count, count == 0 ? 0 : savedBytes.get() / count, failedCount.get(),
+        retentionDays <= 0 ? "無期限" : retentionDays + " 日", purgedCount.get()));
+  }
+}
@@ -0,0 +1,87 @@
+package plugin.breakspell.game.session;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+
+/**
+ * ゲームセッションで出現させたエンティティを、出現位置の番号（スロット）ごとに保持するクラス。<br>
+ * スロットごとに呪いをかけられた姿と真の姿のエンティティを1体ずつ盤面の作成時に出現させ、
+ * クリックやペアの判定では表示・非表示と位置を切り替えて使い回す。<br>
+ * ペアが揃うなどしてスロットが不要になった場合、またはセッションを閉じる場合のみエンティティを消滅させる。
+ */
+public class EntityPool {
+
+  private final LivingEntity[] cursedEntities;
+  private final LivingEntity[] trueNatures;
+
+  /**
+   * エンティティプールを作成する。
+   *
+   * @param slotCount スロットの数
+   */
+  public EntityPool(int slotCount) {
+    this.cursedEntities = new LivingEntity[slotCount];
+    this.trueNatures = new LivingEntity[slotCount];
+  }
+
+  /**
+   * スロットに呪いをかけられた姿と真の姿のエンティティを登録する。
+   *
+   * @param slot         スロット
+   * @param cursedEntity 呪いをかけられた姿のエンティティ
+   * @param trueNature   真の姿のエンティティ
+   */
+  public void put(int slot, LivingEntity cursedEntity, LivingEntity trueNature) {
+    cursedEntities[slot] = cursedEntity;
+    trueNatures[slot] = trueNature;
+  }
+
+  /**
+   * スロットの真の姿のエンティティを取得する。
+   *
+   * @param slot スロット
+   * @return 真の姿のエンティティ（解放済みの場合はnull）
+   */
+  public LivingEntity getTrueNature(int slot) {
+    return trueNatures[slot];
+  }
+
+  /**
+   * エンティティがスロットに登録されているかどうかを判定する（表示・非表示は問わない）。
+   *
+   * @param slot   スロット
+   * @param entity 対象のエンティティ
+   * @return スロットに登録されているかどうか（範囲外のスロットや解放済みの場合はfalse）
+   */
+  public boolean contains(int slot, Entity entity) {
+    if (slot < 0 || slot >= cursedEntities.length) {
+      return false;
+    }
+    return cursedEntities[slot] == entity || trueNatures[slot] == entity;
+  }
+
+  /**
+   * スロットのエンティティを消滅させ、プールから取り除く。
+   *
+   * @param slot スロット
+   */
+  public void release(int slot) {
+    if (cursedEntities[slot] != null) {
+      cursedEntities[slot].remove();
+      cursedEntities[slot] = null;
+    }
+    if (trueNatures[slot] != null) {
+      trueNatures[slot].remove();
+      trueNatures[slot] = null;
+    }
+  }
+
+  /**
+   * すべてのスロットのエンティティを消滅させる。
+   */
+  public void releaseAll() {
+    for (int slot = 0; slot < cursedEntities.length; slot++) {
+      release(slot);
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package plugin.breakspell.game.session;
+
+/**
+ * ゲームセッションの進行段階を扱うenum。<br>
+ * COUNTDOWN : ゲーム開始前のカウントダウン中<br>
+ * PLAYING : エンティティを出現させてからゲームが終了するまで<br>
+ * ENDING : ゲームが終了し、結果を処理している間<br>
+ * CLOSED : セッションを閉じた後（予約した処理はすべて取り消し済み）
+ */
+public enum GamePhase {
+  COUNTDOWN,
+  PLAYING,
+  ENDING,
+  CLOSED
+}
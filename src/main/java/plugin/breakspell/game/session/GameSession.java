@@ -0,0 +1,210 @@
+package plugin.breakspell.game.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.scoreboard.Scoreboard;
+import plugin.breakspell.game.data.EntityData;
+import plugin.breakspell.game.data.PendingEntityData;
+import plugin.breakspell.game.data.PlayerGameData;
+import plugin.breakspell.game.manager.effect.BossBarManager;
+import plugin.breakspell.game.tick.GameTickDriver;
+import plugin.breakspell.game.tick.TickTask;
+
+/**
+ * 1人のプレイヤーが実行中の1ゲーム分の状態を扱うオブジェクト。<br>
+ * ゲームデータ（スコアやエンティティデータマップ）、エンティティプール、ボスバー、スコアボード、予約した処理、進行段階を
+ * セッションごとに持つため、
+ * 複数のプレイヤーが同時にゲームを実行しても互いの状態に影響しない。<br>
+ * ゲーム中の処理の予約はこのオブジェクトを経由して{@link GameTickDriver}に行い、セッションを閉じる際にまとめて取り消す。<br>
+ * 予約した処理の実行時間を集計し、セッションごとの1tickあたりの負荷として確認できるようにする。<br>
+ * メインスレッドからのみ呼び出す。
+ */
+public class GameSession {
+
+  @Getter
+  private final PlayerGameData playerGameData;
+  @Getter
+  private final BossBarManager bossBarManager = new BossBarManager();
+  @Getter
+  @Setter
+  private Scoreboard scoreboard;
+  @Getter
+  @Setter
+  private GamePhase phase = GamePhase.COUNTDOWN;
+  @Getter
+  @Setter
+  private EntityPool entityPool;
+
+  @Getter
+  private long tickTaskCount;
+  private long tickNanos;
+
+  private final GameTickDriver gameTickDriver;
+  private final long startedTick;
+  private final List<TickTask> taskList = new ArrayList<>();
+  private final List<Entity> effectEntityList = new ArrayList<>();
+
+  private static final int TASK_LIST_PRUNE_SIZE = 64;
+
+  public GameSession(PlayerGameData playerGameData, GameTickDriver gameTickDriver) {
+    this.playerGameData = playerGameData;
+    this.gameTickDriver = gameTickDriver;
+    this.startedTick = gameTickDriver.getCurrentTick();
+  }
+
+  /**
+   * ゲームを実行中のプレイヤーのUUIDを取得する。
+   *
+   * @return プレイヤーのUUID
+   */
+  public UUID getPlayerUuid() {
+    return playerGameData.getPlayerUuid();
+  }
+
+  /**
+   * エンティティデータマップを取得する。
+   *
+   * @return エンティティデータマップ
+   */
+  public Map<LivingEntity, EntityData> getEntityDataMap() {
+    return playerGameData.getEntityDataMap();
+  }
+
+  /**
+   * ペア待ちマップを取得する。
+   *
+   * @return ペア待ちマップ
+   */
+  public Map<LivingEntity, PendingEntityData> getAwaitingPairMap() {
+    return playerGameData.getAwaitingPairMap();
+  }
+
+  /**
+   * エンティティのクリックを受け付ける段階（PLAYING）かどうかを判定する。
+   *
+   * @return ゲームをプレイ中かどうか
+   */
+  public boolean isPlaying() {
+    return phase == GamePhase.PLAYING;
+  }
+
+  /**
+   * 処理を次のtickに実行するよう予約する。セッションを閉じた後は予約しない。
+   *
+   * @param task 実行する処理
+   */
+  public void runTask(Runnable task) {
+    runTaskLater(task, 0);
+  }
+
+  /**
+   * 処理を指定のtick後に実行するよう予約する。セッションを閉じた後は予約しない。
+   *
+   * @param task  実行する処理
+   * @param delay 実行までのtick数
+   */
+  public void runTaskLater(Runnable task, long delay) {
+    if (phase == GamePhase.CLOSED) {
+      return;
+    }
+    addTask(gameTickDriver.runTaskLater(this, task, delay));
+  }
+
+  /**
+   * ゲームの終了時の演出など、セッションを閉じた後も続ける処理を指定のtick後に実行するよう予約する。<br>
+   * セッションを閉じても取り消さないが、実行時間はこのセッションに加算する。
+   *
+   * @param task  実行する処理
+   * @param delay 実行までのtick数
+   */
+  public void runDetachedTaskLater(Runnable task, long delay) {
+    gameTickDriver.runTaskLater(this, task, delay);
+  }
+
+  /**
+   * 処理を指定の間隔で繰り返し実行するよう予約する。セッションを閉じた後は予約しない。<br>
+   * 処理には自身を渡すため、処理の中で繰り返しを中止できる。
+   *
+   * @param task   実行する処理
+   * @param delay  初回の実行までのtick数
+   * @param period 実行間隔のtick数
+   */
+  public void runTaskTimer(Consumer<TickTask> task, long delay, long period) {
+    if (phase == GamePhase.CLOSED) {
+      return;
+    }
+    addTask(gameTickDriver.runTaskTimer(this, task, delay, period));
+  }
+
+  /**
+   * 予約した処理を保持する。保持している件数が多くなった場合は、完了した処理を取り除く。
+   *
+   * @param tickTask 予約した処理
+   */
+  private void addTask(TickTask tickTask) {
+    if (taskList.size() >= TASK_LIST_PRUNE_SIZE) {
+      taskList.removeIf(TickTask :: isDone);
+    }
+    taskList.add(tickTask);
+  }
+
+  /**
+   * 演出用に出現させたエンティティを保持し、消滅させる処理が取り消されてもセッションを閉じる際に消滅させる。<br>
+   * 保持している件数が多くなった場合は、消滅済みのエンティティを取り除く。
+   *
+   * @param entity 演出用に出現させたエンティティ
+   */
+  public void addEffectEntity(Entity entity) {
+    if (effectEntityList.size() >= TASK_LIST_PRUNE_SIZE) {
+      effectEntityList.removeIf(effectEntity -> !effectEntity.isValid());
+    }
+    effectEntityList.add(entity);
+  }
+
+  /**
+   * 予約した処理の実行時間を加算する。
+   *
+   * @param nanos 処理の実行時間（ナノ秒）
+   */
+  public void addTickCost(long nanos) {
+    tickNanos += nanos;
+    tickTaskCount++;
+  }
+
+  /**
+   * セッションの開始から現在までの、1tickあたりの処理時間の平均を取得する。
+   *
+   * @param currentTick 現在のtick
+   * @return 1tickあたりの処理時間の平均（ナノ秒）
+   */
+  public double getAverageTickNanos(long currentTick) {
+    return (double) tickNanos / Math.max(1, currentTick - startedTick);
+  }
+
+  /**
+   * セッションを閉じる。<br>
+   * 予約した処理をすべて取り消し、ボスバーを削除して、出現させたエンティティ（非表示のものと演出用のものを含む）を消滅させる。
+   */
+  public void close() {
+    phase = GamePhase.CLOSED;
+    taskList.forEach(TickTask :: cancel);
+    taskList.clear();
+    bossBarManager.removeBossBar();
+    getEntityDataMap().keySet().forEach(Entity :: remove);
+    getAwaitingPairMap().keySet().forEach(Entity :: remove);
+    effectEntityList.forEach(Entity :: remove);
+    effectEntityList.clear();
+    if (entityPool != null) {
+      entityPool.releaseAll();
+    }
+    getEntityDataMap().clear();
+    getAwaitingPairMap().clear();
+  }
+}
@@ -0,0 +1,133 @@
+package plugin.breakspell.game.session;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * 実行中のゲームセッションをプレイヤーのUUIDと紐付けて管理するクラス。<br>
+ * 1人のプレイヤーが同時に実行できるゲームは1つまでとする。<br>
+ * ゲームで出現させたエンティティにはPersistentDataContainerで所有者のUUIDとスロットを付与し、
+ * 実行中のゲームの数によらず、エンティティから所有するセッションを一定時間で取得できるようにする。<br>
+ * メインスレッドからのみ呼び出す。
+ */
+public class GameSessionRegistry {
+
+  private final Map<UUID, GameSession> sessionMap = new HashMap<>();
+  private final NamespacedKey ownerKey;
+  private final NamespacedKey slotKey;
+
+  public GameSessionRegistry(Plugin plugin) {
+    this.ownerKey = new NamespacedKey(plugin, "game_session_owner");
+    this.slotKey = new NamespacedKey(plugin, "game_session_slot");
+  }
+
+  /**
+   * ゲームセッションを登録する。
+   *
+   * @param gameSession ゲームセッション
+   */
+  public void register(GameSession gameSession) {
+    sessionMap.put(gameSession.getPlayerUuid(), gameSession);
+  }
+
+  /**
+   * プレイヤーが実行中のゲームセッションを取得する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return ゲームセッション（ゲームを実行中でない場合はnull）
+   */
+  public GameSession get(UUID playerUuid) {
+    return sessionMap.get(playerUuid);
+  }
+
+  /**
+   * プレイヤーがゲームを実行中かどうかを判定する。
+   *
+   * @param playerUuid プレイヤーのUUID
+   * @return ゲームを実行中かどうか
+   */
+  public boolean contains(UUID playerUuid) {
+    return sessionMap.containsKey(playerUuid);
+  }
+
+  /**
+   * ゲームセッションの登録を解除する。同じプレイヤーの別のセッションが登録されている場合は解除しない。
+   *
+   * @param gameSession ゲームセッション
+   */
+  public void unregister(GameSession gameSession) {
+    sessionMap.remove(gameSession.getPlayerUuid(), gameSession);
+  }
+
+  /**
+   * ゲームで出現させたエンティティに、所有者（ゲームを実行中のプレイヤー）のUUIDとエンティティプールのスロットを付与する。
+   *
+   * @param livingEntity 出現させたエンティティ
+   * @param playerUuid   ゲームを実行中のプレイヤーのUUID
+   * @param slot         エンティティプールのスロット
+   */
+  public void tagEntity(LivingEntity livingEntity, UUID playerUuid, int slot) {
+    PersistentDataContainer container = livingEntity.getPersistentDataContainer();
+    container.set(ownerKey, PersistentDataType.STRING, playerUuid.toString());
+    container.set(slotKey, PersistentDataType.INTEGER, slot);
+  }
+
+  /**
+   * エンティティに付与された所有者のUUIDとスロットから、エンティティを所有するゲームセッションを取得する。<br>
+   * セッションのエンティティプールのスロットに登録されていれば、非表示のエンティティも所有しているものとする。
+   * 解放済みのエンティティは所有していないものとする。
+   *
+   * @param entity 対象のエンティティ
+   * @return エンティティを所有するゲームセッション（ゲームのエンティティでない場合はnull）
+   */
+  public GameSession findOwnerSession(Entity entity) {
+    PersistentDataContainer container = entity.getPersistentDataContainer();
+    String owner = container.get(ownerKey, PersistentDataType.STRING);
+    Integer slot = container.get(slotKey, PersistentDataType.INTEGER);
+    if (owner == null || slot == null) {
+      return null;
+    }
+
+    GameSession gameSession = sessionMap.get(UUID.fromString(owner));
+    if (gameSession == null || gameSession.getEntityPool() == null) {
+      return null;
+    }
+    return gameSession.getEntityPool().contains(slot, entity) ? gameSession : null;
+  }
+
+  /**
+   * 対象のエンティティがいずれかのゲームセッションで出現させたエンティティかどうかを判定する。
+   *
+   * @param livingEntity 対象のエンティティ
+   * @return ゲームで出現させたエンティティかどうか
+   */
+  public boolean isGameEntity(LivingEntity livingEntity) {
+    return findOwnerSession(livingEntity) != null;
+  }
+
+  /**
+   * 登録中のゲームセッションのリストを取得する（登録の解除をしながら走査できるよう、コピーを返す）。
+   *
+   * @return ゲームセッションのリスト
+   */
+  public List<GameSession> getSessionList() {
+    return List.copyOf(sessionMap.values());
+  }
+
+  /**
+   * 実行中のゲームセッションの数を取得する。
+   *
+   * @return ゲームセッションの数
+   */
+  public int size() {
+    return sessionMap.size();
+  }
+}
@@ -0,0 +1,181 @@
+package plugin.breakspell.game.tick;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.session.GameSessionRegistry;
+
+/**
+ * ゲームの処理をプラグイン全体で1つのタイマーで実行するクラス。<br>
+ * ゲームごと・演出ごとにBukkitのスケジューラーへ処理を登録する代わりに、
+ * 予約した処理を{@link TimerWheel}で保持し、毎tick1回の走査でそのtickに実行する処理をまとめて実行する。<br>
+ * 処理ごとの実行時間を所有者のゲームセッションに加算するため、セッションごとの1tickあたりの負荷を確認できる。<br>
+ * メインスレッドからのみ呼び出す。
+ */
+public class GameTickDriver {
+
+  private final Plugin plugin;
+  private final GameSessionRegistry gameSessionRegistry;
+  private final Logger logger;
+  private final TimerWheel timerWheel = new TimerWheel(WHEEL_SIZE);
+  private final List<TickTask> dueList = new ArrayList<>();
+  private BukkitTask bukkitTask;
+
+  @Getter
+  private long currentTick;
+  private long totalTickNanos;
+  private long maxTickNanos;
+
+  private static final int WHEEL_SIZE = 256;
+  private static final int SESSION_METRICS_LIMIT = 5;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  public GameTickDriver(Plugin plugin, GameSessionRegistry gameSessionRegistry, Logger logger) {
+    this.plugin = plugin;
+    this.gameSessionRegistry = gameSessionRegistry;
+    this.logger = logger;
+  }
+
+  /**
+   * 毎tickの走査を開始する。
+   */
+  public void start() {
+    bukkitTask = Bukkit.getScheduler().runTaskTimer(plugin, this :: tick, 1, 1);
+  }
+
+  /**
+   * 毎tickの走査を停止し、予約済みの処理をすべて破棄する。
+   */
+  public void stop() {
+    if (bukkitTask != null) {
+      bukkitTask.cancel();
+      bukkitTask = null;
+    }
+    timerWheel.clear();
+  }
+
+  /**
+   * 処理を指定のtick後に1回実行するよう予約する（所有者なし）。
+   *
+   * @param task  実行する処理
+   * @param delay 実行までのtick数（0以下の場合は次のtick）
+   * @return 予約した処理
+   */
+  public TickTask runTaskLater(Runnable task, long delay) {
+    return runTaskLater(null, task, delay);
+  }
+
+  /**
+   * 処理を指定のtick後に1回実行するよう予約する。
+   *
+   * @param owner 処理の所有者（所有者なしの場合はnull）
+   * @param task  実行する処理
+   * @param delay 実行までのtick数（0以下の場合は次のtick）
+   * @return 予約した処理
+   */
+  public TickTask runTaskLater(GameSession owner, Runnable task, long delay) {
+    return schedule(new TickTask(owner, tickTask -> task.run(), getDeadline(delay), 0));
+  }
+
+  /**
+   * 処理を指定の間隔で繰り返し実行するよう予約する。処理には自身を渡すため、処理の中で繰り返しを中止できる。
+   *
+   * @param owner  処理の所有者（所有者なしの場合はnull）
+   * @param task   実行する処理
+   * @param delay  初回の実行までのtick数（0以下の場合は次のtick）
+   * @param period 実行間隔のtick数
+   * @return 予約した処理
+   */
+  public TickTask runTaskTimer(
+      GameSession owner, Consumer<TickTask> task, long delay, long period) {
+
+    return schedule(new TickTask(owner, task, getDeadline(delay), Math.max(1, period)));
+  }
+
+  /**
+   * 指定のtick数後のtickを取得する。Bukkitのスケジューラーと同じく、tick数が0以下の場合は次のtickとする。
+   *
+   * @param delay 実行までのtick数
+   * @return 実行するtick
+   */
+  private long getDeadline(long delay) {
+    return currentTick + Math.max(1, delay);
+  }
+
+  /**
+   * 処理をタイマーホイールに追加する。
+   *
+   * @param tickTask 予約した処理
+   * @return 予約した処理
+   */
+  private TickTask schedule(TickTask tickTask) {
+    timerWheel.add(tickTask);
+    return tickTask;
+  }
+
+  /**
+   * tickを進め、そのtickに実行する処理をまとめて実行する。<br>
+   * 処理が例外を投げても他の処理は続けて実行し、繰り返し実行する処理は次の実行を予約し直す。<br>
+   * 同じtickに実行する処理でも、先に実行した処理の中で取り消されたものは実行しない。
+   */
+  private void tick() {
+    long tickStartedAt = System.nanoTime();
+    currentTick++;
+
+    timerWheel.expire(currentTick, dueList);
+    for (TickTask tickTask : dueList) {
+      // 同じtickの先に実行した処理（セッションを閉じる処理など）で取り消された処理は実行しない
+      if (tickTask.isCancelled()) {
+        continue;
+      }
+      long startedAt = System.nanoTime();
+      try {
+        tickTask.run();
+      } catch (RuntimeException ex) {
+        logger.log(Level.WARNING, "ゲームの処理の実行中にエラーが発生しました。", ex);
+      }
+      if (tickTask.getOwner() != null) {
+        tickTask.getOwner().addTickCost(System.nanoTime() - startedAt);
+      }
+      if (tickTask.isRepeating() && !tickTask.isCancelled()) {
+        timerWheel.add(tickTask);
+      }
+    }
+    dueList.clear();
+
+    long tickNanos = System.nanoTime() - tickStartedAt;
+    totalTickNanos += tickNanos;
+    maxTickNanos = Math.max(maxTickNanos, tickNanos);
+  }
+
+  /**
+   * 毎tickの処理時間と、負荷の高い順にゲームセッションごとの1tickあたりの処理時間を表示用に取得する。
+   *
+   * @return 毎tickの処理の計測値
+   */
+  public List<String> getMetricsLines() {
+    List<String> metricsLines = new ArrayList<>();
+    metricsLines.add(String.format("ゲームtick : セッション %d 件, 予約 %d 件, 平均 %.3f ms/tick (最大 %.3f ms)",
+        gameSessionRegistry.size(), timerWheel.size(),
+        currentTick == 0 ? 0 : totalTickNanos / NANOS_PER_MILLI / currentTick,
+        maxTickNanos / NANOS_PER_MILLI));
+    gameSessionRegistry.getSessionList().stream()
+        .sorted(Comparator.comparingDouble(
+            (GameSession gameSession) -> gameSession.getAverageTickNanos(currentTick)).reversed())
+        .limit(SESSION_METRICS_LIMIT)
+        .forEach(gameSession -> metricsLines.add(String.format(
+            "  %s : %.3f ms/tick (実行 %d 回, %s)",
+            gameSession.getPlayerGameData().getPlayerName(),
+            gameSession.getAverageTickNanos(currentTick) / NANOS_PER_MILLI,
+            gameSession.getTickTaskCount(), gameSession.getPhase())));
+    return metricsLines;
+  }
+}
@@ -0,0 +1,69 @@
+package plugin.breakspell.game.tick;
+
+import java.util.function.Consumer;
+import lombok.Getter;
+import plugin.breakspell.game.session.GameSession;
+
+/**
+ * {@link GameTickDriver}に予約した処理。<br>
+ * 実行するtick、繰り返しの間隔、処理の所有者（ゲームセッション）を持ち、タイマーホイールの同じ枠の処理と連結リストでつながる。
+ */
+public class TickTask {
+
+  @Getter
+  private final GameSession owner;
+  private final Consumer<TickTask> callback;
+  private final long period;
+  long deadline;
+  TickTask next;
+  @Getter
+  private boolean cancelled;
+  private boolean done;
+
+  TickTask(GameSession owner, Consumer<TickTask> callback, long deadline, long period) {
+    this.owner = owner;
+    this.callback = callback;
+    this.deadline = deadline;
+    this.period = period;
+  }
+
+  /**
+   * 処理を取り消す。実行中の処理から呼び出した場合は、以降の繰り返しを中止する。
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * 処理が完了したか（1回だけの処理を実行済み、または取り消し済み）を判定する。
+   *
+   * @return 処理が完了したかどうか
+   */
+  public boolean isDone() {
+    return done || cancelled;
+  }
+
+  /**
+   * 繰り返し実行する処理かどうかを判定する。
+   *
+   * @return 繰り返し実行する処理かどうか
+   */
+  boolean isRepeating() {
+    return period > 0;
+  }
+
+  /**
+   * 処理を実行し、繰り返し実行する処理の場合は次に実行するtickを設定する（処理が例外を投げた場合も同様）。
+   */
+  void run() {
+    try {
+      callback.accept(this);
+    } finally {
+      if (isRepeating()) {
+        deadline += period;
+      } else {
+        done = true;
+      }
+    }
+  }
+}
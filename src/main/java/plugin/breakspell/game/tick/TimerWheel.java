@@ -0,0 +1,86 @@
+package plugin.breakspell.game.tick;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 予約した処理を実行するtickごとに振り分けて保持するタイマーホイール。<br>
+ * 実行するtickを枠の数で割った余りの枠に連結リストとして格納し、tickごとに該当する枠だけを走査する。<br>
+ * 枠の数より先のtickに実行する処理は、走査のたびに実行するtickを比較して周回を待つ。<br>
+ * 取り消された処理は、その枠を走査した際に取り除く。
+ */
+class TimerWheel {
+
+  private final TickTask[] heads;
+  private final int mask;
+  private int size;
+
+  /**
+   * タイマーホイールを作成する。
+   *
+   * @param slotCount 枠の数（2のべき乗）
+   */
+  TimerWheel(int slotCount) {
+    this.heads = new TickTask[slotCount];
+    this.mask = slotCount - 1;
+  }
+
+  /**
+   * 処理を実行するtickの枠に追加する。
+   *
+   * @param tickTask 予約した処理
+   */
+  void add(TickTask tickTask) {
+    int index = (int) (tickTask.deadline & mask);
+    tickTask.next = heads[index];
+    heads[index] = tickTask;
+    size++;
+  }
+
+  /**
+   * 指定のtickの枠から、実行するtickに達した処理と取り消された処理を取り除き、実行する処理をリストに追加する。
+   *
+   * @param tick    現在のtick
+   * @param dueList 実行する処理を追加するリスト
+   */
+  void expire(long tick, List<TickTask> dueList) {
+    int index = (int) (tick & mask);
+    TickTask previous = null;
+    TickTask tickTask = heads[index];
+    while (tickTask != null) {
+      TickTask next = tickTask.next;
+      if (tickTask.isCancelled() || tickTask.deadline <= tick) {
+        if (previous == null) {
+          heads[index] = next;
+        } else {
+          previous.next = next;
+        }
+        tickTask.next = null;
+        size--;
+        if (!tickTask.isCancelled()) {
+          dueList.add(tickTask);
+        }
+      } else {
+        previous = tickTask;
+      }
+      tickTask = next;
+    }
+  }
+
+  /**
+   * すべての処理を取り除く。
+   */
+  void clear() {
+    Arrays.fill(heads, null);
+    size = 0;
+  }
+
+  /**
+   * 保持している処理の件数を取得する（取り消し済みで、まだ取り除いていない処理を含む）。
+   *
+   * @return 処理の件数
+   */
+  int size() {
+    return size;
+  }
+}
@@ -1,13 +1,14 @@
 package plugin.breakspell.listener;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import plugin.breakspell.Main;
-import plugin.breakspell.database.PlayerScoreConnector;
+import plugin.breakspell.database.AsyncPlayerScoreConnector;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.TickTime;
 import plugin.breakspell.game.manager.effect.SendTextManager;
@@ -30,12 +31,12 @@ public class InventoryClickListener implements Listener {
   private final GameExecutor gameExecutor;
   private final MenuGuiManager menuGuiManager;
   private final SendTextManager sendTextManager;
-  private final PlayerScoreConnector playerScoreConnector;
+  private final AsyncPlayerScoreConnector playerScoreConnector;
 
   public InventoryClickListener(
       Main main, WrittenBookManager writtenBookManager, GameStatusChecker gameStatusChecker,
       GameExecutor gameExecutor, MenuGuiManager menuGuiManager,
-      SendTextManager sendTextManager, PlayerScoreConnector playerScoreConnector) {
+      SendTextManager sendTextManager, AsyncPlayerScoreConnector playerScoreConnector) {
 
     this.main = main;
     this.writtenBookManager = writtenBookManager;
@@ -92,14 +93,15 @@ public class InventoryClickListener implements Listener {
    * @param player プロローグメニューをクリックしたプレイヤー
    */
   private void handleClickPrologueMenu(Player player) {
-    if (gameStatusChecker.isFirstPlay(player)) {
-      player.closeInventory();
-      sendTextManager.sendCannotOpenPrologueAlert(player);
-      menuGuiManager.reopenGameMenuGui(player);
-    } else {
-      writtenBookManager.openPrologueBook(player);
-
-    }
+    gameStatusChecker.isFirstPlay(player).thenAccept(isFirstPlay -> {
+      if (isFirstPlay) {
+        player.closeInventory();
+        sendTextManager.sendCannotOpenPrologueAlert(player);
+        menuGuiManager.reopenGameMenuGui(player);
+      } else {
+        writtenBookManager.openPrologueBook(player);
+      }
+    });
   }
 
   /**
@@ -111,15 +113,18 @@ public class InventoryClickListener implements Listener {
    */
   private void handleClickGameDifficultyMenu(Player player, GameMenu gameMenu) {
     GameDifficulty gameDifficulty = GameMenu.getDifficulty(gameMenu);
-    if (gameStatusChecker.hasNotPlayedPreDifficulty(player, gameDifficulty)) {
-      player.closeInventory();
-      sendTextManager.sendHasNotPlayedPreDifficultyAlert(player, gameDifficulty);
-      menuGuiManager.reopenGameMenuGui(player);
-      return;
-    }
-    player.closeInventory();
-    Bukkit.getScheduler().runTaskLater(main, () ->
-        gameExecutor.awaitExecuteGame(player, gameDifficulty), TickTime.DELAY_SHORT);
+    gameStatusChecker.hasNotPlayedPreDifficulty(player, gameDifficulty)
+        .thenAccept(hasNotPlayedPreDifficulty -> {
+          if (hasNotPlayedPreDifficulty) {
+            player.closeInventory();
+            sendTextManager.sendHasNotPlayedPreDifficultyAlert(player, gameDifficulty);
+            menuGuiManager.reopenGameMenuGui(player);
+            return;
+          }
+          player.closeInventory();
+          Bukkit.getScheduler().runTaskLater(main, () ->
+              gameExecutor.awaitExecuteGame(player, gameDifficulty), TickTime.DELAY_SHORT);
+        });
   }
 
   /**
@@ -129,19 +134,21 @@ public class InventoryClickListener implements Listener {
    * @param player 　エピローグメニューをクリックしたプレイヤー
    */
   private void handleClickEpilogueMenu(Player player) {
-    if (gameStatusChecker.isFirstClear(player)) {
-      player.closeInventory();
-      sendTextManager.sendCannotOpenEpilogueAlert(player);
-      menuGuiManager.reopenGameMenuGui(player);
-      return;
-    }
-    writtenBookManager.openEpilogueBook(player);
+    gameStatusChecker.isFirstClear(player).thenAccept(isFirstClear -> {
+      if (isFirstClear) {
+        player.closeInventory();
+        sendTextManager.sendCannotOpenEpilogueAlert(player);
+        menuGuiManager.reopenGameMenuGui(player);
+        return;
+      }
+      writtenBookManager.openEpilogueBook(player);
+    });
   }
 
   /**
    * スコアメニューGUIをクリックした場合に、メニューに応じて分岐して処理を実行する。<br>
-   * 該当スコアがある場合はクリックされたスロットの番号からメニューを判別してスコアリストを表示し、GUIを閉じ、
-   * ない場合はメッセージを表示してGUIを再表示する。
+   * クリックされたスロットの番号からメニューを判別してGUIを閉じ、DBから取得したスコアリストを表示する。<br>
+   * 該当スコアがない場合はメッセージを表示してGUIを再表示する。
    *
    * @param player      スコアメニューGUIをクリックしたプレイヤー
    * @param clickedSlot クリックされたスロットの番号
@@ -150,26 +157,33 @@ public class InventoryClickListener implements Listener {
     ScoreMenu.getFilteredScoreMenu(clickedSlot).ifPresent(
         scoreMenu -> {
           switch (scoreMenu) {
-            case NEW -> {
-              if (!playerScoreConnector.showNewlyScoreList(player)) {
-                menuGuiManager.reopenScoreMenuGui(player);
-              }
-            }
-            case RANK -> {
-              if (!playerScoreConnector.showRankedScoreList(player)) {
-                menuGuiManager.reopenScoreMenuGui(player);
-              }
-            }
+            case NEW ->
+                reopenIfNotShown(player, playerScoreConnector.showNewlyScoreList(player, 1));
+            case NEXT_PAGE ->
+                reopenIfNotShown(player, playerScoreConnector.showNextNewlyScoreList(player));
+            case RANK -> reopenIfNotShown(player, playerScoreConnector.showRankedScoreList(player));
             case EASY, NORMAL, HARD -> {
               GameDifficulty gameDifficulty = ScoreMenu.getDifficulty(scoreMenu);
-              if (!playerScoreConnector.showRankedByDifficultyScoreList(
-                  player, Objects.requireNonNull(gameDifficulty))) {
-                menuGuiManager.reopenScoreMenuGui(player);
-              }
+              reopenIfNotShown(player, playerScoreConnector.showRankedByDifficultyScoreList(
+                  player, Objects.requireNonNull(gameDifficulty)));
             }
             case CLOSE -> player.closeInventory();
           }
           player.closeInventory();
         });
   }
+
+  /**
+   * スコアリストの表示処理が完了した後、スコアリストを表示できなかった場合はスコアメニューGUIを再表示する。
+   *
+   * @param player スコアメニューGUIをクリックしたプレイヤー
+   * @param shown  スコアリストを表示したかどうか
+   */
+  private void reopenIfNotShown(Player player, CompletableFuture<Boolean> shown) {
+    shown.thenAccept(isShown -> {
+      if (!isShown) {
+        menuGuiManager.reopenScoreMenuGui(player);
+      }
+    });
+  }
 }
@@ -0,0 +1,86 @@
+package plugin.breakspell.listener;
+
+import java.util.UUID;
+import java.util.logging.Level;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import plugin.breakspell.Main;
+import plugin.breakspell.database.PlayerProgressCache;
+import plugin.breakspell.database.PlayerProgressConnector;
+import plugin.breakspell.database.PlayerStatsCache;
+import plugin.breakspell.database.PlayerStatsConnector;
+import plugin.breakspell.database.ScoreHistoryPager;
+
+/**
+ * プレイヤーのログイン・ログアウトに合わせて、進捗状況と成績のキャッシュを読み込み・破棄するクラス。<br>
+ * ログアウト時にはスコア履歴の閲覧状況も破棄する。<br>
+ * 読み込みはログイン前の非同期処理（AsyncPlayerPreLoginEvent）で行うため、メインスレッドはDBを待たない。
+ */
+public class PlayerConnectionListener implements Listener {
+
+  private final Main main;
+  private final PlayerProgressConnector playerProgressConnector;
+  private final PlayerProgressCache playerProgressCache;
+  private final PlayerStatsConnector playerStatsConnector;
+  private final PlayerStatsCache playerStatsCache;
+  private final ScoreHistoryPager scoreHistoryPager;
+
+  public PlayerConnectionListener(
+      Main main, PlayerProgressConnector playerProgressConnector,
+      PlayerProgressCache playerProgressCache, PlayerStatsConnector playerStatsConnector,
+      PlayerStatsCache playerStatsCache, ScoreHistoryPager scoreHistoryPager) {
+
+    this.main = main;
+    this.playerProgressConnector = playerProgressConnector;
+    this.playerProgressCache = playerProgressCache;
+    this.playerStatsConnector = playerStatsConnector;
+    this.playerStatsCache = playerStatsCache;
+    this.scoreHistoryPager = scoreHistoryPager;
+  }
+
+  /**
+   * ログインが許可されたプレイヤーの全難易度分の進捗状況と成績をDBから読み込み、キャッシュに登録する。<br>
+   * 読み込めなかった場合はログインを妨げず、ゲームメニューを開く際などに改めて読み込む。
+   *
+   * @param e ログイン前イベント
+   */
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent e) {
+    if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+      return;
+    }
+
+    UUID playerUuid = e.getUniqueId();
+    long progressLoadStartedAt = playerProgressCache.startLoad();
+    long statsLoadStartedAt = playerStatsCache.startLoad();
+    try {
+      playerProgressCache.put(
+          playerUuid, playerProgressConnector.selectPlayerProgressList(playerUuid),
+          progressLoadStartedAt);
+      playerStatsCache.put(
+          playerUuid, playerStatsConnector.selectPlayerStatsList(playerUuid), statsLoadStartedAt);
+    } catch (RuntimeException ex) {
+      main.getLogger().log(
+          Level.WARNING, "進捗状況または成績を読み込めませんでした。（" + e.getName() + "）", ex);
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerLogin(PlayerLoginEvent e) {
+    if (e.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+      playerProgressCache.evict(e.getPlayer().getUniqueId());
+      playerStatsCache.evict(e.getPlayer().getUniqueId());
+    }
+  }
+
+  @EventHandler
+  public void onPlayerQuit(PlayerQuitEvent e) {
+    playerProgressCache.evict(e.getPlayer().getUniqueId());
+    playerStatsCache.evict(e.getPlayer().getUniqueId());
+    scoreHistoryPager.evict(e.getPlayer().getUniqueId());
+  }
+}
@@ -5,8 +5,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -14,7 +12,6 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.inventory.EquipmentSlot;
-import plugin.breakspell.Main;
 import plugin.breakspell.game.constant.EntityPair;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.SpecialEntity;
@@ -28,13 +25,17 @@ import plugin.breakspell.game.manager.effect.SoundEffectManager;
 import plugin.breakspell.game.manager.effect.VisualEffectManager;
 import plugin.breakspell.game.manager.execution.ComboBonusManager;
 import plugin.breakspell.game.manager.execution.SpawnEntityManager;
+import plugin.breakspell.game.replay.ReplayEventType;
+import plugin.breakspell.game.replay.ReplayRecorder;
+import plugin.breakspell.game.session.GameSession;
+import plugin.breakspell.game.session.GameSessionRegistry;
 
 /**
- * プレイヤーがエンティティをクリックした際に発火するイベントのリスナークラス。
+ * プレイヤーがエンティティをクリックした際に発火するイベントのリスナークラス。<br>
+ * クリックはゲームセッションがプレイ中の段階の場合のみ受け付け、遅らせて実行する処理はセッションを経由して予約する。
  */
 public class PlayerInteractEntityListener implements Listener {
 
-  private final Main main;
   private final SendTextManager sendTextManager;
   private final SoundEffectManager soundEffectManager;
   private final VisualEffectManager visualEffectManager;
@@ -42,33 +43,31 @@ public class PlayerInteractEntityListener implements Listener {
   private final ComboBonusManager comboBonusManager;
   private final ScoreboardManager scoreboardManager;
 
-  private final Map<UUID, PlayerGameData> playerDataMap;
+  private final GameSessionRegistry gameSessionRegistry;
 
   private static final long VALID_CLICK_TIME = 500;
 
   public PlayerInteractEntityListener(
-      Main main, SendTextManager sendTextManager, SoundEffectManager soundEffectManager,
+      SendTextManager sendTextManager, SoundEffectManager soundEffectManager,
       VisualEffectManager visualEffectManager, SpawnEntityManager spawnEntityManager,
       ComboBonusManager comboBonusManager, ScoreboardManager scoreboardManager,
-      Map<UUID, PlayerGameData> playerDataMap) {
+      GameSessionRegistry gameSessionRegistry) {
 
-    this.main = main;
     this.sendTextManager = sendTextManager;
     this.soundEffectManager = soundEffectManager;
     this.visualEffectManager = visualEffectManager;
     this.spawnEntityManager = spawnEntityManager;
     this.comboBonusManager = comboBonusManager;
     this.scoreboardManager = scoreboardManager;
-    this.playerDataMap = playerDataMap;
+    this.gameSessionRegistry = gameSessionRegistry;
   }
 
   @EventHandler
   public void onPlayerInteractEntity(PlayerInteractEntityEvent e) {
     Player player = e.getPlayer();
-    UUID uuid = player.getUniqueId();
 
-    PlayerGameData playerGameData = playerDataMap.get(uuid);
-    if (playerGameData == null) {
+    GameSession gameSession = gameSessionRegistry.get(player.getUniqueId());
+    if (gameSession == null || !gameSession.isPlaying()) {
       return;
     }
 
@@ -76,6 +75,7 @@ public class PlayerInteractEntityListener implements Listener {
       return;
     }
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     if (isDisableClick(playerGameData)) {
       return;
     }
@@ -93,18 +93,17 @@ public class PlayerInteractEntityListener implements Listener {
     if (entityData == null) {
       return;
     }
+    playerGameData.getReplayRecorder().record(ReplayEventType.CLICK, entityData.getSlot());
 
     Location clickedEntityLocation = clickedEntity.getLocation();
-    addMagicalEffect(player, clickedEntityLocation);
+    addMagicalEffect(player, gameSession, clickedEntityLocation);
 
     PendingEntityData pendingEntityData
         = new PendingEntityData(clickedEntity, entityData);
-    clickedEntity.remove();
-
     LivingEntity trueNature =
-        spawnEntityManager.spawnTrueNature(player, entityDataMap, entityData, clickedEntity);
+        spawnEntityManager.revealTrueNature(gameSession, entityData, clickedEntity);
 
-    if (checkAndHandleSpecialEntity(player, playerGameData, entityDataMap, trueNature)) {
+    if (checkAndHandleSpecialEntity(player, gameSession, entityDataMap, trueNature)) {
       return;
     }
 
@@ -114,7 +113,7 @@ public class PlayerInteractEntityListener implements Listener {
     if (awaitingPairMap.size() == 1) {
       sendTextManager.sendFirstClickMessage(player);
     } else {
-      checkAndHandlePair(player, entityDataMap, awaitingPairMap, trueNature);
+      checkAndHandlePair(player, gameSession, entityDataMap, awaitingPairMap, trueNature);
     }
   }
 
@@ -140,26 +139,31 @@ public class PlayerInteractEntityListener implements Listener {
    * サウンドを流してクリックしたエンティティの位置に魔法をかけるパーティクルを出現させる。
    *
    * @param player                ゲームを実行中のプレイヤー
+   * @param gameSession           ゲームセッション
    * @param clickedEntityLocation クリックしたエンティティの位置
    */
-  private void addMagicalEffect(Player player, Location clickedEntityLocation) {
+  private void addMagicalEffect(
+      Player player, GameSession gameSession, Location clickedEntityLocation) {
+
     player.swingMainHand();
     sendTextManager.sendMagicWordMassage(player);
-    soundEffectManager.playWaveMagicWandSound(player);
+    soundEffectManager.playWaveMagicWandSound(player, gameSession);
     visualEffectManager.spawnEnchantParticle(player, clickedEntityLocation);
   }
 
   /**
    * 出現させた真の姿のエンティティがスペシャルエンティティかどうか判定し、分岐して処理を実行する。<br>
    * アレイの場合は5秒プラス、ガストの場合は5秒マイナス、エンダーマンの場合は位置をエンティティの位置をシャッフルする。<br>
-   * スペシャルエンティティの名前と特殊効果をメッセージで表示し、スペシャルエンティティを消滅させる。
+   * スペシャルエンティティの名前と特殊効果をメッセージで表示し、スペシャルエンティティのスロットを解放する（消滅させる）。<br>
+   * スペシャルエンティティのスロットと種類をリプレイログに記録する。
    *
    * @param player        ゲームを実行中のプレイヤー
+   * @param gameSession   ゲームセッション
    * @param entityDataMap エンティティデータマップ
    * @param trueNature    真の姿のエンティティ
    */
   private boolean checkAndHandleSpecialEntity(
-      Player player, PlayerGameData playerGameData,
+      Player player, GameSession gameSession,
       Map<LivingEntity, EntityData> entityDataMap, LivingEntity trueNature) {
 
     SpecialEntity specialEntity = SpecialEntity.getFilteredSpecialEntity(trueNature.getType());
@@ -167,6 +171,10 @@ public class PlayerInteractEntityListener implements Listener {
       return false;
     }
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
+    playerGameData.getReplayRecorder().record(
+        ReplayEventType.SPECIAL, entityDataMap.get(trueNature).getSlot(), specialEntity.ordinal());
+
     switch (specialEntity) {
       case ALLAY -> playerGameData.addTime(5);
       case SHULKER -> playerGameData.reduceTime(5);
@@ -174,9 +182,10 @@ public class PlayerInteractEntityListener implements Listener {
     }
 
     sendTextManager.sendRevealSpecialEntityMessage(player, specialEntity);
-    soundEffectManager.playRevealSpecialEntitySound(player, specialEntity);
-    entityDataMap.remove(trueNature);
-    Bukkit.getScheduler().runTaskLater(main, trueNature :: remove, TickTime.DELAY_LONG);
+    soundEffectManager.playRevealSpecialEntitySound(player, gameSession, specialEntity);
+    int slot = entityDataMap.remove(trueNature).getSlot();
+    gameSession.runTaskLater(
+        () -> gameSession.getEntityPool().release(slot), TickTime.DELAY_LONG);
     return true;
   }
 
@@ -203,16 +212,18 @@ public class PlayerInteractEntityListener implements Listener {
   }
 
   /**
-   * 1体目のエンティティと2体目のエンティティがペアかどうかを確認し、分岐して処理を実行する。<br>
+   * 1体目のエンティティと2体目のエンティティがペアかどうかを確認し、判定結果と2体のスロットをリプレイログに記録して、
+   * 分岐して処理を実行する。<br>
    * ペア待ちマップをクリアする。
    *
    * @param player           プレイヤー
+   * @param gameSession      ゲームセッション
    * @param entityDataMap    エンティティデータマップ
    * @param awaitingPairMap  ペア待ちマップ
    * @param secondTrueNature 2体目の真の姿のエンティティ
    */
   private void checkAndHandlePair(
-      Player player, Map<LivingEntity, EntityData> entityDataMap,
+      Player player, GameSession gameSession, Map<LivingEntity, EntityData> entityDataMap,
       Map<LivingEntity, PendingEntityData> awaitingPairMap, LivingEntity secondTrueNature) {
 
     LivingEntity firstTrueNature = awaitingPairMap.keySet().iterator().next();
@@ -221,12 +232,16 @@ public class PlayerInteractEntityListener implements Listener {
     String firstTrueNatureName = firstPendingEntityData.getEntityData().getTrueNatureName();
     String pairName = EntityPair.getPairEntityName(firstTrueNature.getType(), firstTrueNatureName);
 
-    PlayerGameData playerGameData = playerDataMap.get(player.getUniqueId());
+    ReplayRecorder replayRecorder = gameSession.getPlayerGameData().getReplayRecorder();
+    int firstSlot = firstPendingEntityData.getEntityData().getSlot();
+    int secondSlot = awaitingPairMap.get(secondTrueNature).getEntityData().getSlot();
     if (Objects.equals(secondTrueNature.getCustomName(), pairName)) {
-      handleMatchPair(player, playerGameData, entityDataMap, firstTrueNature, secondTrueNature);
+      replayRecorder.record(ReplayEventType.MATCH, firstSlot, secondSlot);
+      handleMatchPair(player, gameSession, entityDataMap, firstTrueNature, secondTrueNature);
     } else {
+      replayRecorder.record(ReplayEventType.MISMATCH, firstSlot, secondSlot);
       handleMismatchPair(
-          player, playerGameData, entityDataMap, awaitingPairMap,
+          player, gameSession, entityDataMap, awaitingPairMap,
           firstPendingEntityData, secondTrueNature, firstTrueNature);
     }
     awaitingPairMap.clear();
@@ -238,85 +253,91 @@ public class PlayerInteractEntityListener implements Listener {
    * 視覚効果をつけて真の姿のエンティティを解放する（消滅させる）。
    *
    * @param player           プレイヤー
-   * @param playerGameData   プレイヤーのゲームデータ
+   * @param gameSession      ゲームセッション
    * @param entityDataMap    エンティティデータマップ
    * @param firstTrueNature  1体目の真の姿のエンティティ
    * @param secondTrueNature 2体目の真の姿のエンティティ
    */
   private void handleMatchPair(
-      Player player, PlayerGameData playerGameData, Map<LivingEntity, EntityData> entityDataMap,
+      Player player, GameSession gameSession, Map<LivingEntity, EntityData> entityDataMap,
       LivingEntity firstTrueNature, LivingEntity secondTrueNature) {
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     playerGameData.addMatchedPair();
     playerGameData.updateConsecutivePairs();
 
     int consecutivePairs = playerGameData.getConsecutivePairs();
-    updateScore(player, playerGameData, consecutivePairs);
+    updateScore(gameSession, consecutivePairs);
 
     sendTextManager.sendMatchPairMessage(player);
 
     String comboMessage = comboBonusManager.getComboMessage(consecutivePairs);
-    visualEffectManager.spawnComboMessageArmorStand(player, firstTrueNature, comboMessage);
-    visualEffectManager.spawnComboMessageArmorStand(player, secondTrueNature, comboMessage);
-    soundEffectManager.playMatchPairSound(player);
-
-    Bukkit.getScheduler().runTaskLater(main, () -> {
-      releaseTrueNature(player, entityDataMap, firstTrueNature);
-      releaseTrueNature(player, entityDataMap, secondTrueNature);
+    visualEffectManager.spawnComboMessageArmorStand(
+        player, gameSession, firstTrueNature, comboMessage);
+    visualEffectManager.spawnComboMessageArmorStand(
+        player, gameSession, secondTrueNature, comboMessage);
+    soundEffectManager.playMatchPairSound(player, gameSession);
+
+    gameSession.runTaskLater(() -> {
+      releaseTrueNature(player, gameSession, firstTrueNature);
+      releaseTrueNature(player, gameSession, secondTrueNature);
     }, TickTime.DELAY_LONG);
   }
 
   /**
    * ゲームの難易度に応じたポイントと連続ペア数に応じたコンボボーナスを掛け合わせてスコアに加算し、スコアボードを更新する。
    *
-   * @param player           ゲームを実行中のプレイヤー
-   * @param playerGameData   プレイヤーのゲームデータ
+   * @param gameSession      ゲームセッション
    * @param consecutivePairs 連続ペア数
    */
-  public void updateScore(Player player, PlayerGameData playerGameData, int consecutivePairs) {
+  public void updateScore(GameSession gameSession, int consecutivePairs) {
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     GameDifficulty gameDifficulty = playerGameData.getGameDifficulty();
     int addPoint = (int) Math.round(
         gameDifficulty.getPoint()
             * comboBonusManager.getComboBonus(consecutivePairs, gameDifficulty));
     playerGameData.addScore(addPoint);
-    scoreboardManager.updateCurrentScore(player, playerGameData);
+    scoreboardManager.updateCurrentScore(gameSession);
   }
 
   /**
-   * 真の姿のエンティティを視覚効果をつけて解放する（消滅させる）。
+   * 真の姿のエンティティを視覚効果をつけて解放する（スロットのエンティティを消滅させる）。
    *
-   * @param player        ゲームを実行中のプレイヤー
-   * @param entityDataMap エンティティデータマップ
-   * @param trueNature    真の姿のエンティティ
+   * @param player      ゲームを実行中のプレイヤー
+   * @param gameSession ゲームセッション
+   * @param trueNature  真の姿のエンティティ
    */
   private void releaseTrueNature(
-      Player player, Map<LivingEntity, EntityData> entityDataMap, LivingEntity trueNature) {
+      Player player, GameSession gameSession, LivingEntity trueNature) {
 
     visualEffectManager.spawnFreeTrueNatureParticle(player, trueNature.getLocation());
-    trueNature.remove();
-    entityDataMap.remove(trueNature);
+    EntityData entityData = gameSession.getEntityDataMap().remove(trueNature);
+    if (entityData != null) {
+      gameSession.getEntityPool().release(entityData.getSlot());
+    }
   }
 
   /**
    * ペアが揃わなかった場合に、メッセージを表示してサウンドを流し、連続ペア数をリセットする。<br>
-   * 残り時間が0.5秒以上の場合、呪われた姿のエンティティを再出現させて真の姿のエンティティを消滅させる。
+   * 残り時間が0.5秒以上の場合、真の姿のエンティティを非表示にして呪われた姿のエンティティに戻す。
    *
    * @param player                 プレイヤー
-   * @param playerGameData         プレイヤーデータ
+   * @param gameSession            ゲームセッション
    * @param firstPendingEntityData 1体目の待機中のエンティティデータ
    * @param secondTrueNature       2体目の真の姿のエンティティ
    * @param firstTrueNature        1体目の真の姿のエンティティ
    */
   private void handleMismatchPair(
-      Player player, PlayerGameData playerGameData, Map<LivingEntity, EntityData> entityDataMap,
+      Player player, GameSession gameSession, Map<LivingEntity, EntityData> entityDataMap,
       Map<LivingEntity, PendingEntityData> awaitingPairMap, PendingEntityData firstPendingEntityData,
       LivingEntity secondTrueNature, LivingEntity firstTrueNature) {
 
     sendTextManager.sendMisMatchMessage(player);
-    soundEffectManager.playMisMatchPairSound(player);
+    soundEffectManager.playMisMatchPairSound(player, gameSession);
 
+    PlayerGameData playerGameData = gameSession.getPlayerGameData();
     playerGameData.resetConsecutivePairs();
-    scoreboardManager.updateCurrentScore(player, playerGameData);
+    scoreboardManager.updateCurrentScore(gameSession);
 
     if (playerGameData.getGameTime() >= 0.5) {
       LivingEntity firstCursedEntity = firstPendingEntityData.getCursedEntity();
@@ -325,15 +346,11 @@ public class PlayerInteractEntityListener implements Listener {
       LivingEntity secondCursedEntity = secondPendingEntityData.getCursedEntity();
       EntityData secondEntityData = secondPendingEntityData.getEntityData();
 
-      Bukkit.getScheduler().runTaskLater(main, () -> {
-        spawnEntityManager.respawnCursedEntity(
+      gameSession.runTaskLater(() -> {
+        spawnEntityManager.restoreCursedEntity(
             player, entityDataMap, firstTrueNature, firstCursedEntity, firstEntityData);
-        spawnEntityManager.respawnCursedEntity(
+        spawnEntityManager.restoreCursedEntity(
             player, entityDataMap, secondTrueNature, secondCursedEntity, secondEntityData);
-        firstTrueNature.remove();
-        secondTrueNature.remove();
-        entityDataMap.remove(firstTrueNature);
-        entityDataMap.remove(secondTrueNature);
       }, TickTime.DELAY_LONG);
     }
   }
@@ -1,5 +1,6 @@
 package plugin.breakspell.menu;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -86,12 +87,29 @@ public enum GameMenu {
    * @return 表示名と説明文を設定したアイテム（スタック）
    */
   public ItemStack getItemStack(boolean disabled) {
+    return getItemStack(disabled, null);
+  }
+
+  /**
+   * 素材をアイテムスタックに変換し、表示名と説明文を設定して取得する。<br>
+   * 自己ベストがある場合は、有効な項目の説明文に自己ベストを追加する。
+   *
+   * @param disabled     無効の場合
+   * @param personalBest 自己ベスト（ない場合はnull）
+   * @return 表示名と説明文を設定したアイテム（スタック）
+   */
+  public ItemStack getItemStack(boolean disabled, Integer personalBest) {
     ItemStack item = new ItemStack(material);
     ItemMeta meta = item.getItemMeta();
     if (meta != null) {
+      List<String> loreLines = new ArrayList<>(getLore(disabled));
+      if (!disabled && personalBest != null) {
+        loreLines.add(ChatColor.AQUA + "自己ベスト : " + personalBest);
+      }
+
       meta.addItemFlags(ItemFlag.values());
       meta.setDisplayName(getMenuName(disabled));
-      meta.setLore(getLore(disabled));
+      meta.setLore(loreLines);
       item.setItemMeta(meta);
     }
     return item;
@@ -1,9 +1,13 @@
 package plugin.breakspell.menu;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import plugin.breakspell.Main;
+import plugin.breakspell.database.AsyncPlayerStatsConnector;
+import plugin.breakspell.database.data.PlayerStats;
 import plugin.breakspell.game.constant.GameDifficulty;
 import plugin.breakspell.game.constant.TickTime;
 import plugin.breakspell.game.manager.execution.GameStatusChecker;
@@ -15,42 +19,77 @@ public class MenuGuiManager {
 
   private final Main main;
   private final GameStatusChecker gameStatusChecker;
+  private final AsyncPlayerStatsConnector playerStatsConnector;
+  private final int rankingSize;
+
+  public MenuGuiManager(
+      Main main, GameStatusChecker gameStatusChecker,
+      AsyncPlayerStatsConnector playerStatsConnector, int rankingSize) {
 
-  public MenuGuiManager(Main main, GameStatusChecker gameStatusChecker) {
     this.main = main;
     this.gameStatusChecker = gameStatusChecker;
+    this.playerStatsConnector = playerStatsConnector;
+    this.rankingSize = rankingSize;
   }
 
   /**
-   * ゲームメニューGUIを開く。
+   * ゲームの進捗状況と成績をすべて確認してから、ゲームメニューGUIを開く。<br>
+   * 成績を読み込めない場合は、自己ベストを表示せずに開く。
    *
    * @param player コマンドを実行したプレイヤー
    */
   public void openGameMenuGui(Player player) {
-    Inventory gameMenuGui = Bukkit.createInventory(null, 9, MenuGui.GAME_MENU);
+    CompletableFuture<Boolean> isFirstPlay = gameStatusChecker.isFirstPlay(player);
+    CompletableFuture<Boolean> isNormalLocked =
+        gameStatusChecker.hasNotPlayedPreDifficulty(player, GameDifficulty.NORMAL);
+    CompletableFuture<Boolean> isHardLocked =
+        gameStatusChecker.hasNotPlayedPreDifficulty(player, GameDifficulty.HARD);
+    CompletableFuture<Boolean> isFirstClear = gameStatusChecker.isFirstClear(player);
+    CompletableFuture<Map<GameDifficulty, PlayerStats>> playerStatsMap =
+        playerStatsConnector.getPlayerStats(player.getUniqueId())
+            .exceptionally(ex -> Map.of());
+
+    CompletableFuture.allOf(
+            isFirstPlay, isNormalLocked, isHardLocked, isFirstClear, playerStatsMap)
+        .thenRun(() -> {
+          Inventory gameMenuGui = Bukkit.createInventory(null, 9, MenuGui.GAME_MENU);
 
-    setGameMenu(player, gameMenuGui);
-    player.openInventory(gameMenuGui);
+          setGameMenu(
+              gameMenuGui, isFirstPlay.join(), isNormalLocked.join(),
+              isHardLocked.join(), isFirstClear.join(), playerStatsMap.join());
+          player.openInventory(gameMenuGui);
+        });
   }
 
   /**
-   * ゲームメニューを設置する。
+   * ゲームメニューを設置する。難易度の項目にはプレイヤーの自己ベストを表示する。
    *
-   * @param player      コマンドを実行したプレイヤー
-   * @param gameMenuGui ゲームメニューGUI
+   * @param gameMenuGui    ゲームメニューGUI
+   * @param isFirstPlay    初回プレイかどうか
+   * @param isNormalLocked ノーマルモードが未解放かどうか
+   * @param isHardLocked   ハードモードが未解放かどうか
+   * @param isFirstClear   初回クリアかどうか
+   * @param playerStatsMap 難易度ごとの成績
    */
-  private void setGameMenu(Player player, Inventory gameMenuGui) {
+  private void setGameMenu(
+      Inventory gameMenuGui, boolean isFirstPlay, boolean isNormalLocked,
+      boolean isHardLocked, boolean isFirstClear, Map<GameDifficulty, PlayerStats> playerStatsMap) {
+
     for (GameMenu menu : GameMenu.values()) {
 
       boolean isDisabled = switch (menu) {
-        case PROLOGUE -> gameStatusChecker.isFirstPlay(player);
-        case NORMAL -> gameStatusChecker.hasNotPlayedPreDifficulty(player, GameDifficulty.NORMAL);
-        case HARD -> gameStatusChecker.hasNotPlayedPreDifficulty(player, GameDifficulty.HARD);
-        case EPILOGUE -> gameStatusChecker.isFirstClear(player);
+        case PROLOGUE -> isFirstPlay;
+        case NORMAL -> isNormalLocked;
+        case HARD -> isHardLocked;
+        case EPILOGUE -> isFirstClear;
         default -> false;
       };
 
-      gameMenuGui.setItem(menu.getSlotNum(), menu.getItemStack(isDisabled));
+      GameDifficulty gameDifficulty = GameMenu.getDifficulty(menu);
+      PlayerStats playerStats = gameDifficulty == null ? null : playerStatsMap.get(gameDifficulty);
+      Integer personalBest = playerStats == null ? null : playerStats.getBestScore();
+
+      gameMenuGui.setItem(menu.getSlotNum(), menu.getItemStack(isDisabled, personalBest));
     }
   }
 
@@ -73,7 +112,7 @@ public class MenuGuiManager {
     Inventory scoreMenuGui = Bukkit.createInventory(null, 9, MenuGui.SCORE_MENU);
 
     for (ScoreMenu menu : ScoreMenu.values()) {
-      scoreMenuGui.setItem(menu.getSlotNum(), menu.getItemStack());
+      scoreMenuGui.setItem(menu.getSlotNum(), menu.getItemStack(rankingSize));
     }
 
     player.openInventory(scoreMenuGui);
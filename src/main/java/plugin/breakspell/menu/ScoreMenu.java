@@ -16,18 +16,21 @@ public enum ScoreMenu {
   NEW(
       0, Material.CLOCK,
       "新着スコア", "最近登録されたスコアを最大5件表示する"),
+  NEXT_PAGE(
+      1, Material.ARROW,
+      "新着スコア（次のページ）", "表示中の新着スコアより古いスコアを最大5件表示する"),
   RANK(
       2, Material.CLOCK,
-      "全体ランキング", "全難易度のスコアTOP5を表示する"),
+      "全体ランキング", "全難易度のスコアTOP%dを表示する"),
   EASY(
       4, Material.CLOCK,
-      "難易度別ランキング（イージー）", "イージーモードのスコアTOP5を表示する"),
+      "難易度別ランキング（イージー）", "イージーモードのスコアTOP%dを表示する"),
   NORMAL(
       5, Material.CLOCK,
-      "難易度別ランキング（ノーマル）", "ノーマルモードのスコアTOP5を表示する"),
+      "難易度別ランキング（ノーマル）", "ノーマルモードのスコアTOP%dを表示する"),
   HARD(
       6, Material.CLOCK,
-      "難易度別ランキング（ハード）", "ハードモードのスコアTOP5を表示する"),
+      "難易度別ランキング（ハード）", "ハードモードのスコアTOP%dを表示する"),
   CLOSE(
       8, Material.WAXED_COPPER_DOOR,
       "閉じる", "スコアメニューを閉じる");
@@ -46,17 +49,19 @@ public enum ScoreMenu {
   }
 
   /**
-   * 素材をアイテムスタックに変換し、表示名を設定して取得する。
+   * 素材をアイテムスタックに変換し、表示名を設定して取得する。<br>
+   * 説明文にはランキングの表示件数を埋め込む。
    *
+   * @param rankingSize ランキングの表示件数
    * @return 表示名を設定したアイテム（スタック）
    */
-  public ItemStack getItemStack() {
+  public ItemStack getItemStack(int rankingSize) {
     ItemStack item = new ItemStack(material);
     ItemMeta meta = item.getItemMeta();
     if (meta != null) {
       meta.addItemFlags(ItemFlag.values());
       meta.setDisplayName(ChatColor.GOLD + menuName);
-      meta.setLore(List.of(ChatColor.YELLOW + lore));
+      meta.setLore(List.of(ChatColor.YELLOW + String.format(lore, rankingSize)));
       item.setItemMeta(meta);
     }
     return item;
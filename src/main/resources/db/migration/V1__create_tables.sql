@@ -0,0 +1,18 @@
+-- スコア情報テーブルと進捗状況テーブルを作成
+-- docker/init.sqlで作成済みの環境でもそのまま適用できるよう、存在しない場合のみ作成する
+CREATE TABLE IF NOT EXISTS player_score(
+  id INT AUTO_INCREMENT,
+  player_uuid VARCHAR(36),
+  player_name VARCHAR(16),
+  score INT,
+  difficulty VARCHAR(6),
+  registered_at DATETIME,
+  PRIMARY KEY (id));
+
+CREATE TABLE IF NOT EXISTS player_progress(
+  player_uuid VARCHAR(36),
+  difficulty VARCHAR(6),
+  played BOOLEAN,
+  cleared BOOLEAN,
+  cleared_at DATETIME,
+  PRIMARY KEY (player_uuid, difficulty));
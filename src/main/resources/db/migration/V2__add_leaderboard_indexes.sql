@@ -0,0 +1,11 @@
+-- ランキング（難易度別の上位スコア、ハイスコア）の取得用インデックス
+CREATE INDEX idx_player_score_difficulty_score
+  ON player_score (difficulty, score DESC, registered_at);
+
+-- 全体ランキングの取得用インデックス
+CREATE INDEX idx_player_score_score
+  ON player_score (score DESC, registered_at);
+
+-- プレイヤーごとのスコアの取得用インデックス
+CREATE INDEX idx_player_score_player_uuid_difficulty
+  ON player_score (player_uuid, difficulty);
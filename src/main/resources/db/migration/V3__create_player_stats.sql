@@ -0,0 +1,18 @@
+-- プレイヤーの難易度ごとの成績（集計値）テーブルを作成
+CREATE TABLE IF NOT EXISTS player_stats(
+  player_uuid VARCHAR(36),
+  difficulty VARCHAR(6),
+  best_score INT,
+  played_count INT,
+  cleared_count INT,
+  total_pairs INT,
+  last_played_at DATETIME,
+  PRIMARY KEY (player_uuid, difficulty));
+
+-- 登録済みのスコア情報から集計して初期値とする
+-- （クリア回数とペア数はスコア情報に記録されていないため、0から集計を始める）
+INSERT INTO player_stats(
+  player_uuid, difficulty, best_score, played_count, cleared_count, total_pairs, last_played_at)
+SELECT player_uuid, difficulty, MAX(score), COUNT(*), 0, 0, MAX(registered_at)
+FROM player_score
+GROUP BY player_uuid, difficulty;
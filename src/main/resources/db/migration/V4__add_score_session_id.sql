@@ -0,0 +1,6 @@
+-- ジャーナルに退避したスコア情報を重複なく再実行できるよう、ゲームごとのセッションIDを追加
+-- （登録済みのスコア情報はセッションIDを持たないため、NULLを許容する）
+ALTER TABLE player_score ADD COLUMN session_id VARCHAR(36);
+
+CREATE UNIQUE INDEX uk_player_score_session_id
+  ON player_score (session_id);
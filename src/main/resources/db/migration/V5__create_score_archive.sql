@@ -0,0 +1,29 @@
+-- 古いスコア情報の移動先（アーカイブ）テーブルを作成（IDはplayer_scoreテーブルのものを引き継ぐ）
+CREATE TABLE IF NOT EXISTS player_score_archive(
+  id INT PRIMARY KEY,
+  player_uuid VARCHAR(36),
+  player_name VARCHAR(100),
+  score INT,
+  difficulty VARCHAR(6),
+  registered_at DATETIME,
+  session_id VARCHAR(36));
+
+CREATE INDEX idx_player_score_archive_registered_at
+  ON player_score_archive (registered_at);
+
+-- アーカイブしたスコア情報の日別・難易度別の集計テーブルを作成
+CREATE TABLE IF NOT EXISTS player_score_daily_rollup(
+  play_date DATE,
+  difficulty VARCHAR(6),
+  play_count INT,
+  max_score INT,
+  total_score BIGINT,
+  PRIMARY KEY (play_date, difficulty));
+
+-- アーカイブしたスコア情報の日別・難易度別のスコア分布（ヒストグラム）テーブルを作成
+CREATE TABLE IF NOT EXISTS player_score_daily_histogram(
+  play_date DATE,
+  difficulty VARCHAR(6),
+  bucket_floor INT,
+  play_count INT,
+  PRIMARY KEY (play_date, difficulty, bucket_floor));
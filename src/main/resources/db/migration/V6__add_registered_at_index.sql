@@ -0,0 +1,3 @@
+-- 期間別ランキングの読み込み用インデックス（起動時にプレイ日時で絞り込む）
+CREATE INDEX idx_player_score_registered_at
+  ON player_score (registered_at);